@@ -0,0 +1,3 @@
+# HttpCompiler生成的序列化器按"实体类名$$JSONAdapter"通过Class.forName加载
+-keepnames @com.eric.http.utils.HttpSerializer$JSONSerializeModel class *
+-keep class **$$JSONAdapter { <init>(); }
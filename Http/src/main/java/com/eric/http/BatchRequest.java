@@ -0,0 +1,181 @@
+package com.eric.http;
+
+import com.eric.core.listener.WebCallbackListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author li
+ * @Package com.eric.http
+ * @Title: BatchRequest
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 批量请求，多个小请求合并为一次POST发送到批量接口，响应按id拆分后分别回调各自的监听。
+ * 请求体：{"requests":[{"id":"0","method":"POST","url":"/a?x=1","headers":{..},"body":"k=v"},..]}，
+ * JSON请求的body为JSON对象；
+ * 响应体：{"responses":[{"id":"0","status":200,"headers":{..},"body":..},..]}，body可以是JSON或字符串
+ */
+public class BatchRequest {
+    private static final String CHARSET_NAME = "UTF-8";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String FORM_URLENCODED = "application/x-www-form-urlencoded";
+
+    private final List<Item<?>> items = new ArrayList<>();
+
+    /**
+     * 添加get请求
+     *
+     * @param url       请求地址，可以是相对批量接口的路径（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   该请求的请求头
+     * @param urlParams url参数
+     * @param clazz     响应实体类型
+     * @param listener  回调监听
+     * @return BatchRequest
+     */
+    public <T> BatchRequest addGet(String url, Object tag, Map<String, String> headers, Map<String, String> urlParams,
+                                   Class<T> clazz, WebCallbackListener<T> listener) {
+        return add("GET", url, tag, headers, urlParams, null, clazz, listener);
+    }
+
+    /**
+     * 添加表单post请求，未指定Content-Type时按application/x-www-form-urlencoded发送
+     *
+     * @param bodyParams 请求体参数
+     * @return BatchRequest
+     */
+    public <T> BatchRequest addPost(String url, Object tag, Map<String, String> headers, Map<String, String> urlParams,
+                                    Map<String, String> bodyParams, Class<T> clazz, WebCallbackListener<T> listener) {
+        Item<T> item = newItem("POST", url, tag, formHeaders(headers), urlParams, clazz, listener);
+        item.body = encode(bodyParams);
+        items.add(item);
+        return this;
+    }
+
+    /**
+     * 添加JSON post请求
+     *
+     * @param json 请求体
+     * @return BatchRequest
+     */
+    public <T> BatchRequest addPostJson(String url, Object tag, Map<String, String> headers, JSONObject json, Class<T>
+            clazz, WebCallbackListener<T> listener) {
+        return add("POST", url, tag, headers, null, json, clazz, listener);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    List<Item<?>> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * 生成批量请求体
+     */
+    JSONObject toJSONObject() throws JSONException {
+        JSONObject root = new JSONObject();
+        for (int i = 0; i < items.size(); i++) {
+            Item<?> item = items.get(i);
+            JSONObject request = new JSONObject();
+            request.put("id", String.valueOf(i));
+            request.put("method", item.method);
+            request.put("url", item.url);
+            if (item.headers != null && !item.headers.isEmpty()) {
+                request.put("headers", new JSONObject(item.headers));
+            }
+            if (item.body != null) {
+                request.put("body", item.body);
+            }
+            root.append("requests", request);
+        }
+        return root;
+    }
+
+    private <T> BatchRequest add(String method, String url, Object tag, Map<String, String> headers, Map<String, String>
+            urlParams, Object body, Class<T> clazz, WebCallbackListener<T> listener) {
+        Item<T> item = newItem(method, url, tag, headers, urlParams, clazz, listener);
+        item.body = body;
+        items.add(item);
+        return this;
+    }
+
+    private <T> Item<T> newItem(String method, String url, Object tag, Map<String, String> headers, Map<String, String>
+            urlParams, Class<T> clazz, WebCallbackListener<T> listener) {
+        if (url == null || url.length() == 0 || clazz == null) {
+            throw new IllegalArgumentException("params is illegal");
+        }
+        Item<T> item = new Item<>();
+        item.method = method;
+        String query = encode(urlParams);
+        item.url = query.length() == 0 ? url : url + (url.indexOf('?') < 0 ? "?" : "&") + query;
+        item.tag = tag;
+        item.headers = headers;
+        item.clazz = clazz;
+        item.listener = listener;
+        return item;
+    }
+
+    private static Map<String, String> formHeaders(Map<String, String> headers) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (headers != null) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                if (CONTENT_TYPE.equalsIgnoreCase(entry.getKey())) {
+                    return headers;
+                }
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        result.put(CONTENT_TYPE, FORM_URLENCODED);
+        return result;
+    }
+
+    private static String encode(Map<String, String> params) {
+        StringBuilder builder = new StringBuilder();
+        if (params == null) {
+            return "";
+        }
+        try {
+            for (Map.Entry<String, String> entry : params.entrySet()) {
+                if (entry.getKey() == null || entry.getKey().length() == 0) {
+                    throw new IllegalArgumentException("params is illegal");
+                }
+                if (builder.length() > 0) {
+                    builder.append('&');
+                }
+                String value = entry.getValue() == null ? "" : entry.getValue();
+                builder.append(URLEncoder.encode(entry.getKey(), CHARSET_NAME)).append('=').append(URLEncoder.encode
+                        (value, CHARSET_NAME));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 批量中的单个请求
+     */
+    static class Item<T> {
+        String method;
+        String url;
+        Object tag;
+        Map<String, String> headers;
+        /**
+         * 表单字符串或JSONObject，get请求为null
+         */
+        Object body;
+        Class<T> clazz;
+        WebCallbackListener<T> listener;
+    }
+}
@@ -4,27 +4,46 @@ import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 
+import com.eric.core.core.CacheStats;
 import com.eric.core.core.CallHandle;
+import com.eric.core.core.ChunkedUploadOptions;
+import com.eric.core.core.DownloadDigest;
 import com.eric.core.core.FileEntity;
 import com.eric.core.core.HttpClientManager;
+import com.eric.core.core.HttpConfig;
+import com.eric.core.core.RequestOptions;
+import com.eric.core.core.ResponseParser;
 import com.eric.core.core.SyncResponse;
 import com.eric.core.listener.DownLoadListener;
 import com.eric.core.listener.UploadListener;
 import com.eric.core.listener.WebCallbackListener;
+import com.eric.http.cache.ObjectCache;
+import com.eric.http.converter.Converter;
+import com.eric.http.converter.ConverterResponseParser;
+import com.eric.http.converter.JsonConverter;
+import com.eric.http.converter.MessagePackConverter;
 import com.eric.http.error.ErrorParser;
 import com.eric.http.utils.CompatErrorUtil;
 import com.eric.http.utils.HttpSerializer;
+import com.eric.http.utils.JsonRequestBody;
+import com.eric.http.utils.JsonStreamReader;
 import com.eric.http.utils.NetworkUtils;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
 
 /**
  * @author li
@@ -35,12 +54,28 @@ import okhttp3.Headers;
  * 提供上层调用网络代理类
  */
 public class Http {
+    private static final MediaType BATCH_JSON = MediaType.parse("application/json; charset=utf-8");
     private Context context;
     private boolean isDebug;
     private String netWorkTip = "当前网络不可用，请检查";
+    /**
+     * 批量请求接口地址，由HttpConfig配置
+     */
+    private String batchUrl;
+    /**
+     * 响应体转换器，自定义转换器排在内置的MessagePack和JSON转换器之前
+     */
+    private final List<Converter> converters = new CopyOnWriteArrayList<>();
+    private int customConverterCount;
+    private final ConcurrentHashMap<Class<?>, ConverterResponseParser<?>> parsers = new ConcurrentHashMap<>();
+    /**
+     * 已解析响应实体的内存缓存，由HttpConfig配置容量，RequestOptions.objectCacheTtl启用
+     */
+    private final ObjectCache objectCache = new ObjectCache(0, 0);
 
     private Http() {
-
+        converters.add(new MessagePackConverter());
+        converters.add(new JsonConverter());
     }
 
     private static class LJHttpHolder {
@@ -60,9 +95,90 @@ public class Http {
      * @param isRetry        是否允许重试
      */
     public void init(Context context, boolean isDebug, long connectTimeout, long soTimeout, boolean isRetry) {
+        HttpConfig config = new HttpConfig();
+        config.setDebug(isDebug);
+        config.setConnectTimeout(connectTimeout);
+        config.setSoTimeout(soTimeout);
+        config.setRetry(isRetry);
+        init(context, config);
+    }
+
+    /**
+     * 初始化LJHttp
+     *
+     * @param config     初始化配置（超时、重试、磁盘缓存等）
+     * @param converters 自定义转换器，按顺序优先于内置转换器匹配
+     */
+    public void init(Context context, HttpConfig config, Converter... converters) {
         this.context = context;
-        this.isDebug = isDebug;
-        HttpClientManager.getInstance().init(context, isDebug, connectTimeout, soTimeout, isRetry, false);
+        this.isDebug = config.isDebug();
+        this.batchUrl = config.getBatchUrl();
+        HttpClientManager.getInstance().init(context, config);
+        parsers.clear();
+        objectCache.resize(config.getObjectCacheMaxEntries(), config.getObjectCacheMaxWeight());
+        setConverters(converters);
+    }
+
+    /**
+     * 已解析响应实体的内存缓存，可用于按key前缀或tag失效、读取命中率
+     *
+     * @return 内存缓存
+     */
+    public ObjectCache getObjectCache() {
+        return objectCache;
+    }
+
+    /**
+     * 磁盘缓存命中统计
+     *
+     * @return 缓存统计
+     */
+    public CacheStats getCacheStats() {
+        return HttpClientManager.getInstance().getCacheStats();
+    }
+
+    /**
+     * 初始化LJHttp并注册自定义响应体转换器
+     *
+     * @param isDebug        是否为debug模式
+     * @param connectTimeout 连接超时时间
+     * @param soTimeout      响应超时时间
+     * @param isRetry        是否允许重试
+     * @param converters     自定义转换器，按顺序优先于内置转换器匹配
+     */
+    public void init(Context context, boolean isDebug, long connectTimeout, long soTimeout, boolean isRetry, Converter...
+            converters) {
+        HttpConfig config = new HttpConfig();
+        config.setDebug(isDebug);
+        config.setConnectTimeout(connectTimeout);
+        config.setSoTimeout(soTimeout);
+        config.setRetry(isRetry);
+        init(context, config, converters);
+    }
+
+    /**
+     * 注册自定义响应体转换器，按注册顺序优先于内置的MessagePack和JSON转换器匹配
+     *
+     * @param converter 转换器
+     */
+    public synchronized void addConverter(Converter converter) {
+        if (converter == null) {
+            return;
+        }
+        converters.add(customConverterCount++, converter);
+    }
+
+    /**
+     * 替换全部自定义转换器，重复init时不会叠加之前注册的转换器
+     *
+     * @param custom 自定义转换器
+     */
+    private synchronized void setConverters(Converter... custom) {
+        converters.subList(0, customConverterCount).clear();
+        customConverterCount = 0;
+        for (Converter converter : custom) {
+            addConverter(converter);
+        }
     }
 
     /**
@@ -75,11 +191,28 @@ public class Http {
      * @return SyncResponse 响应体
      */
     public SyncResponse get(String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams) {
-        SyncResponse sr = syncCheckNetwork(tag);
-        if (sr != null) {
-            return sr;
+        return get(url, tag, headers, urlParams, null);
+    }
+
+    /**
+     * 同步get请求
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param options   请求可选项（缓存策略等），可为null
+     * @return SyncResponse 响应体
+     */
+    public SyncResponse get(String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams,
+                            RequestOptions options) {
+        if (!isOfflineCacheAllowed(options)) {
+            SyncResponse sr = syncCheckNetwork(tag);
+            if (sr != null) {
+                return sr;
+            }
         }
-        SyncResponse syncResponse = HttpClientManager.getInstance().get(url, tag, headers, urlParams);
+        SyncResponse syncResponse = HttpClientManager.getInstance().get(url, tag, headers, urlParams, options);
         if (syncResponse.getHttpCode() >= 400 && syncResponse.getHttpCode() < 600) {
             syncResponse.setData(ErrorParser.parse(syncResponse.getHttpCode()));
             return syncResponse;
@@ -137,97 +270,52 @@ public class Http {
 
     public <T> CallHandle asyncGet(final String url, final Object tag, Map<String, String> headers, final Map<String, String>
             urlParams, final Class<T> clazz, final WebCallbackListener<T> listener) {
-        final Handler handler = new Handler(Looper.getMainLooper());
-        if (!asyncCheckNetwork(tag, clazz, listener, handler)) {
-            return new CallHandle();
-        }
-        return HttpClientManager.getInstance().asyncGet(url, tag, headers, urlParams, new
-                WebCallbackListener<String>() {
-                    @Override
-                    public void onSuccess(final Object tag, final int httpCode, final String result, final Headers headers) {
-
-                        try {
-                            if (clazz == String.class) {
-                                T t = (T) (CompatErrorUtil.replaceJson(result, isDebug));
-                                if (listener != null) {
-                                    listener.onSuccess(tag, httpCode, t, headers);
-                                }
-                                return;
-                            }
-                            final T t = clazz.newInstance();
-                            HttpSerializer.deserializeJSONObject(t, new JSONObject(CompatErrorUtil.replaceJson(result, isDebug)));
-                            handler.post(new Runnable() {
-                                @Override
-                                public void run() {
-                                    if (listener != null) {
-                                        listener.onSuccess(tag, httpCode, t, headers);
-                                    }
-                                }
-                            });
-                        } catch (final Exception e) {
-                            if (clazz == String.class) {
-                                if (listener != null) {
-                                    listener.onFailure(tag, e);
-                                }
-                                return;
-                            }
-                            handler.post(new Runnable() {
-                                @Override
-                                public void run() {
-                                    if (listener != null) {
-                                        listener.onFailure(tag, e);
-                                    }
-                                }
-                            });
-                        }
-                    }
-
-                    @Override
-                    public void onData(final Object tag, final int httpCode, final String data) {
-                        if (clazz == String.class) {
-                            if (listener != null) {
-                                if (httpCode >= 400 && httpCode < 600) {
-                                    listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                                    return;
-                                }
-                                listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
-                            }
-                            return;
-                        }
-                        handler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                if (listener != null) {
-                                    if (httpCode >= 400 && httpCode < 600) {
-                                        listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                                        return;
-                                    }
-                                    listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
-                                }
-                            }
-                        });
-                    }
+        return asyncGet(url, tag, headers, urlParams, null, clazz, listener);
+    }
 
+    /**
+     * 异步get请求
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param options   请求可选项（缓存策略等），可为null
+     * @param listener  回调接口
+     * @return CallHandle 响应句柄
+     */
+    public <T> CallHandle asyncGet(final String url, final Object tag, Map<String, String> headers, final Map<String, String>
+            urlParams, RequestOptions options, final Class<T> clazz, final WebCallbackListener<T> listener) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        String cacheKey = null;
+        if (isStreamDecode(clazz) && options != null && options.getObjectCacheTtl() > 0) {
+            cacheKey = ObjectCache.key(url, urlParams, clazz);
+            final ObjectCache.Entry entry = objectCache.get(cacheKey);
+            if (entry != null) {
+                handler.post(new Runnable() {
                     @Override
-                    public void onFailure(final Object tag, Exception e) {
-                        final Exception exception;
-                        exception = ErrorParser.parse(e);
-                        if (clazz == String.class) {
-                            if (listener != null) {
-                                listener.onFailure(tag, exception);
-                            }
-                            return;
+                    public void run() {
+                        if (listener != null) {
+                            listener.onSuccess(tag, 200, clazz.cast(entry.getValue()), entry.getHeaders());
                         }
-                        handler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                if (listener != null) {
-                                    listener.onFailure(tag, exception);
-                                }
-                            }
-                        });
                     }
                 });
+                return new CallHandle();
+            }
+        }
+        if (!isOfflineCacheAllowed(options) && !asyncCheckNetwork(tag, clazz, listener, handler)) {
+            return new CallHandle();
+        }
+        if (isStreamDecode(clazz)) {
+            WebCallbackListener<T> callback = new MainThreadCallbackListener<>(handler, listener);
+            if (cacheKey != null) {
+                callback = new ObjectCacheListener<>(cacheKey, options.getObjectCacheTtl(), callback);
+            }
+            return HttpClientManager.getInstance().asyncGet(url, tag, headers, urlParams, options, responseParser(clazz),
+                    callback);
+        }
+        return HttpClientManager.getInstance().asyncGet(url, tag, headers, urlParams, options, new
+                StringCallbackListener<>(clazz, listener));
     }
 
     /**
@@ -249,92 +337,12 @@ public class Http {
         if (!asyncCheckNetwork(tag, clazz, listener, handler)) {
             return new CallHandle();
         }
-        return HttpClientManager.getInstance().asyncPost(url, tag, headers, urlParams, bodyParams, new WebCallbackListener<String>() {
-            @Override
-            public void onSuccess(final Object tag, final int httpCode, final String result, final Headers headers) {
-                try {
-                    if (clazz == String.class) {
-                        T t = (T) (CompatErrorUtil.replaceJson(result, isDebug));
-                        if (listener != null) {
-                            listener.onSuccess(tag, httpCode, t, headers);
-                        }
-                        return;
-                    }
-                    final T t = clazz.newInstance();
-                    HttpSerializer.deserializeJSONObject(t, new JSONObject(CompatErrorUtil.replaceJson(result, isDebug)));
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (listener != null) {
-                                listener.onSuccess(tag, httpCode, t, headers);
-                            }
-                        }
-                    });
-                } catch (final Exception e) {
-                    if (clazz == String.class) {
-                        if (listener != null) {
-                            listener.onFailure(tag, e);
-                        }
-                        return;
-                    }
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (listener != null) {
-                                listener.onFailure(tag, e);
-                            }
-                        }
-                    });
-                }
-            }
-
-            @Override
-            public void onData(final Object tag, final int httpCode, final String data) {
-                if (clazz == String.class) {
-                    if (listener != null) {
-                        if (httpCode >= 400 && httpCode < 600) {
-                            listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                            return;
-                        }
-                        listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
-                    }
-                    return;
-                }
-                handler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (listener != null) {
-                            if (httpCode >= 400 && httpCode < 600) {
-                                listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                                return;
-                            }
-                            listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
-                        }
-                    }
-                });
-            }
-
-
-            @Override
-            public void onFailure(final Object tag, Exception e) {
-                final Exception exception;
-                exception = ErrorParser.parse(e);
-                if (clazz == String.class) {
-                    if (listener != null) {
-                        listener.onFailure(tag, exception);
-                    }
-                    return;
-                }
-                handler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (listener != null) {
-                            listener.onFailure(tag, exception);
-                        }
-                    }
-                });
-            }
-        }, isGzip);
+        if (isStreamDecode(clazz)) {
+            return HttpClientManager.getInstance().asyncPost(url, tag, headers, urlParams, bodyParams, responseParser
+                    (clazz), new MainThreadCallbackListener<>(handler, listener), isGzip);
+        }
+        return HttpClientManager.getInstance().asyncPost(url, tag, headers, urlParams, bodyParams, new
+                StringCallbackListener<>(clazz, listener), isGzip);
     }
 
     /**
@@ -356,93 +364,12 @@ public class Http {
         if (!asyncCheckNetwork(tag, clazz, listener, handler)) {
             return new CallHandle();
         }
+        if (isStreamDecode(clazz)) {
+            return HttpClientManager.getInstance().asyncPost(url, tag, headers, urlParams, bodyParams, responseParser
+                    (clazz), new MainThreadCallbackListener<>(handler, listener), isGzip);
+        }
         return HttpClientManager.getInstance().asyncPost(url, tag, headers, urlParams, bodyParams, new
-                WebCallbackListener<String>() {
-                    @Override
-                    public void onSuccess(final Object tag, final int httpCode, final String result, final Headers headers) {
-                        try {
-                            if (clazz == String.class) {
-                                T t = (T) (CompatErrorUtil.replaceJson(result, isDebug));
-                                if (listener != null) {
-                                    listener.onSuccess(tag, httpCode, t, headers);
-                                }
-                                return;
-                            }
-                            final T t = clazz.newInstance();
-                            HttpSerializer.deserializeJSONObject(t, new JSONObject(CompatErrorUtil.replaceJson(result, isDebug)));
-                            handler.post(new Runnable() {
-                                @Override
-                                public void run() {
-                                    if (listener != null) {
-                                        listener.onSuccess(tag, httpCode, t, headers);
-                                    }
-                                }
-                            });
-                        } catch (final Exception e) {
-                            if (clazz == String.class) {
-                                if (listener != null) {
-                                    listener.onFailure(tag, e);
-                                }
-                                return;
-                            }
-                            handler.post(new Runnable() {
-                                @Override
-                                public void run() {
-                                    if (listener != null) {
-                                        listener.onFailure(tag, e);
-                                    }
-                                }
-                            });
-                        }
-                    }
-
-                    @Override
-                    public void onData(final Object tag, final int httpCode, final String data) {
-                        if (clazz == String.class) {
-                            if (listener != null) {
-                                if (httpCode >= 400 && httpCode < 600) {
-                                    listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                                    return;
-                                }
-                                listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
-                            }
-                            return;
-                        }
-                        handler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                if (listener != null) {
-                                    if (httpCode >= 400 && httpCode < 600) {
-                                        listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                                        return;
-                                    }
-                                    listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
-                                }
-                            }
-                        });
-                    }
-
-
-                    @Override
-                    public void onFailure(final Object tag, Exception e) {
-                        final Exception exception;
-                        exception = ErrorParser.parse(e);
-                        if (clazz == String.class) {
-                            if (listener != null) {
-                                listener.onFailure(tag, exception);
-                            }
-                            return;
-                        }
-                        handler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                if (listener != null) {
-                                    listener.onFailure(tag, exception);
-                                }
-                            }
-                        });
-                    }
-                }, isGzip);
+                StringCallbackListener<>(clazz, listener), isGzip);
     }
 
     /**
@@ -466,93 +393,250 @@ public class Http {
         final String params = jsonObject == null ? "" : jsonObject.toString();
         final Map<String, String> trackParam = new HashMap<>();
         trackParam.put("jsonObject", params);
-        callHandle = HttpClientManager.getInstance().asyncPostJson(url, tag, headers, params, new WebCallbackListener<String>() {
-            @Override
-            public void onSuccess(final Object tag, final int httpCode, final String result, final Headers headers) {
-                try {
-                    if (clazz == String.class) {
-                        T t = (T) (CompatErrorUtil.replaceJson(result, isDebug));
-                        if (listener != null) {
-                            listener.onSuccess(tag, httpCode, t, headers);
-                        }
-                        return;
-                    }
-                    final T t = clazz.newInstance();
-                    HttpSerializer.deserializeJSONObject(t, new JSONObject(CompatErrorUtil.replaceJson(result, isDebug)));
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (listener != null) {
-                                listener.onSuccess(tag, httpCode, t, headers);
-                            }
-                        }
-                    });
-                } catch (final Exception e) {
-                    if (clazz == String.class) {
-                        if (listener != null) {
-                            listener.onFailure(tag, e);
-                        }
-                        return;
-                    }
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (listener != null) {
-                                listener.onFailure(tag, e);
-                            }
-                        }
-                    });
-                }
+        if (isStreamDecode(clazz)) {
+            return HttpClientManager.getInstance().asyncPostJson(url, tag, headers, params, responseParser(clazz), new
+                    MainThreadCallbackListener<>(handler, listener), isGzip);
+        }
+        callHandle = HttpClientManager.getInstance().asyncPostJson(url, tag, headers, params, new
+                StringCallbackListener<>(clazz, listener), isGzip);
+        return callHandle;
+    }
 
-            }
+    /**
+     * 异步post json格式请求，请求实体在OkHttp写请求体时直接序列化，不生成中间JSONObject和String
+     *
+     * @param url      http请求的url（PS:不包括url参数）
+     * @param tag      代表的业务请求编码
+     * @param headers  http请求头
+     * @param body     请求体实体对象
+     * @param listener 回调监听
+     * @param isGzip   是否GZIP压缩
+     * @return CallHandle  响应句柄
+     */
+    public <T> CallHandle asyncPostJson(final String url, final Object tag, Map<String, String> headers, Object body,
+                                        final Class<T> clazz, final WebCallbackListener<T> listener, final boolean isGzip) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        if (!asyncCheckNetwork(tag, clazz, listener, handler)) {
+            return new CallHandle();
+        }
+        JsonRequestBody requestBody = body == null ? null : new JsonRequestBody(body);
+        if (isStreamDecode(clazz)) {
+            return HttpClientManager.getInstance().asyncPostJson(url, tag, headers, requestBody, responseParser(clazz),
+                    new MainThreadCallbackListener<>(handler, listener), isGzip);
+        }
+        return HttpClientManager.getInstance().asyncPostJson(url, tag, headers, requestBody, new
+                StringCallbackListener<>(clazz, listener), isGzip);
+    }
+
+    /**
+     * 批量请求，合并发送到初始化时配置的批量接口（HttpConfig.batchUrl）
+     *
+     * @param batch  批量请求，各子请求分别回调自己的监听
+     * @param isGzip 是否GZIP压缩
+     * @return CallHandle 响应句柄，取消时取消整个批量请求
+     */
+    public CallHandle asyncBatch(BatchRequest batch, boolean isGzip) {
+        return asyncBatch(batchUrl, generateTag(), null, batch, isGzip);
+    }
 
+    /**
+     * 批量请求，多个子请求合并为一次POST，响应按id拆分后在主线程分别回调；
+     * 批量请求本身失败时每个子请求都会收到onFailure或onData
+     *
+     * @param url     批量接口url
+     * @param tag     批量请求的标志位，用于取消
+     * @param headers 批量请求的请求头
+     * @param batch   批量请求
+     * @param isGzip  是否GZIP压缩
+     * @return CallHandle 响应句柄，取消时取消整个批量请求
+     */
+    public CallHandle asyncBatch(String url, Object tag, Map<String, String> headers, BatchRequest batch, boolean
+            isGzip) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        final List<BatchRequest.Item<?>> items = batch.getItems();
+        if (items.isEmpty()) {
+            return new CallHandle();
+        }
+        if (!NetworkUtils.isNetworkAvailable(context)) {
+            failBatch(items, handler, new Exception(netWorkTip));
+            return new CallHandle();
+        }
+        String json;
+        try {
+            json = batch.toJSONObject().toString();
+        } catch (JSONException e) {
+            failBatch(items, handler, e);
+            return new CallHandle();
+        }
+        // 子响应在网络线程边读边回调，delivered记录已回调的子请求
+        final boolean[] delivered = new boolean[items.size()];
+        ResponseParser<Void> parser = new ResponseParser<Void>() {
             @Override
-            public void onData(final Object tag, final int httpCode, final String data) {
-                if (clazz == String.class) {
-                    if (listener != null) {
-                        if (httpCode >= 400 && httpCode < 600) {
-                            listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                            return;
+            public Void parse(ResponseBody body) throws Exception {
+                JsonStreamReader reader = new JsonStreamReader(body.source());
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (!"responses".equals(reader.nextName()) || reader.peek() != JsonStreamReader.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (reader.peek() != JsonStreamReader.BEGIN_OBJECT) {
+                            reader.skipValue();
+                            continue;
                         }
-                        listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
+                        readBatchResponse(reader, items, delivered, handler);
                     }
-                    return;
+                    reader.endArray();
                 }
-                handler.post(new Runnable() {
+                reader.endObject();
+                return null;
+            }
+        };
+        return HttpClientManager.getInstance().asyncPostJson(url, tag, headers, json, parser, new
+                WebCallbackListener<Void>() {
                     @Override
-                    public void run() {
-                        if (listener != null) {
-                            if (httpCode >= 400 && httpCode < 600) {
-                                listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
-                                return;
+                    public void onSuccess(Object tag, int httpCode, Void result, Headers headers) {
+                        for (int i = 0; i < items.size(); i++) {
+                            if (!delivered[i]) {
+                                new MainThreadCallbackListener<>(handler, items.get(i).listener).onFailure(items.get(i)
+                                        .tag, new IOException("missing batch response"));
                             }
-                            listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
                         }
                     }
-                });
-            }
 
-            @Override
-            public void onFailure(final Object tag, Exception e) {
-                final Exception exception;
-                exception = ErrorParser.parse(e);
-                if (clazz == String.class) {
-                    if (listener != null) {
-                        listener.onFailure(tag, exception);
+                    @Override
+                    public void onData(Object tag, int httpCode, String data) {
+                        for (BatchRequest.Item<?> item : items) {
+                            new MainThreadCallbackListener<>(handler, item.listener).onData(item.tag, httpCode, data);
+                        }
                     }
-                    return;
-                }
-                handler.post(new Runnable() {
+
                     @Override
-                    public void run() {
-                        if (listener != null) {
-                            listener.onFailure(tag, exception);
+                    public void onFailure(Object tag, Exception e) {
+                        for (int i = 0; i < items.size(); i++) {
+                            if (!delivered[i]) {
+                                new MainThreadCallbackListener<>(handler, items.get(i).listener).onFailure(items.get(i)
+                                        .tag, e);
+                            }
                         }
                     }
-                });
+                }, isGzip);
+    }
+
+    private void failBatch(List<BatchRequest.Item<?>> items, Handler handler, Exception e) {
+        for (BatchRequest.Item<?> item : items) {
+            new MainThreadCallbackListener<>(handler, item.listener).onFailure(item.tag, e);
+        }
+    }
+
+    /**
+     * 读取一个子响应并回调；id和status在body之前时，成功的body直接从流解析为实体，否则先读出body文本
+     */
+    private void readBatchResponse(JsonStreamReader reader, List<BatchRequest.Item<?>> items, boolean[] delivered,
+                                   Handler handler) throws IOException {
+        int index = -1;
+        int status = -1;
+        Headers.Builder headers = new Headers.Builder();
+        String data = "";
+        Object value = null;
+        boolean decoded = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            int token = reader.peek();
+            if ("id".equals(name) && (token == JsonStreamReader.STRING || token == JsonStreamReader.NUMBER)) {
+                index = batchIndex(reader.nextString(), items.size());
+            } else if ("status".equals(name) && (token == JsonStreamReader.STRING || token == JsonStreamReader.NUMBER)) {
+                status = parseStatus(reader.nextString());
+            } else if ("headers".equals(name) && token == JsonStreamReader.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String headerName = reader.nextName();
+                    String headerValue = HttpSerializer.readRawValue(reader);
+                    try {
+                        headers.add(headerName, headerValue);
+                    } catch (IllegalArgumentException e) {
+                        // 忽略非法的响应头
+                    }
+                }
+                reader.endObject();
+            } else if ("body".equals(name)) {
+                if (index >= 0 && status >= 200 && status < 300 && token == JsonStreamReader.BEGIN_OBJECT &&
+                        isBatchStreamDecode(items.get(index).clazz)) {
+                    value = HttpSerializer.deserializeStream(items.get(index).clazz, reader);
+                    decoded = true;
+                } else {
+                    data = HttpSerializer.readRawValue(reader);
+                }
+            } else {
+                reader.skipValue();
             }
-        }, isGzip);
-        return callHandle;
+        }
+        reader.endObject();
+        if (index < 0 || delivered[index]) {
+            return;
+        }
+        delivered[index] = true;
+        deliverBatchItem(items.get(index), status, headers.build(), data, value, decoded, handler);
+    }
+
+    /**
+     * 解析单个子响应并回调，非2xx按onData回调
+     */
+    private <T> void deliverBatchItem(BatchRequest.Item<T> item, int status, Headers headers, String data, Object value,
+                                      boolean decoded, Handler handler) {
+        WebCallbackListener<T> callback = new MainThreadCallbackListener<>(handler, item.listener);
+        if (status < 200 || status >= 300) {
+            callback.onData(item.tag, status, data);
+            return;
+        }
+        try {
+            T t;
+            if (decoded) {
+                t = item.clazz.cast(value);
+            } else if (isStreamDecode(item.clazz)) {
+                t = responseParser(item.clazz).parse(ResponseBody.create(BATCH_JSON, data));
+            } else {
+                t = item.clazz.cast(CompatErrorUtil.replaceJson(data, isDebug));
+            }
+            callback.onSuccess(item.tag, status, t, headers);
+        } catch (Exception e) {
+            callback.onFailure(item.tag, e);
+        }
+    }
+
+    /**
+     * 子响应能否直接从批量响应流解析：非debug模式且JSON转换器是该类型匹配的第一个转换器
+     */
+    private boolean isBatchStreamDecode(Class<?> clazz) {
+        if (isDebug || !isStreamDecode(clazz)) {
+            return false;
+        }
+        for (Converter converter : converters) {
+            if (converter.canConvert(BATCH_JSON, clazz)) {
+                return converter instanceof JsonConverter;
+            }
+        }
+        return false;
+    }
+
+    private static int batchIndex(String id, int size) {
+        try {
+            int index = Integer.parseInt(id);
+            return index >= 0 && index < size ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int parseStatus(String status) {
+        try {
+            return (int) Double.parseDouble(status);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     /**
@@ -584,6 +668,9 @@ public class Http {
                 if (files != null) {
                     try {
                         for (FileEntity entity : files) {
+                            if (entity.getFile() == null) {
+                                continue;
+                            }
                             String path = entity.getFile().getAbsolutePath();
                             File file = new File(path);
                             if (file.exists()) {
@@ -676,22 +763,24 @@ public class Http {
                 });
             }
 
+            private final ProgressPoster progress = new ProgressPoster(handler) {
+                @Override
+                void deliver(long bytesWrite, long totalBytes, boolean isDone) {
+                    if (listener != null) {
+                        listener.onProgress(bytesWrite, totalBytes, isDone);
+                    }
+                }
+            };
+
             @Override
-            public void onProgress(final long bytesWrite, final long totalBytes, final boolean isDone) {
+            public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
                 if (clazz == String.class) {
                     if (listener != null) {
                         listener.onProgress(bytesWrite, totalBytes, isDone);
                     }
                     return;
                 }
-                handler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (listener != null) {
-                            listener.onProgress(bytesWrite, totalBytes, isDone);
-                        }
-                    }
-                });
+                progress.post(bytesWrite, totalBytes, isDone);
             }
         }, isGzip);
     }
@@ -710,11 +799,60 @@ public class Http {
      */
     public CallHandle asyncDownLoad(final String url, final Object tag, final String destPath, Map<String, String> headers,
                                     final Map<String, String> urlParams, final DownLoadListener listener, final boolean isRange) {
+        return asyncDownLoad(url, tag, destPath, headers, urlParams, null, listener, isRange);
+    }
+
+    /**
+     * get请求 下载文件，写文件时同步校验摘要，不一致时回调onFailure
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param destPath  下载后存储的目标路径
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param digest    文件校验，为null时不校验
+     * @param listener  回调监听
+     * @param isRange   是否开启断点续传
+     * @return CallHandle 响应句柄
+     */
+    public CallHandle asyncDownLoad(final String url, final Object tag, final String destPath, Map<String, String> headers,
+                                    final Map<String, String> urlParams, DownloadDigest digest, final DownLoadListener
+                                            listener, final boolean isRange) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        if (!asyncCheckNetwork(tag, listener, handler)) {
+            return new CallHandle();
+        }
+        return HttpClientManager.getInstance().asyncDownLoad(url, tag, destPath, headers, urlParams, digest,
+                mainThreadDownLoadListener(handler, listener), isRange);
+    }
+
+    /**
+     * get请求 多连接分段下载文件，服务端不支持Range时回退为单连接
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param destPath  下载后存储的目标路径
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param segments  分段数
+     * @param listener  回调监听
+     * @return CallHandle 响应句柄
+     */
+    public CallHandle asyncSegmentedDownLoad(final String url, final Object tag, final String destPath, Map<String,
+            String> headers, final Map<String, String> urlParams, int segments, final DownLoadListener listener) {
         final Handler handler = new Handler(Looper.getMainLooper());
         if (!asyncCheckNetwork(tag, listener, handler)) {
             return new CallHandle();
         }
-        return HttpClientManager.getInstance().asyncDownLoad(url, tag, destPath, headers, urlParams, new DownLoadListener() {
+        return HttpClientManager.getInstance().asyncSegmentedDownLoad(url, tag, destPath, headers, urlParams, segments,
+                mainThreadDownLoadListener(handler, listener));
+    }
+
+    /**
+     * 包装下载回调：错误码转换并切换到主线程
+     */
+    private DownLoadListener mainThreadDownLoadListener(final Handler handler, final DownLoadListener listener) {
+        return new DownLoadListener() {
             @Override
             public void onSuccess(final Object tag, final int httpCode, final File file) {
                 handler.post(new Runnable() {
@@ -758,18 +896,20 @@ public class Http {
                 });
             }
 
-            @Override
-            public void onProgress(final long bytesWrite, final long totalBytes, final boolean isDone) {
-                handler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (listener != null) {
-                            listener.onProgress(bytesWrite, totalBytes, isDone);
-                        }
+            private final ProgressPoster progress = new ProgressPoster(handler) {
+                @Override
+                void deliver(long bytesWrite, long totalBytes, boolean isDone) {
+                    if (listener != null) {
+                        listener.onProgress(bytesWrite, totalBytes, isDone);
                     }
-                });
+                }
+            };
+
+            @Override
+            public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
+                progress.post(bytesWrite, totalBytes, isDone);
             }
-        }, isRange);
+        };
     }
 
 
@@ -877,26 +1017,318 @@ public class Http {
                 });
             }
 
+            private final ProgressPoster progress = new ProgressPoster(handler) {
+                @Override
+                void deliver(long bytesWrite, long totalBytes, boolean isDone) {
+                    if (listener != null) {
+                        listener.onProgress(bytesWrite, totalBytes, isDone);
+                    }
+                }
+            };
+
             @Override
-            public void onProgress(final long bytesWrite, final long totalBytes, final boolean isDone) {
+            public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
                 if (clazz == String.class) {
                     if (listener != null) {
                         listener.onProgress(bytesWrite, totalBytes, isDone);
                     }
                     return;
                 }
+                progress.post(bytesWrite, totalBytes, isDone);
+            }
+        }, isGzip);
+    }
+
+    /**
+     * 分块续传上传大文件（tus协议），上传中断后再次调用会从服务端最后确认的块继续
+     *
+     * @param url      tus创建上传的地址
+     * @param tag      代表的业务请求编码
+     * @param headers  http请求头
+     * @param entity   上传的文件
+     * @param options  分块大小、并行数、日志目录，为null时使用默认值
+     * @param listener 回调监听，成功时返回最终的上传地址
+     * @return CallHandle 响应句柄
+     */
+    public CallHandle asyncChunkedUpload(final String url, final Object tag, Map<String, String> headers, FileEntity
+            entity, ChunkedUploadOptions options, final UploadListener<String> listener) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        if (!asyncCheckNetwork(tag, null, listener, handler)) {
+            return new CallHandle();
+        }
+        return HttpClientManager.getInstance().asyncChunkedUpload(url, tag, headers, entity, options, new
+                UploadListener<String>() {
+            private final ProgressPoster progress = new ProgressPoster(handler) {
+                @Override
+                void deliver(long bytesWrite, long totalBytes, boolean isDone) {
+                    if (listener != null) {
+                        listener.onProgress(bytesWrite, totalBytes, isDone);
+                    }
+                }
+            };
+
+            @Override
+            public void onSuccess(final Object tag, final int httpCode, final String result, final Headers headers) {
                 handler.post(new Runnable() {
                     @Override
                     public void run() {
                         if (listener != null) {
-                            listener.onProgress(bytesWrite, totalBytes, isDone);
+                            listener.onSuccess(tag, httpCode, result, headers);
                         }
                     }
                 });
             }
-        }, isGzip);
+
+            @Override
+            public void onData(final Object tag, final int httpCode, final String data) {
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (listener != null) {
+                            if (httpCode >= 400 && httpCode < 600) {
+                                listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
+                                return;
+                            }
+                            listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(final Object tag, Exception e) {
+                final Exception exception = ErrorParser.parse(e);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (listener != null) {
+                            listener.onFailure(tag, exception);
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
+                progress.post(bytesWrite, totalBytes, isDone);
+            }
+        });
+    }
+
+
+    /**
+     * 缓存策略允许离线读缓存时，跳过网络可用性检查
+     *
+     * @param options 请求可选项
+     * @return 是否允许离线请求
+     */
+    private boolean isOfflineCacheAllowed(RequestOptions options) {
+        return options != null && (options.getCachePolicy() == RequestOptions.CACHE_FIRST || options.getCachePolicy()
+                == RequestOptions.CACHE_ONLY_OFFLINE);
+    }
+
+    /**
+     * 是否通过转换器直接从响应流解析实体；debug模式下由ConverterResponseParser打印文本响应日志
+     *
+     * @param clazz 目标Class字节码类型
+     * @return 是否流式解析
+     */
+    private boolean isStreamDecode(Class<?> clazz) {
+        return clazz != String.class;
+    }
+
+    /**
+     * 获取目标类型的响应解析器，每个Class共用一个实例
+     *
+     * @param clazz 目标Class字节码类型
+     * @param <T>   泛型
+     * @return 响应解析器
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ConverterResponseParser<T> responseParser(Class<T> clazz) {
+        ConverterResponseParser<?> parser = parsers.get(clazz);
+        if (parser == null) {
+            parser = new ConverterResponseParser<>(clazz, converters, isDebug);
+            ConverterResponseParser<?> previous = parsers.putIfAbsent(clazz, parser);
+            if (previous != null) {
+                parser = previous;
+            }
+        }
+        return (ConverterResponseParser<T>) parser;
+    }
+
+    /**
+     * 成功解析后写入内存缓存
+     */
+    private class ObjectCacheListener<T> implements WebCallbackListener<T> {
+        private final String key;
+        private final long ttl;
+        private final WebCallbackListener<T> listener;
+
+        ObjectCacheListener(String key, long ttl, WebCallbackListener<T> listener) {
+            this.key = key;
+            this.ttl = ttl;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSuccess(Object tag, int httpCode, T t, Headers headers) {
+            objectCache.put(key, tag, t, headers, ttl);
+            listener.onSuccess(tag, httpCode, t, headers);
+        }
+
+        @Override
+        public void onData(Object tag, int httpCode, String data) {
+            listener.onData(tag, httpCode, data);
+        }
+
+        @Override
+        public void onFailure(Object tag, Exception e) {
+            listener.onFailure(tag, e);
+        }
+    }
+
+    /**
+     * 合并投递到主线程的进度：同一传输最多只有一条待处理的进度消息，执行时取最新进度，完成状态不会丢失
+     */
+    private abstract static class ProgressPoster implements Runnable {
+        private final Handler handler;
+        private boolean isPending;
+        private long bytesWrite;
+        private long totalBytes;
+        private boolean isDone;
+
+        ProgressPoster(Handler handler) {
+            this.handler = handler;
+        }
+
+        void post(long bytesWrite, long totalBytes, boolean isDone) {
+            synchronized (this) {
+                this.bytesWrite = bytesWrite;
+                this.totalBytes = totalBytes;
+                this.isDone = this.isDone || isDone;
+                if (isPending) {
+                    return;
+                }
+                isPending = true;
+            }
+            handler.post(this);
+        }
+
+        @Override
+        public void run() {
+            long bytesWrite;
+            long totalBytes;
+            boolean isDone;
+            synchronized (this) {
+                bytesWrite = this.bytesWrite;
+                totalBytes = this.totalBytes;
+                isDone = this.isDone;
+                isPending = false;
+            }
+            deliver(bytesWrite, totalBytes, isDone);
+        }
+
+        abstract void deliver(long bytesWrite, long totalBytes, boolean isDone);
+    }
+
+    /**
+     * 目标类型为String时的回调，在网络线程直接回调文本结果
+     */
+    private class StringCallbackListener<T> implements WebCallbackListener<String> {
+        private final Class<T> clazz;
+        private final WebCallbackListener<T> listener;
+
+        StringCallbackListener(Class<T> clazz, WebCallbackListener<T> listener) {
+            this.clazz = clazz;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSuccess(Object tag, int httpCode, String result, Headers headers) {
+            if (listener == null) {
+                return;
+            }
+            try {
+                listener.onSuccess(tag, httpCode, clazz.cast(CompatErrorUtil.replaceJson(result, isDebug)), headers);
+            } catch (Exception e) {
+                listener.onFailure(tag, e);
+            }
+        }
+
+        @Override
+        public void onData(Object tag, int httpCode, String data) {
+            if (listener == null) {
+                return;
+            }
+            if (httpCode >= 400 && httpCode < 600) {
+                listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
+                return;
+            }
+            listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
+        }
+
+        @Override
+        public void onFailure(Object tag, Exception e) {
+            if (listener != null) {
+                listener.onFailure(tag, ErrorParser.parse(e));
+            }
+        }
     }
 
+    /**
+     * 将HttpClientManager网络线程的回调切换到主线程
+     */
+    private class MainThreadCallbackListener<T> implements WebCallbackListener<T> {
+        private final Handler handler;
+        private final WebCallbackListener<T> listener;
+
+        MainThreadCallbackListener(Handler handler, WebCallbackListener<T> listener) {
+            this.handler = handler;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSuccess(final Object tag, final int httpCode, final T t, final Headers headers) {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (listener != null) {
+                        listener.onSuccess(tag, httpCode, t, headers);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onData(final Object tag, final int httpCode, final String data) {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (listener != null) {
+                        if (httpCode >= 400 && httpCode < 600) {
+                            listener.onData(tag, httpCode, ErrorParser.parse(httpCode));
+                            return;
+                        }
+                        listener.onData(tag, httpCode, CompatErrorUtil.replaceJson(data, isDebug));
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onFailure(final Object tag, Exception e) {
+            final Exception exception = ErrorParser.parse(e);
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (listener != null) {
+                        listener.onFailure(tag, exception);
+                    }
+                }
+            });
+        }
+    }
 
     private SyncResponse syncCheckNetwork(Object tag) {
         if (!NetworkUtils.isNetworkAvailable(context)) {
@@ -0,0 +1,274 @@
+package com.eric.http.cache;
+
+import android.os.SystemClock;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+
+/**
+ * @author li
+ * @Package com.eric.http.cache
+ * @Title: ObjectCache
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 已解析响应实体的内存缓存（L1），按规范化URL+排序后的url参数+目标类型索引，
+ * 带TTL，按条目数和权重LRU淘汰；缓存的实体在多次回调间共享，调用方不应修改
+ */
+public class ObjectCache {
+    /**
+     * 条目权重计算，默认每个条目权重为1
+     */
+    public interface Weigher {
+        int weigh(String key, Object value);
+    }
+
+    private static final Weigher DEFAULT_WEIGHER = new Weigher() {
+        @Override
+        public int weigh(String key, Object value) {
+            return 1;
+        }
+    };
+
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxEntries;
+    private long maxWeight;
+    private Weigher weigher = DEFAULT_WEIGHER;
+    private long weight;
+
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long evictionCount;
+
+    /**
+     * @param maxEntries 最大条目数，<=0时不缓存
+     * @param maxWeight  最大总权重，<=0时不限制
+     */
+    public ObjectCache(int maxEntries, long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * 生成缓存key：规范化URL（scheme/host小写、默认端口省略）+按名称排序的url参数+目标类型
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param urlParams url参数
+     * @param clazz     目标Class字节码类型
+     * @return 缓存key，url或参数不合法时返回null
+     */
+    public static String key(String url, Map<String, String> urlParams, Class<?> clazz) {
+        HttpUrl httpUrl = TextUtils.isEmpty(url) ? null : HttpUrl.parse(url);
+        if (httpUrl == null) {
+            return null;
+        }
+        if (urlParams != null && !urlParams.isEmpty()) {
+            // 逐个检查key，TreeMap、ConcurrentHashMap等不支持null的Map调用containsKey(null)会抛NPE
+            TreeMap<String, String> sorted = new TreeMap<>();
+            for (Map.Entry<String, String> entry : urlParams.entrySet()) {
+                if (entry.getKey() == null) {
+                    return null;
+                }
+                sorted.put(entry.getKey(), entry.getValue());
+            }
+            HttpUrl.Builder builder = httpUrl.newBuilder();
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                builder.addQueryParameter(entry.getKey(), TextUtils.isEmpty(entry.getValue()) ? "" : entry.getValue());
+            }
+            httpUrl = builder.build();
+        }
+        return httpUrl.toString() + '#' + clazz.getName();
+    }
+
+    public synchronized void setWeigher(Weigher weigher) {
+        this.weigher = weigher == null ? DEFAULT_WEIGHER : weigher;
+    }
+
+    /**
+     * 调整容量，超出部分立即淘汰
+     */
+    public synchronized void resize(int maxEntries, long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        trim();
+    }
+
+    /**
+     * 获取未过期的缓存
+     *
+     * @param key 缓存key
+     * @return 缓存条目，不存在或已过期时返回null
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = key == null ? null : map.get(key);
+        if (entry != null && entry.expireAt <= SystemClock.elapsedRealtime()) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key     缓存key
+     * @param tag     业务请求编码，用于按tag失效
+     * @param value   已解析的实体
+     * @param headers 响应头
+     * @param ttl     有效时长，单位毫秒
+     */
+    public synchronized void put(String key, Object tag, Object value, Headers headers, long ttl) {
+        if (key == null || value == null || ttl <= 0 || maxEntries <= 0) {
+            return;
+        }
+        int entryWeight = weigher.weigh(key, value);
+        if (maxWeight > 0 && entryWeight > maxWeight) {
+            remove(key);
+            return;
+        }
+        Entry entry = new Entry(tag, value, headers, SystemClock.elapsedRealtime() + ttl, entryWeight);
+        Entry previous = map.put(key, entry);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+        putCount++;
+        trim();
+    }
+
+    public synchronized void invalidate(String key) {
+        remove(key);
+    }
+
+    /**
+     * 失效所有key以prefix开头的缓存，如某个接口URL下的全部参数组合
+     *
+     * @param prefix key前缀（规范化后的URL）
+     */
+    public synchronized void invalidatePrefix(String prefix) {
+        HttpUrl httpUrl = TextUtils.isEmpty(prefix) ? null : HttpUrl.parse(prefix);
+        String canonical = httpUrl == null ? prefix : httpUrl.toString();
+        if (canonical == null) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (String key : map.keySet()) {
+            if (key.startsWith(canonical)) {
+                keys.add(key);
+            }
+        }
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * 失效指定业务请求编码写入的缓存
+     *
+     * @param tag 业务请求编码
+     */
+    public synchronized void invalidateTag(Object tag) {
+        Iterator<Entry> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.tag != null && entry.tag.equals(tag)) {
+                weight -= entry.weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getPutCount() {
+        return putCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 命中率，无访问时为0
+     */
+    public synchronized float getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0f : (float) hitCount / total;
+    }
+
+    private void remove(String key) {
+        Entry entry = map.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    private void trim() {
+        Iterator<Entry> iterator = map.values().iterator();
+        while (iterator.hasNext() && (map.size() > maxEntries || (maxWeight > 0 && weight > maxWeight))) {
+            Entry entry = iterator.next();
+            weight -= entry.weight;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    public static final class Entry {
+        private final Object tag;
+        private final Object value;
+        private final Headers headers;
+        private final long expireAt;
+        private final int weight;
+
+        Entry(Object tag, Object value, Headers headers, long expireAt, int weight) {
+            this.tag = tag;
+            this.value = value;
+            this.headers = headers;
+            this.expireAt = expireAt;
+            this.weight = weight;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Headers getHeaders() {
+            return headers;
+        }
+    }
+}
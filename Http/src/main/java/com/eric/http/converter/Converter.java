@@ -0,0 +1,37 @@
+package com.eric.http.converter;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okio.BufferedSource;
+
+/**
+ * @author li
+ * @Package com.eric.http.converter
+ * @Title: Converter
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 响应体转换器，按响应Content-Type和目标类型选择，在Http.init时注册
+ */
+public interface Converter {
+
+    /**
+     * 是否能将该Content-Type的响应体转换为目标类型
+     *
+     * @param contentType 响应Content-Type，服务端未返回时为null
+     * @param clazz       目标Class字节码类型
+     * @return 是否支持
+     */
+    boolean canConvert(MediaType contentType, Class<?> clazz);
+
+    /**
+     * 从响应流转换出目标实体，在网络线程调用
+     *
+     * @param clazz  目标Class字节码类型
+     * @param source 响应体数据源，由调用方关闭
+     * @param <T>    泛型
+     * @return 目标实体
+     * @throws IOException 读取异常或格式错误
+     */
+    <T> T convert(Class<T> clazz, BufferedSource source) throws IOException;
+}
@@ -0,0 +1,53 @@
+package com.eric.http.converter;
+
+import com.eric.core.core.ResponseParser;
+import com.eric.http.utils.CompatErrorUtil;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * @author li
+ * @Package com.eric.http.converter
+ * @Title: ConverterResponseParser
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 按响应Content-Type和目标类型从已注册的转换器中选择第一个支持的进行解析
+ */
+public class ConverterResponseParser<T> implements ResponseParser<T> {
+    private final Class<T> clazz;
+    private final List<Converter> converters;
+    private final boolean isDebug;
+
+    /**
+     * @param clazz      目标Class字节码类型
+     * @param converters 转换器列表，按顺序匹配
+     * @param isDebug    是否打印文本响应体日志
+     */
+    public ConverterResponseParser(Class<T> clazz, List<Converter> converters, boolean isDebug) {
+        this.clazz = clazz;
+        this.converters = converters;
+        this.isDebug = isDebug;
+    }
+
+    @Override
+    public T parse(ResponseBody body) throws Exception {
+        MediaType contentType = body.contentType();
+        for (Converter converter : converters) {
+            if (converter.canConvert(contentType, clazz)) {
+                BufferedSource source = body.source();
+                if (isDebug && converter instanceof JsonConverter) {
+                    // 调试模式下先缓冲完整响应体用于打印日志，再从缓冲区解析
+                    source.request(Long.MAX_VALUE);
+                    CompatErrorUtil.replaceJson(source.buffer().clone().readUtf8(), true);
+                }
+                return converter.convert(clazz, source);
+            }
+        }
+        throw new IOException("no converter for " + contentType + " to " + clazz.getName());
+    }
+}
@@ -0,0 +1,30 @@
+package com.eric.http.converter;
+
+import com.eric.http.utils.HttpSerializer;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okio.BufferedSource;
+
+/**
+ * @author li
+ * @Package com.eric.http.converter
+ * @Title: JsonConverter
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * JSON转换器，通过HttpSerializer从响应流直接反序列化；
+ * 服务端常以text/html等类型返回JSON，因此作为兜底转换器接受任意Content-Type
+ */
+public class JsonConverter implements Converter {
+
+    @Override
+    public boolean canConvert(MediaType contentType, Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public <T> T convert(Class<T> clazz, BufferedSource source) throws IOException {
+        return HttpSerializer.deserializeStream(clazz, source);
+    }
+}
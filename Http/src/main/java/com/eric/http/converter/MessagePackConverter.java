@@ -0,0 +1,38 @@
+package com.eric.http.converter;
+
+import com.eric.http.utils.HttpSerializer;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okio.BufferedSource;
+
+/**
+ * @author li
+ * @Package com.eric.http.converter
+ * @Title: MessagePackConverter
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * MessagePack转换器，处理application/msgpack（及x-msgpack、vnd.msgpack）响应，
+ * 字段映射规则与JSON一致（包括JSONSerializeAnnotation和生成的JSONAdapter），解码时直接写入目标对象
+ */
+public class MessagePackConverter implements Converter {
+
+    @Override
+    public boolean canConvert(MediaType contentType, Class<?> clazz) {
+        if (contentType == null || !"application".equals(contentType.type())) {
+            return false;
+        }
+        String subtype = contentType.subtype();
+        return "msgpack".equals(subtype) || "x-msgpack".equals(subtype) || "vnd.msgpack".equals(subtype);
+    }
+
+    @Override
+    public <T> T convert(Class<T> clazz, BufferedSource source) throws IOException {
+        MessagePackReader reader = new MessagePackReader(source);
+        if (reader.peek() != MessagePackReader.BEGIN_OBJECT) {
+            throw new IOException("MessagePack response is not a map");
+        }
+        return HttpSerializer.deserializeStream(clazz, reader);
+    }
+}
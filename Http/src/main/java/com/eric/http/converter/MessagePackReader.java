@@ -0,0 +1,345 @@
+package com.eric.http.converter;
+
+import com.eric.http.utils.JsonStreamReader;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import okio.BufferedSource;
+
+/**
+ * @author li
+ * @Package com.eric.http.converter
+ * @Title: MessagePackReader
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * MessagePack增量解码器（纯Java），按JsonStreamReader的token接口读取，由HttpSerializer和JSONAdapter直接写入目标对象，
+ * 不构建中间JSONObject；整数、浮点转为NUMBER字面量，bin转Base64字符串，ext类型和NaN、无穷大按NULL处理，
+ * map的整数键转为字符串
+ */
+public final class MessagePackReader extends JsonStreamReader {
+    private static final int PEEKED_NONE = 0;
+
+    private static final int SCOPE_MAP = 1;
+    private static final int SCOPE_ARRAY = 2;
+
+    private final BufferedSource source;
+
+    private int[] scopes = new int[32];
+    /**
+     * 当前容器剩余的元素数，map按键、值分别计数
+     */
+    private long[] remaining = new long[32];
+    private int stackSize;
+    private boolean isRootRead;
+
+    private int peeked = PEEKED_NONE;
+    /**
+     * 已读取的字符串、键名，或数字、布尔值的字面量
+     */
+    private String peekedString;
+    /**
+     * 已读取的map、array头中的元素数
+     */
+    private long peekedSize;
+
+    public MessagePackReader(BufferedSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        if (peeked == PEEKED_NONE) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(BEGIN_OBJECT);
+        consume();
+        push(SCOPE_MAP, peekedSize * 2);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(END_OBJECT);
+        peeked = PEEKED_NONE;
+        stackSize--;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(BEGIN_ARRAY);
+        consume();
+        push(SCOPE_ARRAY, peekedSize);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(END_ARRAY);
+        peeked = PEEKED_NONE;
+        stackSize--;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(NAME);
+        consume();
+        return peekedString;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        int p = peek();
+        if (p != STRING && p != NUMBER && p != BOOLEAN) {
+            throw formatError("Expected a string but was " + p);
+        }
+        consume();
+        return peekedString;
+    }
+
+    @Override
+    public String nextLiteral() throws IOException {
+        int p = peek();
+        if (p != NUMBER && p != BOOLEAN) {
+            throw formatError("Expected a literal but was " + p);
+        }
+        consume();
+        return peekedString;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(BOOLEAN);
+        consume();
+        return "true".equals(peekedString);
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(NULL);
+        consume();
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw formatError("Unexpected end of input");
+                default:
+                    consume();
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stackSize = 0;
+        source.close();
+    }
+
+    private int doPeek() throws IOException {
+        if (stackSize == 0) {
+            if (isRootRead) {
+                return END_DOCUMENT;
+            }
+            isRootRead = true;
+            return readValueHeader();
+        }
+        int scope = scopes[stackSize - 1];
+        long left = remaining[stackSize - 1];
+        if (left == 0) {
+            return scope == SCOPE_MAP ? END_OBJECT : END_ARRAY;
+        }
+        if (scope == SCOPE_MAP && left % 2 == 0) {
+            int token = readValueHeader();
+            if (token == STRING || token == NUMBER || token == BOOLEAN) {
+                return NAME;
+            }
+            throw formatError("Unsupported map key type " + token);
+        }
+        return readValueHeader();
+    }
+
+    /**
+     * 读取下一个值的类型头，标量值一并读出到peekedString，容器记录元素数到peekedSize
+     */
+    private int readValueHeader() throws IOException {
+        int b = source.readByte() & 0xff;
+        if (b <= 0x7f) {
+            return number(b);
+        } else if (b <= 0x8f) {
+            return container(BEGIN_OBJECT, b & 0x0f);
+        } else if (b <= 0x9f) {
+            return container(BEGIN_ARRAY, b & 0x0f);
+        } else if (b <= 0xbf) {
+            return string(source.readUtf8(b & 0x1f));
+        } else if (b >= 0xe0) {
+            return number((byte) b);
+        }
+        switch (b) {
+            case 0xc0:
+                return NULL;
+            case 0xc2:
+                peekedString = "false";
+                return BOOLEAN;
+            case 0xc3:
+                peekedString = "true";
+                return BOOLEAN;
+            case 0xc4:
+                return string(source.readByteString(source.readByte() & 0xff).base64());
+            case 0xc5:
+                return string(source.readByteString(source.readShort() & 0xffff).base64());
+            case 0xc6:
+                return string(source.readByteString(readLength()).base64());
+            case 0xc7:
+                return skipExt(source.readByte() & 0xff);
+            case 0xc8:
+                return skipExt(source.readShort() & 0xffff);
+            case 0xc9:
+                return skipExt(readLength());
+            case 0xca:
+                return number((double) Float.intBitsToFloat(source.readInt()));
+            case 0xcb:
+                return number(Double.longBitsToDouble(source.readLong()));
+            case 0xcc:
+                return number(source.readByte() & 0xff);
+            case 0xcd:
+                return number(source.readShort() & 0xffff);
+            case 0xce:
+                return number(source.readInt() & 0xffffffffL);
+            case 0xcf:
+                long value = source.readLong();
+                if (value < 0) {
+                    // 超出long范围的uint64
+                    peekedString = BigInteger.valueOf(value).add(BigInteger.ONE.shiftLeft(64)).toString();
+                    return NUMBER;
+                }
+                return number(value);
+            case 0xd0:
+                return number(source.readByte());
+            case 0xd1:
+                return number(source.readShort());
+            case 0xd2:
+                return number(source.readInt());
+            case 0xd3:
+                return number(source.readLong());
+            case 0xd4:
+                return skipExt(1);
+            case 0xd5:
+                return skipExt(2);
+            case 0xd6:
+                return skipExt(4);
+            case 0xd7:
+                return skipExt(8);
+            case 0xd8:
+                return skipExt(16);
+            case 0xd9:
+                return string(source.readUtf8(source.readByte() & 0xff));
+            case 0xda:
+                return string(source.readUtf8(source.readShort() & 0xffff));
+            case 0xdb:
+                return string(source.readUtf8(readLength()));
+            case 0xdc:
+                return container(BEGIN_ARRAY, source.readShort() & 0xffff);
+            case 0xdd:
+                return container(BEGIN_ARRAY, readLength());
+            case 0xde:
+                return container(BEGIN_OBJECT, source.readShort() & 0xffff);
+            case 0xdf:
+                return container(BEGIN_OBJECT, readLength());
+            default:
+                throw formatError("unknown type 0x" + Integer.toHexString(b));
+        }
+    }
+
+    private int number(long value) {
+        peekedString = Long.toString(value);
+        return NUMBER;
+    }
+
+    private int number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // 与JSON解析一致，非有限值不写入
+            return NULL;
+        }
+        peekedString = Double.toString(value);
+        return NUMBER;
+    }
+
+    private int string(String value) {
+        peekedString = value;
+        return STRING;
+    }
+
+    private int container(int token, long size) {
+        peekedSize = size;
+        return token;
+    }
+
+    private int skipExt(long size) throws IOException {
+        source.skip(1 + size);
+        return NULL;
+    }
+
+    private long readLength() throws IOException {
+        return source.readInt() & 0xffffffffL;
+    }
+
+    /**
+     * 消费已查看的值或键，计入所在容器
+     */
+    private void consume() {
+        peeked = PEEKED_NONE;
+        if (stackSize > 0) {
+            remaining[stackSize - 1]--;
+        }
+    }
+
+    private void push(int scope, long size) {
+        if (stackSize == scopes.length) {
+            int[] newScopes = new int[stackSize * 2];
+            System.arraycopy(scopes, 0, newScopes, 0, stackSize);
+            scopes = newScopes;
+            long[] newRemaining = new long[stackSize * 2];
+            System.arraycopy(remaining, 0, newRemaining, 0, stackSize);
+            remaining = newRemaining;
+        }
+        scopes[stackSize] = scope;
+        remaining[stackSize] = size;
+        stackSize++;
+    }
+
+    private void expect(int token) throws IOException {
+        int p = peek();
+        if (p != token) {
+            throw formatError("Expected " + token + " but was " + p);
+        }
+    }
+
+    private IOException formatError(String message) {
+        return new IOException("MessagePack format error: " + message);
+    }
+}
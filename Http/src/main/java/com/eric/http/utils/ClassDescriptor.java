@@ -0,0 +1,217 @@
+package com.eric.http.utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author li
+ * @Package com.eric.http.utils
+ * @Title: ClassDescriptor
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 序列化类描述缓存，每个Class只反射解析一次域信息
+ */
+final class ClassDescriptor {
+    static final int TYPE_INT = 1;
+    static final int TYPE_INTEGER = 2;
+    static final int TYPE_STRING = 3;
+    static final int TYPE_BOOLEAN = 4;
+    static final int TYPE_BOOLEAN_OBJECT = 5;
+    static final int TYPE_DOUBLE = 6;
+    static final int TYPE_DOUBLE_OBJECT = 7;
+    static final int TYPE_FLOAT = 8;
+    static final int TYPE_FLOAT_OBJECT = 9;
+    static final int TYPE_LONG = 10;
+    static final int TYPE_LONG_OBJECT = 11;
+    static final int TYPE_LIST = 12;
+    static final int TYPE_JSON_OBJECT = 13;
+    static final int TYPE_JSON_ARRAY = 14;
+    static final int TYPE_OBJECT = 15;
+    static final int TYPE_NESTED = 16;
+    /**
+     * 其他不支持的类型（数组、其他基本类型等）
+     */
+    static final int TYPE_OTHER = 0;
+
+    private static final ConcurrentHashMap<Class<?>, ClassDescriptor> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 按父类、子类声明顺序排列的域，存在编译期生成的序列化器时为空
+     */
+    final FieldDescriptor[] fields;
+
+    /**
+     * 按域名称索引，同名时后声明的（子类）覆盖先声明的（父类）
+     */
+    final Map<String, FieldDescriptor> fieldMap;
+
+    /**
+     * 编译期生成的序列化器，不存在时为null并回退到反射
+     */
+    final JSONAdapter<Object> adapter;
+
+    private final Class<?> clazz;
+
+    private volatile Constructor<?> constructor;
+
+    private ClassDescriptor(Class<?> clazz) {
+        this.clazz = clazz;
+        this.adapter = findAdapter(clazz);
+        if (adapter != null) {
+            // 由生成的序列化器直接读写域，不再反射扫描
+            fields = new FieldDescriptor[0];
+            fieldMap = Collections.emptyMap();
+            return;
+        }
+        List<FieldDescriptor> list = new ArrayList<>();
+        Class<?> superClass = clazz.getSuperclass();
+        if (superClass != null) {
+            for (Field field : superClass.getDeclaredFields()) {
+                list.add(new FieldDescriptor(field));
+            }
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            list.add(new FieldDescriptor(field));
+        }
+        fields = list.toArray(new FieldDescriptor[list.size()]);
+        Map<String, FieldDescriptor> map = new HashMap<>();
+        for (FieldDescriptor descriptor : fields) {
+            map.put(descriptor.name, descriptor);
+        }
+        fieldMap = map;
+    }
+
+    /**
+     * 获取类描述，首次访问时解析并缓存
+     *
+     * @param clazz Class字节码类型
+     * @return 类描述
+     */
+    static ClassDescriptor get(Class<?> clazz) {
+        ClassDescriptor descriptor = CACHE.get(clazz);
+        if (descriptor == null) {
+            descriptor = new ClassDescriptor(clazz);
+            ClassDescriptor previous = CACHE.putIfAbsent(clazz, descriptor);
+            if (previous != null) {
+                descriptor = previous;
+            }
+        }
+        return descriptor;
+    }
+
+    /**
+     * 通过缓存的无参构造函数创建实例
+     *
+     * @return 新实例
+     * @throws InstantiationException 实例化异常
+     * @throws IllegalAccessException 访问权限异常
+     */
+    Object newInstance() throws InstantiationException, IllegalAccessException {
+        if (adapter != null) {
+            return adapter.newInstance();
+        }
+        Constructor<?> c = constructor;
+        if (c == null) {
+            try {
+                c = clazz.getDeclaredConstructor();
+                c.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new InstantiationException(clazz.getName() + " has no default constructor");
+            }
+            constructor = c;
+        }
+        try {
+            return c.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new InstantiationException(String.valueOf(e.getCause()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONAdapter<Object> findAdapter(Class<?> clazz) {
+        try {
+            Class<?> adapterClass = Class.forName(clazz.getName() + JSONAdapter.SUFFIX, true, clazz.getClassLoader());
+            return (JSONAdapter<Object>) adapterClass.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            // 未使用HttpCompiler生成，回退到反射
+            return null;
+        }
+    }
+
+    /**
+     * 单个域的描述：已设置可访问的Field、预先计算的类型编码以及嵌套类型
+     */
+    static final class FieldDescriptor {
+        final Field field;
+        final String name;
+        final int type;
+        /**
+         * List元素类型（来自JSONSerializeAnnotation），或嵌套对象类型
+         */
+        final Class<?> actualClass;
+
+        FieldDescriptor(Field field) {
+            this.field = field;
+            this.name = field.getName();
+            Class<?> fieldClass = field.getType();
+            try {
+                field.setAccessible(true);
+            } catch (SecurityException e) {
+                // 保留原逻辑：访问时抛IllegalAccessException并记录日志
+            }
+            Class<?> elementClass = null;
+            if (fieldClass == int.class) {
+                type = TYPE_INT;
+            } else if (fieldClass == Integer.class) {
+                type = TYPE_INTEGER;
+            } else if (fieldClass == String.class) {
+                type = TYPE_STRING;
+            } else if (fieldClass == boolean.class) {
+                type = TYPE_BOOLEAN;
+            } else if (fieldClass == Boolean.class) {
+                type = TYPE_BOOLEAN_OBJECT;
+            } else if (fieldClass == double.class) {
+                type = TYPE_DOUBLE;
+            } else if (fieldClass == Double.class) {
+                type = TYPE_DOUBLE_OBJECT;
+            } else if (fieldClass == float.class) {
+                type = TYPE_FLOAT;
+            } else if (fieldClass == Float.class) {
+                type = TYPE_FLOAT_OBJECT;
+            } else if (fieldClass == long.class) {
+                type = TYPE_LONG;
+            } else if (fieldClass == Long.class) {
+                type = TYPE_LONG_OBJECT;
+            } else if (List.class.isAssignableFrom(fieldClass)) {
+                type = TYPE_LIST;
+                HttpSerializer.JSONSerializeAnnotation attr = field.getAnnotation(HttpSerializer.JSONSerializeAnnotation
+                        .class);
+                if (attr != null) {
+                    elementClass = attr.actualClass();
+                }
+            } else if (fieldClass == JSONObject.class) {
+                type = TYPE_JSON_OBJECT;
+            } else if (fieldClass == JSONArray.class) {
+                type = TYPE_JSON_ARRAY;
+            } else if (fieldClass == Object.class) {
+                type = TYPE_OBJECT;
+            } else if (fieldClass.isPrimitive() || fieldClass.isArray()) {
+                type = TYPE_OTHER;
+            } else {
+                type = TYPE_NESTED;
+                elementClass = fieldClass;
+            }
+            actualClass = elementClass;
+        }
+    }
+}
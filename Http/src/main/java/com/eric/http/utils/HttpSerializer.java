@@ -2,10 +2,13 @@ package com.eric.http.utils;
 
 import android.util.Log;
 
+import com.eric.http.utils.ClassDescriptor.FieldDescriptor;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -16,6 +19,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import okio.Buffer;
+import okio.BufferedSource;
+
 /**
  * @author li
  * @Package com.eric.http.utils
@@ -37,17 +43,12 @@ public class HttpSerializer {
         if (object == null || map == null) {
             return;
         }
-        Class<?> objectClass = object.getClass();
-        Class<?> superClass = objectClass.getSuperclass();
-        Field[] fields = null;
-        if (superClass != null) {
-            fields = superClass.getDeclaredFields();
-            for (Field field : fields) {
-                readValue(field, object, map);
-            }
+        ClassDescriptor descriptor = ClassDescriptor.get(object.getClass());
+        if (descriptor.adapter != null) {
+            descriptor.adapter.toMap(object, map);
+            return;
         }
-        fields = objectClass.getDeclaredFields();
-        for (Field field : fields) {
+        for (FieldDescriptor field : descriptor.fields) {
             readValue(field, object, map);
         }
     }
@@ -74,17 +75,12 @@ public class HttpSerializer {
         if (object == null || json == null) {
             return;
         }
-        Class<?> objectClass = object.getClass();
-        Class<?> superClass = objectClass.getSuperclass();
-        Field[] fields = null;
-        if (superClass != null) {
-            fields = superClass.getDeclaredFields();
-            for (Field field : fields) {
-                writeValue(field, object, json);
-            }
+        ClassDescriptor descriptor = ClassDescriptor.get(object.getClass());
+        if (descriptor.adapter != null) {
+            descriptor.adapter.fromJSON(object, json);
+            return;
         }
-        fields = objectClass.getDeclaredFields();
-        for (Field field : fields) {
+        for (FieldDescriptor field : descriptor.fields) {
             writeValue(field, object, json);
         }
     }
@@ -101,9 +97,10 @@ public class HttpSerializer {
         if (elementClassType == null || array == null || array.length() == 0) {
             return list;
         }
+        ClassDescriptor descriptor = ClassDescriptor.get(elementClassType);
         for (int i = 0; i < array.length(); i++) {
             try {
-                T object = elementClassType.newInstance();
+                T object = elementClassType.cast(descriptor.newInstance());
                 deserializeJSONObject(object, array.getJSONObject(i));
                 list.add(object);
             } catch (JSONException e) {
@@ -119,6 +116,24 @@ public class HttpSerializer {
         return list;
     }
 
+    /**
+     * 创建实例，优先使用编译期生成的JSONAdapter
+     *
+     * @param clazz Class字节码类型
+     * @param <T>   泛型
+     * @return 新实例，无法实例化时返回null
+     */
+    public static <T> T newInstance(Class<T> clazz) {
+        try {
+            return clazz.cast(ClassDescriptor.get(clazz).newInstance());
+        } catch (IllegalAccessException e) {
+            Log.w(LOG_TAG, "newInstance.IllegalAccessException: " + e.getMessage());
+        } catch (InstantiationException e) {
+            Log.w(LOG_TAG, "newInstance.InstantiationException: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * 反射序列化写值
      *
@@ -151,63 +166,89 @@ public class HttpSerializer {
     /**
      * 反射序列化写值
      *
-     * @param field  域
+     * @param field  域描述
      * @param object 泛型对象
      * @param json   JSONObject对象
      * @param <T>    泛型对象
      */
-    private static <T> void writeValue(Field field, T object, JSONObject json) {
-        Object value = null;
+    private static <T> void writeValue(FieldDescriptor field, T object, JSONObject json) {
+        String name = field.name;
+        if (field.type == ClassDescriptor.TYPE_OTHER || json.isNull(name)) {
+            return;
+        }
+        Field f = field.field;
+        Object value;
         try {
-            Class<?> actualClass = field.getType();
-            String name = field.getName();
-            if (json.isNull(name)) {
-                return;
-            }
-            field.setAccessible(true);
-            if (actualClass == int.class || actualClass == Integer.class) {
-                value = json.optInt(name);
-            } else if (actualClass == String.class) {
-                value = json.optString(name);
-            } else if (actualClass == boolean.class || actualClass == Boolean.class) {
-                value = json.optBoolean(name);
-            } else if (actualClass == double.class || actualClass == Double.class) {
-                value = json.optDouble(name);
-            } else if (actualClass == float.class || actualClass == Float.class) {
-                value = (float) json.optDouble(name);
-            } else if (actualClass == long.class || actualClass == Long.class) {
-                value = json.optLong(name);
-            } else if (List.class.isAssignableFrom(actualClass)) {
-                JSONSerializeAnnotation attr = field.getAnnotation(JSONSerializeAnnotation.class);
-                if (attr != null) {
-                    Class<?> subClass = attr.actualClass();
-                    value = deserializeJSONArray(subClass, json.getJSONArray(name));
-                }
-            } else if (actualClass == JSONObject.class) {
-                value = json.getJSONObject(name);
-            } else if (actualClass == JSONArray.class) {
-                value = json.getJSONArray(name);
-            } else if (actualClass == Object.class) {
-                value = field.get(object);
-                if (value != null) {
-                    if (value instanceof String) {
-                        value = json.getJSONObject(name).toString();
+            switch (field.type) {
+                case ClassDescriptor.TYPE_INT:
+                    f.setInt(object, json.optInt(name));
+                    break;
+                case ClassDescriptor.TYPE_INTEGER:
+                    f.set(object, json.optInt(name));
+                    break;
+                case ClassDescriptor.TYPE_STRING:
+                    f.set(object, json.optString(name));
+                    break;
+                case ClassDescriptor.TYPE_BOOLEAN:
+                    f.setBoolean(object, json.optBoolean(name));
+                    break;
+                case ClassDescriptor.TYPE_BOOLEAN_OBJECT:
+                    f.set(object, json.optBoolean(name));
+                    break;
+                case ClassDescriptor.TYPE_DOUBLE:
+                    f.setDouble(object, json.optDouble(name));
+                    break;
+                case ClassDescriptor.TYPE_DOUBLE_OBJECT:
+                    f.set(object, json.optDouble(name));
+                    break;
+                case ClassDescriptor.TYPE_FLOAT:
+                    f.setFloat(object, (float) json.optDouble(name));
+                    break;
+                case ClassDescriptor.TYPE_FLOAT_OBJECT:
+                    f.set(object, (float) json.optDouble(name));
+                    break;
+                case ClassDescriptor.TYPE_LONG:
+                    f.setLong(object, json.optLong(name));
+                    break;
+                case ClassDescriptor.TYPE_LONG_OBJECT:
+                    f.set(object, json.optLong(name));
+                    break;
+                case ClassDescriptor.TYPE_LIST:
+                    value = null;
+                    if (field.actualClass != null) {
+                        value = deserializeJSONArray(field.actualClass, json.getJSONArray(name));
+                    }
+                    f.set(object, value);
+                    break;
+                case ClassDescriptor.TYPE_JSON_OBJECT:
+                    f.set(object, json.getJSONObject(name));
+                    break;
+                case ClassDescriptor.TYPE_JSON_ARRAY:
+                    f.set(object, json.getJSONArray(name));
+                    break;
+                case ClassDescriptor.TYPE_OBJECT:
+                    value = f.get(object);
+                    if (value != null) {
+                        if (value instanceof String) {
+                            value = json.getJSONObject(name).toString();
+                        } else {
+                            deserializeJSONObject(value, json.getJSONObject(name));
+                        }
                     } else {
-                        deserializeJSONObject(value, json.getJSONObject(name));
+                        value = json.opt(name);
                     }
-                } else {
-                    value = json.opt(name);
-                }
-            } else {
-                value = field.get(object);
-                // when the field object is null, new the object
-                if (value == null) {
-                    value = actualClass.newInstance();
-                }
-                deserializeJSONObject(value, json.getJSONObject(name));
-
+                    f.set(object, value);
+                    break;
+                default:
+                    value = f.get(object);
+                    // when the field object is null, new the object
+                    if (value == null) {
+                        value = ClassDescriptor.get(field.actualClass).newInstance();
+                    }
+                    deserializeJSONObject(value, json.getJSONObject(name));
+                    f.set(object, value);
+                    break;
             }
-            field.set(object, value);
         } catch (IllegalAccessException e) {
             Log.w(LOG_TAG, "writeValue.IllegalAccessException: " + e.getMessage());
         } catch (InstantiationException e) {
@@ -220,76 +261,59 @@ public class HttpSerializer {
     /**
      * 反射序列化读值
      *
-     * @param field  域
+     * @param field  域描述
      * @param object 泛型对象
      * @param map    目标Map对象
      * @param <T>    泛型
      */
-    private static <T> void readValue(Field field, T object, Map<String, Object> map) {
+    private static <T> void readValue(FieldDescriptor field, T object, Map<String, Object> map) {
+        Field f = field.field;
+        String name = field.name;
         try {
-            Class<?> actualClass = field.getType();
-            String name = field.getName();
-            field.setAccessible(true);
-            if (actualClass == int.class) {
-                int value = field.getInt(object);
-                map.put(name, String.valueOf(value));
-            } else if (actualClass == Integer.class) {
-                Object value = field.get(object);
-                if (value != null) {
-                    map.put(name, String.valueOf(value));
-                }
-            } else if (actualClass == String.class) {
-                Object value = field.get(object);
-                if (value != null) {
-                    map.put(name, String.valueOf(value));
-                }
-            } else if (actualClass == boolean.class) {
-                boolean value = field.getBoolean(object);
-                map.put(name, String.valueOf(value));
-            } else if (actualClass == Boolean.class) {
-                Object value = field.get(object);
-                if (value != null) {
-                    map.put(name, String.valueOf(value));
-                }
-            } else if (actualClass == double.class) {
-                double value = field.getDouble(object);
-                map.put(name, String.valueOf(value));
-            } else if (actualClass == Double.class) {
-                Object value = field.get(object);
-                if (value != null) {
-                    map.put(name, String.valueOf(value));
-                }
-            } else if (actualClass == float.class) {
-                float value = field.getFloat(object);
-                map.put(name, String.valueOf(value));
-            } else if (actualClass == Float.class) {
-                Object value = field.get(object);
-                if (value != null) {
-                    map.put(name, String.valueOf(value));
-                }
-            } else if (actualClass == long.class) {
-                long value = field.getLong(object);
-                map.put(name, String.valueOf(value));
-            } else if (actualClass == Long.class) {
-                Object value = field.get(object);
-                if (value != null) {
-                    map.put(name, String.valueOf(value));
-                }
-            } else if (List.class.isAssignableFrom(actualClass)) {
-                List<?> list = (List<?>) field.get(object);
-                if (list != null && !list.isEmpty()) {
-                    Object[] array = new Object[list.size()];
-                    for (int i = 0; i < list.size(); i++) {
-                        Map<String, Object> subMap = new HashMap<String, Object>();
-                        serializeObject2Map(list.get(i), subMap);
-                        if (!subMap.isEmpty()) {
-                            array[i] = subMap;
+            switch (field.type) {
+                case ClassDescriptor.TYPE_INT:
+                    map.put(name, String.valueOf(f.getInt(object)));
+                    break;
+                case ClassDescriptor.TYPE_BOOLEAN:
+                    map.put(name, String.valueOf(f.getBoolean(object)));
+                    break;
+                case ClassDescriptor.TYPE_DOUBLE:
+                    map.put(name, String.valueOf(f.getDouble(object)));
+                    break;
+                case ClassDescriptor.TYPE_FLOAT:
+                    map.put(name, String.valueOf(f.getFloat(object)));
+                    break;
+                case ClassDescriptor.TYPE_LONG:
+                    map.put(name, String.valueOf(f.getLong(object)));
+                    break;
+                case ClassDescriptor.TYPE_INTEGER:
+                case ClassDescriptor.TYPE_STRING:
+                case ClassDescriptor.TYPE_BOOLEAN_OBJECT:
+                case ClassDescriptor.TYPE_DOUBLE_OBJECT:
+                case ClassDescriptor.TYPE_FLOAT_OBJECT:
+                case ClassDescriptor.TYPE_LONG_OBJECT:
+                    Object value = f.get(object);
+                    if (value != null) {
+                        map.put(name, String.valueOf(value));
+                    }
+                    break;
+                case ClassDescriptor.TYPE_LIST:
+                    List<?> list = (List<?>) f.get(object);
+                    if (list != null && !list.isEmpty()) {
+                        Object[] array = new Object[list.size()];
+                        for (int i = 0; i < list.size(); i++) {
+                            Map<String, Object> subMap = new HashMap<String, Object>();
+                            serializeObject2Map(list.get(i), subMap);
+                            if (!subMap.isEmpty()) {
+                                array[i] = subMap;
+                            }
                         }
+                        map.put(name, array);
                     }
-                    map.put(name, array);
-                }
-            } else {
-                // empty
+                    break;
+                default:
+                    // empty
+                    break;
             }
         } catch (IllegalAccessException e) {
             Log.w(LOG_TAG, "writeValue.IllegalAccessException: " + e.getMessage());
@@ -307,30 +331,16 @@ public class HttpSerializer {
         if (object == null || json == null) {
             return;
         }
-        Class<?> objectClass = object.getClass();
-        Class<?> superClass = objectClass.getSuperclass();
-        Field[] fields = null;
-        if (superClass != null) {
-            fields = superClass.getDeclaredFields();
-            for (Field field : fields) {
-                Object obj = readValue(field, object);
-                if (obj != null) {
-                    String name = field.getName();
-                    try {
-                        json.put(name, obj);
-                    } catch (JSONException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
+        ClassDescriptor descriptor = ClassDescriptor.get(object.getClass());
+        if (descriptor.adapter != null) {
+            descriptor.adapter.toJSON(object, json);
+            return;
         }
-        fields = objectClass.getDeclaredFields();
-        for (Field field : fields) {
+        for (FieldDescriptor field : descriptor.fields) {
             Object obj = readValue(field, object);
             if (obj != null) {
-                String name = field.getName();
                 try {
-                    json.put(name, obj);
+                    json.put(field.name, obj);
                 } catch (JSONException e) {
                     e.printStackTrace();
                 }
@@ -341,17 +351,15 @@ public class HttpSerializer {
     /**
      * 反射读域值
      *
-     * @param field  域
+     * @param field  域描述
      * @param object 泛型对象
      * @param <T>    泛型
      * @return
      */
-    private static <T> Object readValue(Field field, T object) {
+    private static <T> Object readValue(FieldDescriptor field, T object) {
         try {
-            Class<?> actualClass = field.getType();
-            field.setAccessible(true);
-            if (List.class.isAssignableFrom(actualClass)) {
-                List<?> list = (List<?>) field.get(object);
+            if (field.type == ClassDescriptor.TYPE_LIST) {
+                List<?> list = (List<?>) field.field.get(object);
                 if (list != null && !list.isEmpty()) {
                     JSONArray array = new JSONArray();
                     for (int i = 0; i < list.size(); i++) {
@@ -362,7 +370,7 @@ public class HttpSerializer {
                     return array;
                 }
             } else {
-                return field.get(object);
+                return field.field.get(object);
             }
         } catch (IllegalAccessException e) {
             Log.w(LOG_TAG, "writeValue.IllegalAccessException: " + e.getMessage());
@@ -370,9 +378,478 @@ public class HttpSerializer {
         return null;
     }
 
+    /**
+     * 序列化对象直接写入JSON流，输出与serializeObject2JSONObject后toString()一致，不构建中间JSONObject
+     *
+     * @param object 序列化对象
+     * @param writer JSON写入器
+     * @throws IOException 写入异常
+     */
+    public static void serializeStream(Object object, JsonStreamWriter writer) throws IOException {
+        if (object == null) {
+            writer.beginObject().endObject();
+            return;
+        }
+        ClassDescriptor descriptor = ClassDescriptor.get(object.getClass());
+        if (descriptor.adapter != null) {
+            descriptor.adapter.toStream(object, writer);
+            return;
+        }
+        writer.beginObject();
+        for (FieldDescriptor field : descriptor.fields) {
+            Object value;
+            try {
+                value = field.field.get(object);
+            } catch (IllegalAccessException e) {
+                Log.w(LOG_TAG, "serializeStream.IllegalAccessException: " + e.getMessage());
+                continue;
+            }
+            if (field.type == ClassDescriptor.TYPE_LIST) {
+                streamList(writer, field.name, (List<?>) value);
+            } else {
+                streamValue(writer, field.name, value);
+            }
+        }
+        writer.endObject();
+    }
+
+    /**
+     * 写入一个域，空值、NaN与无穷大跳过（与JSONObject.put的行为一致）
+     */
+    static void streamValue(JsonStreamWriter writer, String name, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            writer.name(name).value((String) value);
+        } else if (value instanceof Boolean) {
+            writer.name(name).value(((Boolean) value).booleanValue());
+        } else if (value instanceof Number) {
+            double doubleValue = ((Number) value).doubleValue();
+            if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                Log.w(LOG_TAG, "serializeStream: skip non-finite value of " + name);
+                return;
+            }
+            writer.name(name).value((Number) value);
+        } else if (value instanceof JSONObject || value instanceof JSONArray) {
+            writer.name(name).rawValue(value.toString());
+        } else {
+            writer.name(name).value(value.toString());
+        }
+    }
+
+    /**
+     * 写入对象数组域，空列表跳过
+     */
+    static void streamList(JsonStreamWriter writer, String name, List<?> list) throws IOException {
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        writer.name(name).beginArray();
+        for (int i = 0; i < list.size(); i++) {
+            serializeStream(list.get(i), writer);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * 从响应流直接反序列化为目标对象，JSON中没有对应域的子树直接跳过，不构建中间对象
+     *
+     * @param clazz  目标Class字节码类型
+     * @param source 响应体数据源
+     * @param <T>    泛型
+     * @return 目标对象
+     * @throws IOException 读取异常或JSON格式错误
+     */
+    public static <T> T deserializeStream(Class<T> clazz, BufferedSource source) throws IOException {
+        return deserializeStream(clazz, new JsonStreamReader(source));
+    }
+
+    /**
+     * 从token读取器直接反序列化为目标对象，用于JSON以外的格式（如MessagePack）
+     *
+     * @param clazz  目标Class字节码类型
+     * @param reader token读取器，下一个token必须为BEGIN_OBJECT
+     * @param <T>    泛型
+     * @return 目标对象
+     * @throws IOException 读取异常或格式错误
+     */
+    public static <T> T deserializeStream(Class<T> clazz, JsonStreamReader reader) throws IOException {
+        ClassDescriptor descriptor = ClassDescriptor.get(clazz);
+        T object;
+        try {
+            object = clazz.cast(descriptor.newInstance());
+        } catch (InstantiationException e) {
+            throw new IOException("deserializeStream.InstantiationException: " + e.getMessage());
+        } catch (IllegalAccessException e) {
+            throw new IOException("deserializeStream.IllegalAccessException: " + e.getMessage());
+        }
+        if (reader.peek() != JsonStreamReader.BEGIN_OBJECT) {
+            throw new IOException("deserializeStream: response is not a JSON object");
+        }
+        deserializeStream(object, descriptor, reader);
+        return object;
+    }
+
+    /**
+     * 从JsonStreamReader读取一个JSON对象并写入目标对象
+     *
+     * @param object     目标对象
+     * @param descriptor 目标对象的类描述
+     * @param reader     JSON读取器，下一个token必须为BEGIN_OBJECT
+     * @throws IOException 读取异常或JSON格式错误
+     */
+    static void deserializeStream(Object object, ClassDescriptor descriptor, JsonStreamReader reader) throws IOException {
+        if (descriptor.adapter != null) {
+            descriptor.adapter.fromStream(object, reader);
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            FieldDescriptor field = descriptor.fieldMap.get(reader.nextName());
+            if (field == null || field.type == ClassDescriptor.TYPE_OTHER) {
+                reader.skipValue();
+                continue;
+            }
+            if (reader.peek() == JsonStreamReader.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            try {
+                streamValue(field, object, reader);
+            } catch (IllegalAccessException e) {
+                Log.w(LOG_TAG, "streamValue.IllegalAccessException: " + e.getMessage());
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * 流式反序列化写值，类型转换规则与JSONObject.optXXX保持一致
+     *
+     * @param field  域描述
+     * @param object 目标对象
+     * @param reader JSON读取器
+     */
+    private static void streamValue(FieldDescriptor field, Object object, JsonStreamReader reader) throws IOException,
+            IllegalAccessException {
+        Field f = field.field;
+        Object value;
+        switch (field.type) {
+            case ClassDescriptor.TYPE_INT:
+                f.setInt(object, (int) streamLong(reader));
+                break;
+            case ClassDescriptor.TYPE_INTEGER:
+                f.set(object, (int) streamLong(reader));
+                break;
+            case ClassDescriptor.TYPE_STRING:
+                f.set(object, streamString(reader));
+                break;
+            case ClassDescriptor.TYPE_BOOLEAN:
+                f.setBoolean(object, streamBoolean(reader));
+                break;
+            case ClassDescriptor.TYPE_BOOLEAN_OBJECT:
+                f.set(object, streamBoolean(reader));
+                break;
+            case ClassDescriptor.TYPE_DOUBLE:
+                f.setDouble(object, streamDouble(reader));
+                break;
+            case ClassDescriptor.TYPE_DOUBLE_OBJECT:
+                f.set(object, streamDouble(reader));
+                break;
+            case ClassDescriptor.TYPE_FLOAT:
+                f.setFloat(object, (float) streamDouble(reader));
+                break;
+            case ClassDescriptor.TYPE_FLOAT_OBJECT:
+                f.set(object, (float) streamDouble(reader));
+                break;
+            case ClassDescriptor.TYPE_LONG:
+                f.setLong(object, streamLong(reader));
+                break;
+            case ClassDescriptor.TYPE_LONG_OBJECT:
+                f.set(object, streamLong(reader));
+                break;
+            case ClassDescriptor.TYPE_LIST:
+                if (!expect(reader, JsonStreamReader.BEGIN_ARRAY)) {
+                    return;
+                }
+                value = null;
+                if (field.actualClass != null) {
+                    value = streamList(field.actualClass, reader);
+                } else {
+                    reader.skipValue();
+                }
+                f.set(object, value);
+                break;
+            case ClassDescriptor.TYPE_JSON_OBJECT:
+                if (expect(reader, JsonStreamReader.BEGIN_OBJECT)) {
+                    f.set(object, readJsonValue(reader));
+                }
+                break;
+            case ClassDescriptor.TYPE_JSON_ARRAY:
+                if (expect(reader, JsonStreamReader.BEGIN_ARRAY)) {
+                    f.set(object, readJsonValue(reader));
+                }
+                break;
+            case ClassDescriptor.TYPE_OBJECT:
+                value = f.get(object);
+                if (value != null) {
+                    if (!expect(reader, JsonStreamReader.BEGIN_OBJECT)) {
+                        return;
+                    }
+                    if (value instanceof String) {
+                        value = readJsonValue(reader).toString();
+                    } else {
+                        deserializeStream(value, ClassDescriptor.get(value.getClass()), reader);
+                    }
+                } else {
+                    value = readJsonValue(reader);
+                }
+                f.set(object, value);
+                break;
+            default:
+                if (!expect(reader, JsonStreamReader.BEGIN_OBJECT)) {
+                    return;
+                }
+                value = f.get(object);
+                if (value == null) {
+                    try {
+                        value = ClassDescriptor.get(field.actualClass).newInstance();
+                    } catch (InstantiationException e) {
+                        Log.w(LOG_TAG, "streamValue.InstantiationException: " + e.getMessage());
+                        reader.skipValue();
+                        return;
+                    }
+                }
+                deserializeStream(value, ClassDescriptor.get(value.getClass()), reader);
+                f.set(object, value);
+                break;
+        }
+    }
+
+    static boolean expect(JsonStreamReader reader, int token) throws IOException {
+        if (reader.peek() == token) {
+            return true;
+        }
+        Log.w(LOG_TAG, "streamValue.JSONException: Value is of unexpected type " + reader.peek());
+        reader.skipValue();
+        return false;
+    }
+
+    static <T> List<T> streamList(Class<T> elementClassType, JsonStreamReader reader) throws IOException {
+        List<T> list = new ArrayList<T>();
+        ClassDescriptor descriptor = ClassDescriptor.get(elementClassType);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonStreamReader.BEGIN_OBJECT) {
+                Log.e(LOG_TAG, "streamList.JSONException: element is not a JSON object");
+                reader.skipValue();
+                continue;
+            }
+            try {
+                T object = elementClassType.cast(descriptor.newInstance());
+                deserializeStream(object, descriptor, reader);
+                list.add(object);
+            } catch (IllegalAccessException e) {
+                Log.e(LOG_TAG, "streamList.IllegalAccessException: " + e.getMessage());
+                break;
+            } catch (InstantiationException e) {
+                Log.e(LOG_TAG, "streamList.InstantiationException: " + e.getMessage());
+                break;
+            }
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return list;
+    }
+
+    static long streamLong(JsonStreamReader reader) throws IOException {
+        int token = reader.peek();
+        if (token == JsonStreamReader.NUMBER) {
+            return parseNumber(reader.nextLiteral()).longValue();
+        }
+        if (token == JsonStreamReader.STRING) {
+            try {
+                return (long) Double.parseDouble(reader.nextString());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        reader.skipValue();
+        return 0;
+    }
+
+    static double streamDouble(JsonStreamReader reader) throws IOException {
+        int token = reader.peek();
+        if (token == JsonStreamReader.NUMBER || token == JsonStreamReader.STRING) {
+            try {
+                return Double.parseDouble(reader.nextString());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        reader.skipValue();
+        return Double.NaN;
+    }
+
+    static boolean streamBoolean(JsonStreamReader reader) throws IOException {
+        int token = reader.peek();
+        if (token == JsonStreamReader.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        if (token == JsonStreamReader.STRING) {
+            return "true".equalsIgnoreCase(reader.nextString());
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    static String streamString(JsonStreamReader reader) throws IOException {
+        int token = reader.peek();
+        if (token == JsonStreamReader.STRING || token == JsonStreamReader.BOOLEAN) {
+            return reader.nextString();
+        }
+        if (token == JsonStreamReader.NUMBER) {
+            return String.valueOf(parseNumber(reader.nextLiteral()));
+        }
+        return String.valueOf(readJsonValue(reader));
+    }
+
+    /**
+     * 读取任意JSON值，对象和数组构建为JSONObject/JSONArray，仅用于声明为JSON类型或Object的域
+     *
+     * @param reader JSON读取器
+     * @return JSONObject、JSONArray、String、Number、Boolean或JSONObject.NULL
+     * @throws IOException 读取异常或JSON格式错误
+     */
+    static Object readJsonValue(JsonStreamReader reader) throws IOException {
+        try {
+            switch (reader.peek()) {
+                case JsonStreamReader.BEGIN_OBJECT:
+                    JSONObject json = new JSONObject();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        json.put(name, readJsonValue(reader));
+                    }
+                    reader.endObject();
+                    return json;
+                case JsonStreamReader.BEGIN_ARRAY:
+                    JSONArray array = new JSONArray();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        array.put(readJsonValue(reader));
+                    }
+                    reader.endArray();
+                    return array;
+                case JsonStreamReader.NUMBER:
+                    return parseNumber(reader.nextLiteral());
+                case JsonStreamReader.BOOLEAN:
+                    return reader.nextBoolean();
+                case JsonStreamReader.NULL:
+                    reader.nextNull();
+                    return JSONObject.NULL;
+                default:
+                    return reader.nextString();
+            }
+        } catch (JSONException e) {
+            throw new IOException("readJsonValue.JSONException: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取下一个值的文本：字符串返回其内容，null返回空串，数字和布尔值返回字面量，对象和数组返回JSON文本
+     *
+     * @param reader JSON读取器
+     * @return 值的文本
+     * @throws IOException 读取异常或JSON格式错误
+     */
+    public static String readRawValue(JsonStreamReader reader) throws IOException {
+        switch (reader.peek()) {
+            case JsonStreamReader.BEGIN_OBJECT:
+            case JsonStreamReader.BEGIN_ARRAY:
+                Buffer buffer = new Buffer();
+                copyValue(reader, new JsonStreamWriter(buffer));
+                return buffer.readUtf8();
+            case JsonStreamReader.NULL:
+                reader.nextNull();
+                return "";
+            default:
+                return reader.nextString();
+        }
+    }
+
+    private static void copyValue(JsonStreamReader reader, JsonStreamWriter writer) throws IOException {
+        switch (reader.peek()) {
+            case JsonStreamReader.BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    writer.name(reader.nextName());
+                    copyValue(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+                break;
+            case JsonStreamReader.BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copyValue(reader, writer);
+                }
+                reader.endArray();
+                writer.endArray();
+                break;
+            case JsonStreamReader.NUMBER:
+            case JsonStreamReader.BOOLEAN:
+                writer.rawValue(reader.nextLiteral());
+                break;
+            case JsonStreamReader.NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+            default:
+                writer.value(reader.nextString());
+                break;
+        }
+    }
+
+    /**
+     * 数字字面量转换，与JSONTokener一致：整数优先Integer/Long，否则Double
+     */
+    private static Number parseNumber(String literal) throws IOException {
+        try {
+            if (literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1) {
+                long value = Long.parseLong(literal);
+                if (value <= Integer.MAX_VALUE && value >= Integer.MIN_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            }
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            try {
+                return Double.parseDouble(literal);
+            } catch (NumberFormatException e2) {
+                throw new IOException("JSON syntax error: invalid number " + literal);
+            }
+        }
+    }
+
     @Target(ElementType.FIELD)
     @Retention(RetentionPolicy.RUNTIME)
     public static @interface JSONSerializeAnnotation {
         public Class<?> actualClass();
     }
+
+    /**
+     * 标注需要在编译期生成JSONAdapter的实体类，需在模块中配置annotationProcessor project(':HttpCompiler')
+     * 要求：存在非private的无参构造函数；private域需提供对应的get/is与set方法
+     */
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.CLASS)
+    public static @interface JSONSerializeModel {
+    }
 }
@@ -0,0 +1,246 @@
+package com.eric.http.utils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author li
+ * @Package com.eric.http.utils
+ * @Title: JSONAdapter
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 编译期生成的序列化器基类，HttpCompiler为每个标注了{@link HttpSerializer.JSONSerializeModel}的类生成
+ * 名为"类名$$JSONAdapter"的子类，HttpSerializer优先使用生成的代码，找不到时才回退到反射
+ */
+public abstract class JSONAdapter<T> {
+    /**
+     * 生成类名后缀
+     */
+    public static final String SUFFIX = "$$JSONAdapter";
+
+    /**
+     * 创建目标实例
+     *
+     * @return 新实例
+     */
+    public abstract T newInstance();
+
+    /**
+     * JSONObject写入对象，规则与HttpSerializer.deserializeJSONObject一致
+     *
+     * @param object 目标对象
+     * @param json   JSONObject对象
+     */
+    public abstract void fromJSON(T object, JSONObject json);
+
+    /**
+     * 从流中读取一个JSON对象写入目标对象，规则与HttpSerializer.deserializeStream一致
+     *
+     * @param object 目标对象
+     * @param reader JSON读取器，下一个token必须为BEGIN_OBJECT
+     * @throws IOException 读取异常或JSON格式错误
+     */
+    public abstract void fromStream(T object, JsonStreamReader reader) throws IOException;
+
+    /**
+     * 对象写入JSONObject，规则与HttpSerializer.serializeObject2JSONObject一致
+     *
+     * @param object 源对象
+     * @param json   目标JSONObject对象
+     */
+    public abstract void toJSON(T object, JSONObject json);
+
+    /**
+     * 对象直接写入JSON流，规则与HttpSerializer.serializeStream一致
+     *
+     * @param object 源对象
+     * @param writer JSON写入器
+     * @throws IOException 写入异常
+     */
+    public abstract void toStream(T object, JsonStreamWriter writer) throws IOException;
+
+    /**
+     * 对象写入Map，规则与HttpSerializer.serializeObject2Map一致
+     *
+     * @param object 源对象
+     * @param map    目标Map对象
+     */
+    public abstract void toMap(T object, Map<String, Object> map);
+
+    protected static <E> E newInstance(Class<E> clazz) {
+        return HttpSerializer.newInstance(clazz);
+    }
+
+    protected static long readLong(JsonStreamReader reader) throws IOException {
+        return HttpSerializer.streamLong(reader);
+    }
+
+    protected static double readDouble(JsonStreamReader reader) throws IOException {
+        return HttpSerializer.streamDouble(reader);
+    }
+
+    protected static boolean readBoolean(JsonStreamReader reader) throws IOException {
+        return HttpSerializer.streamBoolean(reader);
+    }
+
+    protected static String readString(JsonStreamReader reader) throws IOException {
+        return HttpSerializer.streamString(reader);
+    }
+
+    /**
+     * 读取对象数组，类型不匹配时跳过并返回null
+     */
+    protected static <E> List<E> readList(Class<E> elementClass, JsonStreamReader reader) throws IOException {
+        if (!HttpSerializer.expect(reader, JsonStreamReader.BEGIN_ARRAY)) {
+            return null;
+        }
+        return HttpSerializer.streamList(elementClass, reader);
+    }
+
+    /**
+     * 读取嵌套对象，current为空时新建，类型不匹配或无法实例化时跳过并返回null
+     */
+    protected static <E> E readNested(E current, Class<E> clazz, JsonStreamReader reader) throws IOException {
+        if (!HttpSerializer.expect(reader, JsonStreamReader.BEGIN_OBJECT)) {
+            return null;
+        }
+        E value = current != null ? current : HttpSerializer.newInstance(clazz);
+        if (value == null) {
+            reader.skipValue();
+            return null;
+        }
+        HttpSerializer.deserializeStream(value, ClassDescriptor.get(value.getClass()), reader);
+        return value;
+    }
+
+    protected static JSONObject readJSONObject(JsonStreamReader reader) throws IOException {
+        if (!HttpSerializer.expect(reader, JsonStreamReader.BEGIN_OBJECT)) {
+            return null;
+        }
+        return (JSONObject) HttpSerializer.readJsonValue(reader);
+    }
+
+    protected static JSONArray readJSONArray(JsonStreamReader reader) throws IOException {
+        if (!HttpSerializer.expect(reader, JsonStreamReader.BEGIN_ARRAY)) {
+            return null;
+        }
+        return (JSONArray) HttpSerializer.readJsonValue(reader);
+    }
+
+    /**
+     * 读取声明为Object的域，规则与反射实现一致
+     */
+    protected static Object readObject(Object current, JsonStreamReader reader) throws IOException {
+        if (current == null) {
+            return HttpSerializer.readJsonValue(reader);
+        }
+        if (!HttpSerializer.expect(reader, JsonStreamReader.BEGIN_OBJECT)) {
+            return current;
+        }
+        if (current instanceof String) {
+            return HttpSerializer.readJsonValue(reader).toString();
+        }
+        HttpSerializer.deserializeStream(current, ClassDescriptor.get(current.getClass()), reader);
+        return current;
+    }
+
+    /**
+     * 读取声明为Object的域（JSONObject来源），规则与反射实现一致
+     */
+    protected static Object readObject(Object current, JSONObject json, String name) {
+        if (current == null) {
+            return json.opt(name);
+        }
+        JSONObject value = json.optJSONObject(name);
+        if (value == null) {
+            return current;
+        }
+        if (current instanceof String) {
+            return value.toString();
+        }
+        HttpSerializer.deserializeJSONObject(current, value);
+        return current;
+    }
+
+    /**
+     * 读取嵌套对象（JSONObject来源），current为空时新建，类型不匹配或无法实例化时返回null
+     */
+    protected static <E> E readNested(E current, Class<E> clazz, JSONObject json, String name) {
+        JSONObject value = json.optJSONObject(name);
+        if (value == null) {
+            return null;
+        }
+        E object = current != null ? current : HttpSerializer.newInstance(clazz);
+        if (object != null) {
+            HttpSerializer.deserializeJSONObject(object, value);
+        }
+        return object;
+    }
+
+    protected static <E> List<E> readList(Class<E> elementClass, JSONObject json, String name) {
+        JSONArray array = json.optJSONArray(name);
+        if (array == null) {
+            return null;
+        }
+        return HttpSerializer.deserializeJSONArray(elementClass, array);
+    }
+
+    /**
+     * List写入JSONArray，空列表返回null
+     */
+    protected static JSONArray writeList(List<?> list) {
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < list.size(); i++) {
+            JSONObject json = new JSONObject();
+            HttpSerializer.serializeObject2JSONObject(list.get(i), json);
+            array.put(json);
+        }
+        return array;
+    }
+
+    /**
+     * List写入Map数组，空列表返回null
+     */
+    protected static Object[] writeListMap(List<?> list) {
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        Object[] array = new Object[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            Map<String, Object> subMap = new HashMap<String, Object>();
+            HttpSerializer.serializeObject2Map(list.get(i), subMap);
+            if (!subMap.isEmpty()) {
+                array[i] = subMap;
+            }
+        }
+        return array;
+    }
+
+    protected static void write(JsonStreamWriter writer, String name, Object value) throws IOException {
+        HttpSerializer.streamValue(writer, name, value);
+    }
+
+    protected static void writeList(JsonStreamWriter writer, String name, List<?> list) throws IOException {
+        HttpSerializer.streamList(writer, name, list);
+    }
+
+    protected static void put(JSONObject json, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        try {
+            json.put(name, value);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.eric.http.utils;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * @author li
+ * @Package com.eric.http.utils
+ * @Title: JsonRequestBody
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 实体对象请求体，OkHttp写请求时逐个域序列化到BufferedSink，不生成中间JSONObject、String和byte[]
+ */
+public class JsonRequestBody extends RequestBody {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private final Object object;
+
+    public JsonRequestBody(Object object) {
+        this.object = object;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    /**
+     * 长度未知，按chunked方式传输
+     */
+    @Override
+    public long contentLength() throws IOException {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        HttpSerializer.serializeStream(object, new JsonStreamWriter(sink));
+    }
+}
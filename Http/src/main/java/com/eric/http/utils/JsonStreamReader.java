@@ -0,0 +1,409 @@
+package com.eric.http.utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * @author li
+ * @Package com.eric.http.utils
+ * @Title: JsonStreamReader
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 基于Okio BufferedSource的增量JSON读取器，按token读取，无需先把响应体转为String；
+ * 其他格式（如MessagePack）的解码器可继承并按相同的token接口驱动HttpSerializer和JSONAdapter
+ */
+public class JsonStreamReader implements Closeable {
+    public static final int BEGIN_OBJECT = 1;
+    public static final int END_OBJECT = 2;
+    public static final int BEGIN_ARRAY = 3;
+    public static final int END_ARRAY = 4;
+    public static final int NAME = 5;
+    public static final int STRING = 6;
+    public static final int NUMBER = 7;
+    public static final int BOOLEAN = 8;
+    public static final int NULL = 9;
+    public static final int END_DOCUMENT = 10;
+
+    private static final int PEEKED_NONE = 0;
+
+    private static final int SCOPE_EMPTY_DOCUMENT = 1;
+    private static final int SCOPE_NONEMPTY_DOCUMENT = 2;
+    private static final int SCOPE_EMPTY_OBJECT = 3;
+    private static final int SCOPE_DANGLING_NAME = 4;
+    private static final int SCOPE_NONEMPTY_OBJECT = 5;
+    private static final int SCOPE_EMPTY_ARRAY = 6;
+    private static final int SCOPE_NONEMPTY_ARRAY = 7;
+
+    private static final ByteString STRING_TERMINALS = ByteString.encodeUtf8("\"\\");
+    private static final ByteString LITERAL_TERMINALS = ByteString.encodeUtf8("{}[]:,\" \n\t\r\f/\\;#=");
+
+    private final BufferedSource source;
+    private final Buffer buffer;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    private int peeked = PEEKED_NONE;
+    /**
+     * 已读取的数字/布尔字面量
+     */
+    private String peekedLiteral;
+
+    public JsonStreamReader(BufferedSource source) {
+        this.source = source;
+        this.buffer = source.buffer();
+        stack[stackSize++] = SCOPE_EMPTY_DOCUMENT;
+    }
+
+    /**
+     * 供其他格式的解码器继承，子类需覆盖全部读取方法
+     */
+    protected JsonStreamReader() {
+        this.source = null;
+        this.buffer = null;
+    }
+
+    /**
+     * 查看下一个token类型，不消费
+     *
+     * @return token类型
+     * @throws IOException 读取异常或JSON格式错误
+     */
+    public int peek() throws IOException {
+        if (peeked == PEEKED_NONE) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    public void beginObject() throws IOException {
+        expect(BEGIN_OBJECT);
+        push(SCOPE_EMPTY_OBJECT);
+        peeked = PEEKED_NONE;
+    }
+
+    public void endObject() throws IOException {
+        expect(END_OBJECT);
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    public void beginArray() throws IOException {
+        expect(BEGIN_ARRAY);
+        push(SCOPE_EMPTY_ARRAY);
+        peeked = PEEKED_NONE;
+    }
+
+    public void endArray() throws IOException {
+        expect(END_ARRAY);
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * 当前对象或数组中是否还有元素
+     */
+    public boolean hasNext() throws IOException {
+        int p = peek();
+        return p != END_OBJECT && p != END_ARRAY && p != END_DOCUMENT;
+    }
+
+    public String nextName() throws IOException {
+        expect(NAME);
+        peeked = PEEKED_NONE;
+        return readQuoted();
+    }
+
+    /**
+     * 读取字符串值，数字和布尔值返回其字面量
+     */
+    public String nextString() throws IOException {
+        int p = peek();
+        peeked = PEEKED_NONE;
+        if (p == STRING) {
+            return readQuoted();
+        }
+        if (p == NUMBER || p == BOOLEAN) {
+            return peekedLiteral;
+        }
+        peeked = p;
+        throw syntaxError("Expected a string but was " + p);
+    }
+
+    /**
+     * 读取数字或布尔值的原始字面量
+     */
+    public String nextLiteral() throws IOException {
+        int p = peek();
+        if (p != NUMBER && p != BOOLEAN) {
+            throw syntaxError("Expected a literal but was " + p);
+        }
+        peeked = PEEKED_NONE;
+        return peekedLiteral;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(BOOLEAN);
+        peeked = PEEKED_NONE;
+        return "true".equals(peekedLiteral);
+    }
+
+    public void nextNull() throws IOException {
+        expect(NULL);
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * 跳过下一个值（包括整个对象或数组子树），不构建任何中间对象
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int p = peek();
+            peeked = PEEKED_NONE;
+            switch (p) {
+                case BEGIN_OBJECT:
+                    push(SCOPE_EMPTY_OBJECT);
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    push(SCOPE_EMPTY_ARRAY);
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    stackSize--;
+                    depth--;
+                    break;
+                case NAME:
+                case STRING:
+                    skipQuoted();
+                    break;
+                case END_DOCUMENT:
+                    peeked = p;
+                    throw syntaxError("Unexpected end of input");
+                default:
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stackSize = 0;
+        buffer.clear();
+        source.close();
+    }
+
+    private void expect(int token) throws IOException {
+        int p = peek();
+        if (p != token) {
+            throw syntaxError("Expected " + token + " but was " + p);
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private int doPeek() throws IOException {
+        int scope = stack[stackSize - 1];
+        if (scope == SCOPE_EMPTY_ARRAY) {
+            stack[stackSize - 1] = SCOPE_NONEMPTY_ARRAY;
+        } else if (scope == SCOPE_NONEMPTY_ARRAY) {
+            int c = nextNonWhitespace();
+            buffer.readByte();
+            if (c == ']') {
+                return END_ARRAY;
+            } else if (c != ',') {
+                throw syntaxError("Unterminated array");
+            }
+        } else if (scope == SCOPE_EMPTY_OBJECT || scope == SCOPE_NONEMPTY_OBJECT) {
+            stack[stackSize - 1] = SCOPE_DANGLING_NAME;
+            if (scope == SCOPE_NONEMPTY_OBJECT) {
+                int c = nextNonWhitespace();
+                buffer.readByte();
+                if (c == '}') {
+                    return END_OBJECT;
+                } else if (c != ',') {
+                    throw syntaxError("Unterminated object");
+                }
+            }
+            int c = nextNonWhitespace();
+            if (c == '"') {
+                buffer.readByte();
+                return NAME;
+            } else if (c == '}' && scope == SCOPE_EMPTY_OBJECT) {
+                buffer.readByte();
+                return END_OBJECT;
+            }
+            throw syntaxError("Expected name");
+        } else if (scope == SCOPE_DANGLING_NAME) {
+            stack[stackSize - 1] = SCOPE_NONEMPTY_OBJECT;
+            int c = nextNonWhitespace();
+            buffer.readByte();
+            if (c != ':') {
+                throw syntaxError("Expected ':'");
+            }
+        } else if (scope == SCOPE_EMPTY_DOCUMENT) {
+            stack[stackSize - 1] = SCOPE_NONEMPTY_DOCUMENT;
+        } else if (scope == SCOPE_NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespaceOrEnd() == -1) {
+                return END_DOCUMENT;
+            }
+            throw syntaxError("Unexpected content after document");
+        }
+
+        int c = nextNonWhitespace();
+        switch (c) {
+            case ']':
+                if (scope == SCOPE_EMPTY_ARRAY) {
+                    buffer.readByte();
+                    return END_ARRAY;
+                }
+                throw syntaxError("Unexpected value");
+            case '"':
+                buffer.readByte();
+                return STRING;
+            case '{':
+                buffer.readByte();
+                return BEGIN_OBJECT;
+            case '[':
+                buffer.readByte();
+                return BEGIN_ARRAY;
+            default:
+                return peekLiteral();
+        }
+    }
+
+    private int peekLiteral() throws IOException {
+        long index = source.indexOfElement(LITERAL_TERMINALS);
+        String literal = index != -1 ? buffer.readUtf8(index) : buffer.readUtf8();
+        if (literal.isEmpty()) {
+            throw syntaxError("Expected value");
+        }
+        if ("null".equals(literal)) {
+            return NULL;
+        }
+        peekedLiteral = literal;
+        if ("true".equals(literal) || "false".equals(literal)) {
+            return BOOLEAN;
+        }
+        char first = literal.charAt(0);
+        if (first == '-' || (first >= '0' && first <= '9')) {
+            return NUMBER;
+        }
+        throw syntaxError("Unexpected literal " + literal);
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = nextNonWhitespaceOrEnd();
+        if (c == -1) {
+            throw new EOFException("End of input");
+        }
+        return c;
+    }
+
+    private int nextNonWhitespaceOrEnd() throws IOException {
+        while (source.request(1)) {
+            byte c = buffer.getByte(0);
+            if (c == ' ' || c == '\n' || c == '\t' || c == '\r') {
+                buffer.skip(1);
+                continue;
+            }
+            return c;
+        }
+        return -1;
+    }
+
+    /**
+     * 读取开引号之后的字符串内容并消费闭引号
+     */
+    private String readQuoted() throws IOException {
+        StringBuilder builder = null;
+        while (true) {
+            long index = source.indexOfElement(STRING_TERMINALS);
+            if (index == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (buffer.getByte(index) == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(buffer.readUtf8(index));
+                buffer.readByte();
+                builder.append(readEscapeCharacter());
+                continue;
+            }
+            if (builder == null) {
+                String result = buffer.readUtf8(index);
+                buffer.readByte();
+                return result;
+            }
+            builder.append(buffer.readUtf8(index));
+            buffer.readByte();
+            return builder.toString();
+        }
+    }
+
+    private void skipQuoted() throws IOException {
+        while (true) {
+            long index = source.indexOfElement(STRING_TERMINALS);
+            if (index == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            byte c = buffer.getByte(index);
+            buffer.skip(index + 1);
+            if (c == '"') {
+                return;
+            }
+            readEscapeCharacter();
+        }
+    }
+
+    private char readEscapeCharacter() throws IOException {
+        if (!source.request(1)) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        byte escaped = buffer.readByte();
+        switch (escaped) {
+            case 'u':
+                if (!source.request(4)) {
+                    throw new EOFException("Unterminated escape sequence");
+                }
+                String hex = buffer.readUtf8(4);
+                try {
+                    return (char) Integer.parseInt(hex, 16);
+                } catch (NumberFormatException e) {
+                    throw syntaxError("\\u" + hex);
+                }
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            default:
+                return (char) escaped;
+        }
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("JSON syntax error: " + message);
+    }
+}
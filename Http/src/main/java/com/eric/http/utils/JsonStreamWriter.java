@@ -0,0 +1,215 @@
+package com.eric.http.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import okio.BufferedSink;
+
+/**
+ * @author li
+ * @Package com.eric.http.utils
+ * @Title: JsonStreamWriter
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 基于Okio BufferedSink的增量JSON写入器，直接写入请求体，输出格式与JSONObject.toString()一致
+ */
+public final class JsonStreamWriter implements Closeable, Flushable {
+    private static final int SCOPE_EMPTY = 0;
+    private static final int SCOPE_NONEMPTY = 1;
+    private static final int SCOPE_DANGLING_NAME = 2;
+
+    private static final String[] REPLACEMENT_CHARS;
+
+    static {
+        REPLACEMENT_CHARS = new String[128];
+        for (int i = 0; i < 0x20; i++) {
+            REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENT_CHARS['"'] = "\\\"";
+        REPLACEMENT_CHARS['\\'] = "\\\\";
+        REPLACEMENT_CHARS['/'] = "\\/";
+        REPLACEMENT_CHARS['\t'] = "\\t";
+        REPLACEMENT_CHARS['\b'] = "\\b";
+        REPLACEMENT_CHARS['\n'] = "\\n";
+        REPLACEMENT_CHARS['\r'] = "\\r";
+        REPLACEMENT_CHARS['\f'] = "\\f";
+    }
+
+    private final BufferedSink sink;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    public JsonStreamWriter(BufferedSink sink) {
+        this.sink = sink;
+        stack[stackSize++] = SCOPE_EMPTY;
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        push(SCOPE_EMPTY);
+        sink.writeByte('{');
+        return this;
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        stackSize--;
+        sink.writeByte('}');
+        return this;
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        push(SCOPE_EMPTY);
+        sink.writeByte('[');
+        return this;
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        stackSize--;
+        sink.writeByte(']');
+        return this;
+    }
+
+    public JsonStreamWriter name(String name) throws IOException {
+        if (stack[stackSize - 1] == SCOPE_NONEMPTY) {
+            sink.writeByte(',');
+        }
+        stack[stackSize - 1] = SCOPE_DANGLING_NAME;
+        writeQuoted(name);
+        sink.writeByte(':');
+        return this;
+    }
+
+    public JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeQuoted(value);
+        return this;
+    }
+
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        sink.writeUtf8(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        sink.writeDecimalLong(value);
+        return this;
+    }
+
+    /**
+     * 写入数字，格式与JSONObject.numberToString一致：整数值不带小数部分（1.0f写为1），
+     * 小数去掉末尾的0（BigDecimal("1.50")写为1.5），负零写为-0，科学计数法原样保留
+     *
+     * @param value 数字，不能为NaN或无穷大
+     */
+    public JsonStreamWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        double doubleValue = value.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        beforeValue();
+        if (doubleValue == 0d && 1d / doubleValue < 0d) {
+            sink.writeUtf8("-0");
+            return this;
+        }
+        long longValue = value.longValue();
+        if (doubleValue == (double) longValue) {
+            sink.writeDecimalLong(longValue);
+            return this;
+        }
+        String string = value.toString();
+        if (string.indexOf('.') > 0 && string.indexOf('e') < 0 && string.indexOf('E') < 0) {
+            int end = string.length();
+            while (string.charAt(end - 1) == '0') {
+                end--;
+            }
+            if (string.charAt(end - 1) == '.') {
+                end--;
+            }
+            string = string.substring(0, end);
+        }
+        sink.writeUtf8(string);
+        return this;
+    }
+
+    public JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        sink.writeUtf8("null");
+        return this;
+    }
+
+    /**
+     * 原样写入已编码的JSON值（如JSONObject.toString()）
+     */
+    public JsonStreamWriter rawValue(String json) throws IOException {
+        beforeValue();
+        sink.writeUtf8(json);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        sink.flush();
+    }
+
+    /**
+     * 关闭写入器，不关闭底层BufferedSink（由OkHttp管理）
+     */
+    @Override
+    public void close() throws IOException {
+        sink.flush();
+        stackSize = 0;
+    }
+
+    private void beforeValue() throws IOException {
+        int scope = stack[stackSize - 1];
+        if (scope == SCOPE_NONEMPTY) {
+            sink.writeByte(',');
+        }
+        stack[stackSize - 1] = SCOPE_NONEMPTY;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        sink.writeByte('"');
+        int last = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 128) {
+                continue;
+            }
+            String replacement = REPLACEMENT_CHARS[c];
+            if (replacement == null) {
+                continue;
+            }
+            if (last < i) {
+                sink.writeUtf8(value, last, i);
+            }
+            sink.writeUtf8(replacement);
+            last = i + 1;
+        }
+        if (last < length) {
+            sink.writeUtf8(value, last, length);
+        }
+        sink.writeByte('"');
+    }
+}
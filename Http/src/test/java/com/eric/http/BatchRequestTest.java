@@ -0,0 +1,147 @@
+package com.eric.http;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+
+import com.eric.core.core.HttpConfig;
+import com.eric.core.listener.WebCallbackListener;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 批量请求：表单子请求的Content-Type，以及批量响应按id流式拆分回调
+ */
+public class BatchRequestTest {
+    private MockWebServer server;
+    private CountDownLatch done;
+
+    public static class Item {
+        long id;
+        String title;
+    }
+
+    private class Result<T> implements WebCallbackListener<T> {
+        volatile T value;
+        volatile int httpCode;
+        volatile String data;
+        volatile Headers headers;
+        volatile Exception error;
+
+        @Override
+        public void onSuccess(Object tag, int httpCode, T t, Headers headers) {
+            this.httpCode = httpCode;
+            this.value = t;
+            this.headers = headers;
+            done.countDown();
+        }
+
+        @Override
+        public void onData(Object tag, int httpCode, String data) {
+            this.httpCode = httpCode;
+            this.data = data;
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Object tag, Exception e) {
+            this.error = e;
+            done.countDown();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        Context context = new Context() {
+            @Override
+            public Object getSystemService(String s) {
+                return new ConnectivityManager() {
+                    @Override
+                    public NetworkInfo[] getAllNetworkInfo() {
+                        return new NetworkInfo[]{new NetworkInfo()};
+                    }
+                };
+            }
+        };
+        Http.getInstance().init(context, new HttpConfig());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void formItem_hasContentType() throws Exception {
+        BatchRequest batch = new BatchRequest().addPost("/form", null, null, null, Collections.singletonMap("a",
+                "1"), String.class, null).addPost("/custom", null, Collections.singletonMap("content-type",
+                "text/plain"), null, null, String.class, null);
+        JSONArray requests = batch.toJSONObject().getJSONArray("requests");
+        assertEquals("application/x-www-form-urlencoded", requests.getJSONObject(0).getJSONObject("headers")
+                .getString("Content-Type"));
+        assertEquals("a=1", requests.getJSONObject(0).getString("body"));
+        JSONObject custom = requests.getJSONObject(1).getJSONObject("headers");
+        assertEquals(1, custom.length());
+        assertEquals("text/plain", custom.getString("content-type"));
+    }
+
+    @Test
+    public void responses_streamedPerItem() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody("{\"version\":1,"
+                + "\"responses\":[{\"id\":\"0\",\"status\":200,\"headers\":{\"ETag\":\"v1\"},\"body\":{\"id\":7,"
+                + "\"title\":\"seven\",\"extra\":[1,{\"x\":null}]}},"
+                + "{\"body\":{\"ok\":true,\"n\":1.5},\"status\":201,\"id\":\"1\"},"
+                + "{\"id\":\"2\",\"status\":404,\"body\":\"not found\"},"
+                + "{\"id\":\"9\",\"status\":200,\"body\":{}}]}"));
+        done = new CountDownLatch(4);
+        Result<Item> model = new Result<>();
+        Result<String> text = new Result<>();
+        Result<Item> notFound = new Result<>();
+        Result<Item> missing = new Result<>();
+        BatchRequest batch = new BatchRequest()
+                .addGet("/item/7", null, null, null, Item.class, model)
+                .addPost("/form", null, null, null, Collections.singletonMap("a", "1"), String.class, text)
+                .addGet("/item/8", null, null, null, Item.class, notFound)
+                .addGet("/item/9", null, null, null, Item.class, missing);
+        Http.getInstance().asyncBatch(server.url("/batch").toString(), "batch", null, batch, false);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(200, model.httpCode);
+        assertEquals(7, model.value.id);
+        assertEquals("seven", model.value.title);
+        assertEquals("v1", model.headers.get("ETag"));
+
+        assertEquals(201, text.httpCode);
+        JSONObject json = new JSONObject(text.value);
+        assertTrue(json.getBoolean("ok"));
+        assertEquals(1.5, json.getDouble("n"), 0d);
+
+        assertEquals(404, notFound.httpCode);
+        assertNull(notFound.value);
+        assertNotNull(notFound.data);
+
+        assertNotNull(missing.error);
+
+        JSONObject request = new JSONObject(server.takeRequest().getBody().readUtf8());
+        assertEquals(4, request.getJSONArray("requests").length());
+    }
+}
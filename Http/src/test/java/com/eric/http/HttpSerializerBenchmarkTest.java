@@ -0,0 +1,211 @@
+package com.eric.http;
+
+import com.eric.http.utils.HttpSerializer;
+import com.eric.http.utils.JsonStreamWriter;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * HttpSerializer 微基准：逐次反射（旧实现） vs 类描述缓存（新实现）
+ */
+public class HttpSerializerBenchmarkTest {
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 2000;
+
+    public static class BaseModel {
+        int code;
+        String message;
+    }
+
+    public static class Item {
+        private long id;
+        private String title;
+        private double price;
+        private boolean enabled;
+        private Integer count;
+    }
+
+    public static class ListModel extends BaseModel {
+        @HttpSerializer.JSONSerializeAnnotation(actualClass = Item.class)
+        private List<Item> items;
+        private float ratio;
+    }
+
+    private static JSONObject buildJson() throws Exception {
+        JSONObject json = new JSONObject();
+        json.put("code", 200);
+        json.put("message", "ok");
+        json.put("ratio", 0.5);
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < 100; i++) {
+            JSONObject item = new JSONObject();
+            item.put("id", i);
+            item.put("title", "title" + i);
+            item.put("price", i * 1.5);
+            item.put("enabled", i % 2 == 0);
+            item.put("count", i);
+            array.put(item);
+        }
+        json.put("items", array);
+        return json;
+    }
+
+    @Test
+    public void deserialize_cachedMatchesLegacy() throws Exception {
+        JSONObject json = buildJson();
+        ListModel cached = new ListModel();
+        HttpSerializer.deserializeJSONObject(cached, json);
+        ListModel legacy = new ListModel();
+        LegacySerializer.deserialize(legacy, json);
+
+        assertEquals(legacy.code, cached.code);
+        assertEquals(legacy.message, cached.message);
+        assertEquals(legacy.ratio, cached.ratio, 0f);
+        assertNotNull(cached.items);
+        assertEquals(legacy.items.size(), cached.items.size());
+        for (int i = 0; i < legacy.items.size(); i++) {
+            assertEquals(legacy.items.get(i).id, cached.items.get(i).id);
+            assertEquals(legacy.items.get(i).title, cached.items.get(i).title);
+            assertEquals(legacy.items.get(i).price, cached.items.get(i).price, 0d);
+            assertEquals(legacy.items.get(i).enabled, cached.items.get(i).enabled);
+            assertEquals(legacy.items.get(i).count, cached.items.get(i).count);
+        }
+    }
+
+    @Test
+    public void deserializeStream_matchesJSONObject() throws Exception {
+        JSONObject json = buildJson();
+        json.put("message", "line\n\"quoted\" \u4e2d\u6587");
+        json.put("unknown", new JSONObject().put("deep", new JSONArray().put(new JSONObject().put("x", "]}"))));
+        ListModel expected = new ListModel();
+        HttpSerializer.deserializeJSONObject(expected, json);
+        ListModel actual = HttpSerializer.deserializeStream(ListModel.class, new Buffer().writeUtf8(json.toString()));
+
+        assertEquals(expected.code, actual.code);
+        assertEquals(expected.message, actual.message);
+        assertEquals(expected.ratio, actual.ratio, 0f);
+        assertEquals(expected.items.size(), actual.items.size());
+        for (int i = 0; i < expected.items.size(); i++) {
+            assertEquals(expected.items.get(i).id, actual.items.get(i).id);
+            assertEquals(expected.items.get(i).title, actual.items.get(i).title);
+            assertEquals(expected.items.get(i).price, actual.items.get(i).price, 0d);
+            assertEquals(expected.items.get(i).enabled, actual.items.get(i).enabled);
+            assertEquals(expected.items.get(i).count, actual.items.get(i).count);
+        }
+    }
+
+    @Test
+    public void serializeStream_matchesJSONObject() throws Exception {
+        JSONObject json = buildJson();
+        json.put("message", "line\n\"quoted\" \u4e2d\u6587");
+        ListModel model = new ListModel();
+        HttpSerializer.deserializeJSONObject(model, json);
+        JSONObject expected = new JSONObject();
+        HttpSerializer.serializeObject2JSONObject(model, expected);
+
+        Buffer buffer = new Buffer();
+        HttpSerializer.serializeStream(model, new JsonStreamWriter(buffer));
+        JSONObject actual = new JSONObject(buffer.readUtf8());
+
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.getInt("code"), actual.getInt("code"));
+        assertEquals(expected.getString("message"), actual.getString("message"));
+        assertEquals(expected.getDouble("ratio"), actual.getDouble("ratio"), 0d);
+        JSONArray expectedItems = expected.getJSONArray("items");
+        JSONArray actualItems = actual.getJSONArray("items");
+        assertEquals(expectedItems.length(), actualItems.length());
+        for (int i = 0; i < expectedItems.length(); i++) {
+            JSONObject expectedItem = expectedItems.getJSONObject(i);
+            JSONObject actualItem = actualItems.getJSONObject(i);
+            assertEquals(expectedItem.getLong("id"), actualItem.getLong("id"));
+            assertEquals(expectedItem.getString("title"), actualItem.getString("title"));
+            assertEquals(expectedItem.getDouble("price"), actualItem.getDouble("price"), 0d);
+            assertEquals(expectedItem.getBoolean("enabled"), actualItem.getBoolean("enabled"));
+            assertEquals(expectedItem.getInt("count"), actualItem.getInt("count"));
+        }
+    }
+
+    @Test
+    public void deserialize_benchmark() throws Exception {
+        JSONObject json = buildJson();
+        for (int i = 0; i < WARMUP; i++) {
+            LegacySerializer.deserialize(new ListModel(), json);
+            HttpSerializer.deserializeJSONObject(new ListModel(), json);
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            LegacySerializer.deserialize(new ListModel(), json);
+        }
+        long t2 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            HttpSerializer.deserializeJSONObject(new ListModel(), json);
+        }
+        long t3 = System.nanoTime();
+        System.out.println(String.format("HttpSerializer deserialize x%d: legacy %.1fms, cached %.1fms", ROUNDS,
+                (t2 - t1) / 1e6d, (t3 - t2) / 1e6d));
+    }
+
+    /**
+     * 改造前的逐次反射实现，仅保留基准涉及的类型
+     */
+    private static class LegacySerializer {
+        static void deserialize(Object object, JSONObject json) throws Exception {
+            Class<?> superClass = object.getClass().getSuperclass();
+            if (superClass != null) {
+                for (Field field : superClass.getDeclaredFields()) {
+                    write(field, object, json);
+                }
+            }
+            for (Field field : object.getClass().getDeclaredFields()) {
+                write(field, object, json);
+            }
+        }
+
+        static void write(Field field, Object object, JSONObject json) throws Exception {
+            Class<?> actualClass = field.getType();
+            String name = field.getName();
+            if (json.isNull(name)) {
+                return;
+            }
+            field.setAccessible(true);
+            Object value;
+            if (actualClass == int.class || actualClass == Integer.class) {
+                value = json.optInt(name);
+            } else if (actualClass == String.class) {
+                value = json.optString(name);
+            } else if (actualClass == boolean.class || actualClass == Boolean.class) {
+                value = json.optBoolean(name);
+            } else if (actualClass == double.class || actualClass == Double.class) {
+                value = json.optDouble(name);
+            } else if (actualClass == float.class || actualClass == Float.class) {
+                value = (float) json.optDouble(name);
+            } else if (actualClass == long.class || actualClass == Long.class) {
+                value = json.optLong(name);
+            } else if (List.class.isAssignableFrom(actualClass)) {
+                Class<?> subClass = field.getAnnotation(HttpSerializer.JSONSerializeAnnotation.class).actualClass();
+                JSONArray array = json.getJSONArray(name);
+                List<Object> list = new ArrayList<>();
+                for (int i = 0; i < array.length(); i++) {
+                    Object element = subClass.newInstance();
+                    deserialize(element, array.getJSONObject(i));
+                    list.add(element);
+                }
+                value = list;
+            } else {
+                return;
+            }
+            field.set(object, value);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.eric.http;
+
+import com.eric.http.utils.HttpSerializer;
+import com.eric.http.utils.JsonStreamWriter;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * 编译期生成的JSONAdapter vs 反射实现：结果一致性与耗时对比
+ */
+public class JSONAdapterBenchmarkTest {
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 2000;
+
+    @HttpSerializer.JSONSerializeModel
+    public static class GeneratedItem {
+        long id;
+        String title;
+        double price;
+        private boolean enabled;
+        Integer count;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    @HttpSerializer.JSONSerializeModel
+    public static class GeneratedModel {
+        int code;
+        String message;
+        float ratio;
+        @HttpSerializer.JSONSerializeAnnotation(actualClass = GeneratedItem.class)
+        List<GeneratedItem> items;
+        GeneratedItem first;
+    }
+
+    public static class ReflectItem {
+        long id;
+        String title;
+        double price;
+        private boolean enabled;
+        Integer count;
+    }
+
+    public static class ReflectModel {
+        int code;
+        String message;
+        float ratio;
+        @HttpSerializer.JSONSerializeAnnotation(actualClass = ReflectItem.class)
+        List<ReflectItem> items;
+        ReflectItem first;
+    }
+
+    private static JSONObject buildJson() throws Exception {
+        JSONObject json = new JSONObject();
+        json.put("code", 200);
+        json.put("message", "ok");
+        json.put("ratio", 0.5);
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < 100; i++) {
+            JSONObject item = new JSONObject();
+            item.put("id", i);
+            item.put("title", "title" + i);
+            item.put("price", i * 1.5);
+            item.put("enabled", i % 2 == 0);
+            item.put("count", i);
+            array.put(item);
+        }
+        json.put("items", array);
+        json.put("first", array.getJSONObject(1));
+        return json;
+    }
+
+    @Test
+    public void generated_matchesReflection() throws Exception {
+        JSONObject json = buildJson();
+        GeneratedModel generated = new GeneratedModel();
+        HttpSerializer.deserializeJSONObject(generated, json);
+        ReflectModel reflect = new ReflectModel();
+        HttpSerializer.deserializeJSONObject(reflect, json);
+        assertModel(reflect, generated);
+
+        GeneratedModel streamed = HttpSerializer.deserializeStream(GeneratedModel.class, new Buffer().writeUtf8(json
+                .toString()));
+        assertModel(reflect, streamed);
+
+        Map<String, Object> generatedMap = new HashMap<>();
+        HttpSerializer.serializeObject2Map(generated, generatedMap);
+        Map<String, Object> reflectMap = new HashMap<>();
+        HttpSerializer.serializeObject2Map(reflect, reflectMap);
+        assertEquals(reflectMap.keySet(), generatedMap.keySet());
+        assertEquals(reflectMap.get("ratio"), generatedMap.get("ratio"));
+
+        JSONObject generatedJson = new JSONObject();
+        HttpSerializer.serializeObject2JSONObject(generated, generatedJson);
+        JSONObject reflectJson = new JSONObject();
+        HttpSerializer.serializeObject2JSONObject(reflect, reflectJson);
+        assertEquals(reflectJson.getJSONArray("items").toString(), generatedJson.getJSONArray("items").toString());
+
+        Buffer generatedStream = new Buffer();
+        HttpSerializer.serializeStream(generated, new JsonStreamWriter(generatedStream));
+        Buffer reflectStream = new Buffer();
+        HttpSerializer.serializeStream(reflect, new JsonStreamWriter(reflectStream));
+        assertEquals(new JSONObject(reflectStream.readUtf8()).getJSONArray("items").toString(), new JSONObject
+                (generatedStream.readUtf8()).getJSONArray("items").toString());
+    }
+
+    @Test
+    public void streamNumbers_matchJSONObject() throws Exception {
+        Number[] numbers = {1.0f, 1.5f, new BigDecimal("1.50"), new BigDecimal("100"), -0.0d, 0, 1.5e20d, 1e-7d,
+                Long.MAX_VALUE, 3.25d};
+        for (Number number : numbers) {
+            Buffer buffer = new Buffer();
+            new JsonStreamWriter(buffer).value(number);
+            assertEquals(JSONObject.numberToString(number), buffer.readUtf8());
+        }
+    }
+
+    @Test
+    public void generated_benchmark() throws Exception {
+        JSONObject json = buildJson();
+        String body = json.toString();
+        for (int i = 0; i < WARMUP; i++) {
+            HttpSerializer.deserializeJSONObject(new ReflectModel(), json);
+            HttpSerializer.deserializeJSONObject(new GeneratedModel(), json);
+            HttpSerializer.deserializeStream(ReflectModel.class, new Buffer().writeUtf8(body));
+            HttpSerializer.deserializeStream(GeneratedModel.class, new Buffer().writeUtf8(body));
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            HttpSerializer.deserializeJSONObject(new ReflectModel(), json);
+        }
+        long t2 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            HttpSerializer.deserializeJSONObject(new GeneratedModel(), json);
+        }
+        long t3 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            HttpSerializer.deserializeStream(ReflectModel.class, new Buffer().writeUtf8(body));
+        }
+        long t4 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            HttpSerializer.deserializeStream(GeneratedModel.class, new Buffer().writeUtf8(body));
+        }
+        long t5 = System.nanoTime();
+        System.out.println(String.format("JSONObject x%d: reflection %.1fms, generated %.1fms", ROUNDS, (t2 - t1) / 1e6d,
+                (t3 - t2) / 1e6d));
+        System.out.println(String.format("stream x%d: reflection %.1fms, generated %.1fms", ROUNDS, (t4 - t3) / 1e6d,
+                (t5 - t4) / 1e6d));
+    }
+
+    private static void assertModel(ReflectModel expected, GeneratedModel actual) {
+        assertEquals(expected.code, actual.code);
+        assertEquals(expected.message, actual.message);
+        assertEquals(expected.ratio, actual.ratio, 0f);
+        assertNotNull(actual.first);
+        assertEquals(expected.first.id, actual.first.id);
+        assertEquals(expected.items.size(), actual.items.size());
+        for (int i = 0; i < expected.items.size(); i++) {
+            assertEquals(expected.items.get(i).id, actual.items.get(i).id);
+            assertEquals(expected.items.get(i).title, actual.items.get(i).title);
+            assertEquals(expected.items.get(i).price, actual.items.get(i).price, 0d);
+            assertEquals(expected.items.get(i).enabled, actual.items.get(i).isEnabled());
+            assertEquals(expected.items.get(i).count, actual.items.get(i).count);
+        }
+    }
+}
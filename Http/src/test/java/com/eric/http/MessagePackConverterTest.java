@@ -0,0 +1,141 @@
+package com.eric.http;
+
+import com.eric.http.converter.JsonConverter;
+import com.eric.http.converter.MessagePackConverter;
+import com.eric.http.utils.HttpSerializer;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.List;
+
+import okhttp3.MediaType;
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MessagePack转换器解码与字段映射
+ */
+public class MessagePackConverterTest {
+
+    public static class Item {
+        long id;
+        String title;
+        double price;
+        boolean enabled;
+        Integer count;
+    }
+
+    public static class Model {
+        int code;
+        String message;
+        float ratio;
+        long big;
+        String missing;
+        @HttpSerializer.JSONSerializeAnnotation(actualClass = Item.class)
+        List<Item> items;
+    }
+
+    @HttpSerializer.JSONSerializeModel
+    public static class GeneratedModel {
+        int code;
+        String message;
+        JSONObject extra;
+        Object raw;
+    }
+
+    @Test
+    public void canConvert_byContentType() {
+        MessagePackConverter converter = new MessagePackConverter();
+        assertTrue(converter.canConvert(MediaType.parse("application/msgpack"), Model.class));
+        assertTrue(converter.canConvert(MediaType.parse("application/x-msgpack; charset=binary"), Model.class));
+        assertFalse(converter.canConvert(MediaType.parse("application/json"), Model.class));
+        assertFalse(converter.canConvert(null, Model.class));
+        assertTrue(new JsonConverter().canConvert(MediaType.parse("text/html"), Model.class));
+    }
+
+    @Test
+    public void convert_mapsFields() throws Exception {
+        Buffer buffer = new Buffer();
+        // fixmap 6
+        buffer.writeByte(0x86);
+        writeStr(buffer, "code");
+        buffer.writeByte(0xcc).writeByte(200);
+        writeStr(buffer, "message");
+        writeStr(buffer, "ok");
+        writeStr(buffer, "ratio");
+        buffer.writeByte(0xcb).writeLong(Double.doubleToLongBits(0.5));
+        writeStr(buffer, "big");
+        buffer.writeByte(0xd3).writeLong(1L << 40);
+        writeStr(buffer, "missing");
+        buffer.writeByte(0xc0);
+        writeStr(buffer, "items");
+        // fixarray 1, fixmap 5
+        buffer.writeByte(0x91).writeByte(0x85);
+        writeStr(buffer, "id");
+        buffer.writeByte(0x07);
+        writeStr(buffer, "title");
+        buffer.writeByte(0xd9).writeByte(3).writeUtf8("abc");
+        writeStr(buffer, "price");
+        buffer.writeByte(0xca).writeInt(Float.floatToIntBits(1.5f));
+        writeStr(buffer, "enabled");
+        buffer.writeByte(0xc3);
+        writeStr(buffer, "count");
+        buffer.writeByte(0xfd);
+
+        Model model = new MessagePackConverter().convert(Model.class, buffer);
+        assertEquals(200, model.code);
+        assertEquals("ok", model.message);
+        assertEquals(0.5f, model.ratio, 0f);
+        assertEquals(1L << 40, model.big);
+        assertNull(model.missing);
+        assertEquals(1, model.items.size());
+        Item item = model.items.get(0);
+        assertEquals(7, item.id);
+        assertEquals("abc", item.title);
+        assertEquals(1.5d, item.price, 0d);
+        assertTrue(item.enabled);
+        assertEquals(Integer.valueOf(-3), item.count);
+    }
+
+    @Test
+    public void convert_skipsUnknownSubtreesWithGeneratedAdapter() throws Exception {
+        Buffer buffer = new Buffer();
+        // fixmap 5
+        buffer.writeByte(0x85);
+        writeStr(buffer, "unknown");
+        // 未知域：嵌套的map和array整体跳过
+        buffer.writeByte(0x82);
+        writeStr(buffer, "a");
+        buffer.writeByte(0x92).writeByte(0x01).writeByte(0x81);
+        writeStr(buffer, "b");
+        buffer.writeByte(0xc2);
+        buffer.writeByte(0x01);
+        buffer.writeByte(0xc4).writeByte(2).writeByte(0).writeByte(1);
+        writeStr(buffer, "code");
+        buffer.writeByte(0xd1).writeShort(-300);
+        writeStr(buffer, "extra");
+        // map的整数键转为字符串
+        buffer.writeByte(0x81).writeByte(0x05);
+        writeStr(buffer, "five");
+        writeStr(buffer, "raw");
+        buffer.writeByte(0x92).writeByte(0xc3).writeByte(0xc0);
+        writeStr(buffer, "message");
+        writeStr(buffer, "done");
+
+        GeneratedModel model = new MessagePackConverter().convert(GeneratedModel.class, buffer);
+        assertEquals(-300, model.code);
+        assertEquals("done", model.message);
+        assertEquals("five", model.extra.getString("5"));
+        assertEquals("[true,null]", model.raw.toString());
+        assertTrue(buffer.exhausted());
+    }
+
+    private static void writeStr(Buffer buffer, String value) {
+        buffer.writeByte(0xa0 | value.length()).writeUtf8(value);
+    }
+}
@@ -0,0 +1,118 @@
+package com.eric.http.cache;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * ObjectCache：key规范化、TTL过期、按条目数和权重LRU淘汰、按前缀和tag失效
+ */
+public class ObjectCacheTest {
+    private static final String URL = "https://Api.Example.com:443/user";
+
+    @Test
+    public void key_normalizedAndSorted() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("b", "2");
+        params.put("a", null);
+        String key = ObjectCache.key(URL, params, String.class);
+        assertEquals("https://api.example.com/user?a=&b=2#java.lang.String", key);
+
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("a", "");
+        reversed.put("b", "2");
+        assertEquals(key, ObjectCache.key(URL, reversed, String.class));
+        assertNotEquals(key, ObjectCache.key(URL, reversed, Integer.class));
+        assertNull(ObjectCache.key("not a url", null, String.class));
+    }
+
+    @Test
+    public void key_nullSafeParamMaps() {
+        Map<String, String> tree = new TreeMap<>();
+        tree.put("id", "1");
+        Map<String, String> concurrent = new ConcurrentHashMap<>();
+        concurrent.put("id", "1");
+        String key = ObjectCache.key(URL, tree, String.class);
+        assertNotNull(key);
+        assertEquals(key, ObjectCache.key(URL, concurrent, String.class));
+
+        Map<String, String> nullKey = new HashMap<>();
+        nullKey.put(null, "1");
+        assertNull(ObjectCache.key(URL, nullKey, String.class));
+    }
+
+    @Test
+    public void get_expiresAfterTtl() throws Exception {
+        ObjectCache cache = new ObjectCache(10, 0);
+        cache.put("k", null, "v", null, 50);
+        assertEquals("v", cache.get("k").getValue());
+        Thread.sleep(80);
+        assertNull(cache.get("k"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5f, cache.getHitRate(), 0f);
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        ObjectCache cache = new ObjectCache(2, 0);
+        cache.put("a", null, "1", null, 60000);
+        cache.put("b", null, "2", null, 60000);
+        cache.get("a");
+        cache.put("c", null, "3", null, 60000);
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.setWeigher(new ObjectCache.Weigher() {
+            @Override
+            public int weigh(String key, Object value) {
+                return ((String) value).length();
+            }
+        });
+        cache.resize(10, 5);
+        cache.put("d", null, "abcd", null, 60000);
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        cache.put("e", null, "too long", null, 60000);
+        assertNull(cache.get("e"));
+        assertEquals(5, cache.weight());
+    }
+
+    @Test
+    public void invalidate_byPrefixAndTag() {
+        ObjectCache cache = new ObjectCache(10, 0);
+        String first = ObjectCache.key(URL, singleton("id", "1"), String.class);
+        String second = ObjectCache.key(URL, singleton("id", "2"), String.class);
+        String other = ObjectCache.key("https://api.example.com/order", null, String.class);
+        cache.put(first, "user", "1", null, 60000);
+        cache.put(second, "user", "2", null, 60000);
+        cache.put(other, "order", "3", null, 60000);
+
+        cache.invalidatePrefix(URL);
+        assertNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(other));
+
+        cache.invalidateTag("order");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    private static Map<String, String> singleton(String name, String value) {
+        Map<String, String> map = new HashMap<>();
+        map.put(name, value);
+        return map;
+    }
+}
@@ -0,0 +1,583 @@
+package com.eric.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * @author li
+ * @Package com.eric.compiler
+ * @Title: JSONAdapterProcessor
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 为标注了HttpSerializer.JSONSerializeModel的实体类生成"类名$$JSONAdapter"，
+ * 生成代码的读写规则与HttpSerializer的反射实现保持一致（父类、子类的非static域）
+ */
+public class JSONAdapterProcessor extends AbstractProcessor {
+    private static final String MODEL_ANNOTATION = "com.eric.http.utils.HttpSerializer.JSONSerializeModel";
+    private static final String LIST_ANNOTATION = "com.eric.http.utils.HttpSerializer.JSONSerializeAnnotation";
+    private static final String ADAPTER = "com.eric.http.utils.JSONAdapter";
+    private static final String READER = "com.eric.http.utils.JsonStreamReader";
+    private static final String WRITER = "com.eric.http.utils.JsonStreamWriter";
+    private static final String SUFFIX = "$$JSONAdapter";
+
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_INTEGER = 2;
+    private static final int TYPE_STRING = 3;
+    private static final int TYPE_BOOLEAN = 4;
+    private static final int TYPE_BOOLEAN_OBJECT = 5;
+    private static final int TYPE_DOUBLE = 6;
+    private static final int TYPE_DOUBLE_OBJECT = 7;
+    private static final int TYPE_FLOAT = 8;
+    private static final int TYPE_FLOAT_OBJECT = 9;
+    private static final int TYPE_LONG = 10;
+    private static final int TYPE_LONG_OBJECT = 11;
+    private static final int TYPE_LIST = 12;
+    private static final int TYPE_JSON_OBJECT = 13;
+    private static final int TYPE_JSON_ARRAY = 14;
+    private static final int TYPE_OBJECT = 15;
+    private static final int TYPE_NESTED = 16;
+    private static final int TYPE_OTHER = 0;
+
+    private Elements elements;
+    private Types types;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(MODEL_ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        TypeElement annotation = elements.getTypeElement(MODEL_ANNOTATION);
+        if (annotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@JSONSerializeModel is only allowed on classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type);
+            } catch (IOException e) {
+                error(type, "Unable to write JSONAdapter: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+            error(type, "@JSONSerializeModel class must not be abstract or private");
+            return;
+        }
+        if (type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            error(type, "@JSONSerializeModel nested class must be static");
+            return;
+        }
+        if (!hasDefaultConstructor(type)) {
+            error(type, "@JSONSerializeModel class must have a non-private no-arg constructor");
+            return;
+        }
+        PackageElement packageElement = elements.getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String adapterName = binaryName(type) + SUFFIX;
+        String modelName = type.getQualifiedName().toString();
+
+        List<FieldModel> fields = new ArrayList<>();
+        TypeMirror superType = type.getSuperclass();
+        if (superType.getKind() == TypeKind.DECLARED) {
+            collectFields((TypeElement) types.asElement(superType), type, packageElement, fields);
+        }
+        collectFields(type, type, packageElement, fields);
+        for (FieldModel field : fields) {
+            if (field.getter == null) {
+                error(field.element, "private field " + field.name + " of @JSONSerializeModel needs a getter and setter");
+                return;
+            }
+        }
+
+        StringBuilder code = new StringBuilder();
+        code.append("// Generated code from HttpCompiler. Do not modify!\n");
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        code.append("public final class ").append(adapterName).append(" extends ").append(ADAPTER).append("<")
+                .append(modelName).append("> {\n");
+
+        code.append("    @Override\n");
+        code.append("    public ").append(modelName).append(" newInstance() {\n");
+        code.append("        return new ").append(modelName).append("();\n");
+        code.append("    }\n\n");
+
+        emitFromJSON(code, modelName, fields);
+        emitFromStream(code, modelName, fields);
+        emitToJSON(code, modelName, fields);
+        emitToStream(code, modelName, fields);
+        emitToMap(code, modelName, fields);
+        code.append("}\n");
+
+        String fileName = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(fileName, type);
+        Writer writer = file.openWriter();
+        try {
+            writer.write(code.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void emitFromJSON(StringBuilder code, String modelName, List<FieldModel> fields) {
+        code.append("    @Override\n");
+        code.append("    public void fromJSON(").append(modelName).append(" object, org.json.JSONObject json) {\n");
+        for (FieldModel field : fields) {
+            if (field.type == TYPE_OTHER || field.setter == null) {
+                continue;
+            }
+            String name = field.name;
+            code.append("        if (!json.isNull(\"").append(name).append("\")) {\n");
+            String indent = "            ";
+            switch (field.type) {
+                case TYPE_INT:
+                case TYPE_INTEGER:
+                    code.append(indent).append(field.set("json.optInt(\"" + name + "\")"));
+                    break;
+                case TYPE_STRING:
+                    code.append(indent).append(field.set("json.optString(\"" + name + "\")"));
+                    break;
+                case TYPE_BOOLEAN:
+                case TYPE_BOOLEAN_OBJECT:
+                    code.append(indent).append(field.set("json.optBoolean(\"" + name + "\")"));
+                    break;
+                case TYPE_DOUBLE:
+                case TYPE_DOUBLE_OBJECT:
+                    code.append(indent).append(field.set("json.optDouble(\"" + name + "\")"));
+                    break;
+                case TYPE_FLOAT:
+                case TYPE_FLOAT_OBJECT:
+                    code.append(indent).append(field.set("(float) json.optDouble(\"" + name + "\")"));
+                    break;
+                case TYPE_LONG:
+                case TYPE_LONG_OBJECT:
+                    code.append(indent).append(field.set("json.optLong(\"" + name + "\")"));
+                    break;
+                case TYPE_LIST:
+                    if (field.elementClass == null) {
+                        code.append(indent).append(field.set("null"));
+                    } else {
+                        code.append(indent).append("java.util.List value = readList(").append(field.elementClass)
+                                .append(".class, json, \"").append(name).append("\");\n");
+                        code.append(indent).append("if (value != null) {\n");
+                        code.append(indent).append("    ").append(field.set(listValue(field)));
+                        code.append(indent).append("}\n");
+                    }
+                    break;
+                case TYPE_JSON_OBJECT:
+                case TYPE_JSON_ARRAY:
+                    String method = field.type == TYPE_JSON_OBJECT ? "optJSONObject" : "optJSONArray";
+                    code.append(indent).append(field.typeName).append(" value = json.").append(method).append("(\"")
+                            .append(name).append("\");\n");
+                    code.append(indent).append("if (value != null) {\n");
+                    code.append(indent).append("    ").append(field.set("value"));
+                    code.append(indent).append("}\n");
+                    break;
+                case TYPE_OBJECT:
+                    code.append(indent).append(field.set("readObject(" + field.get() + ", json, \"" + name + "\")"));
+                    break;
+                default:
+                    code.append(indent).append(field.typeName).append(" value = readNested(").append(field.get())
+                            .append(", ").append(field.typeName).append(".class, json, \"").append(name).append("\");\n");
+                    code.append(indent).append("if (value != null) {\n");
+                    code.append(indent).append("    ").append(field.set("value"));
+                    code.append(indent).append("}\n");
+                    break;
+            }
+            code.append("        }\n");
+        }
+        code.append("    }\n\n");
+    }
+
+    private void emitFromStream(StringBuilder code, String modelName, List<FieldModel> fields) {
+        // 同名域以子类为准，与反射流式解析一致
+        Map<String, FieldModel> byName = new LinkedHashMap<>();
+        for (FieldModel field : fields) {
+            byName.remove(field.name);
+            byName.put(field.name, field);
+        }
+        code.append("    @Override\n");
+        code.append("    public void fromStream(").append(modelName).append(" object, ").append(READER)
+                .append(" reader) throws java.io.IOException {\n");
+        code.append("        reader.beginObject();\n");
+        code.append("        while (reader.hasNext()) {\n");
+        code.append("            String name = reader.nextName();\n");
+        code.append("            if (reader.peek() == ").append(READER).append(".NULL) {\n");
+        code.append("                reader.nextNull();\n");
+        code.append("                continue;\n");
+        code.append("            }\n");
+        code.append("            switch (name) {\n");
+        String indent = "                    ";
+        for (FieldModel field : byName.values()) {
+            if (field.type == TYPE_OTHER || field.setter == null) {
+                continue;
+            }
+            code.append("                case \"").append(field.name).append("\": {\n");
+            switch (field.type) {
+                case TYPE_INT:
+                case TYPE_INTEGER:
+                    code.append(indent).append(field.set("(int) readLong(reader)"));
+                    break;
+                case TYPE_STRING:
+                    code.append(indent).append(field.set("readString(reader)"));
+                    break;
+                case TYPE_BOOLEAN:
+                case TYPE_BOOLEAN_OBJECT:
+                    code.append(indent).append(field.set("readBoolean(reader)"));
+                    break;
+                case TYPE_DOUBLE:
+                case TYPE_DOUBLE_OBJECT:
+                    code.append(indent).append(field.set("readDouble(reader)"));
+                    break;
+                case TYPE_FLOAT:
+                case TYPE_FLOAT_OBJECT:
+                    code.append(indent).append(field.set("(float) readDouble(reader)"));
+                    break;
+                case TYPE_LONG:
+                case TYPE_LONG_OBJECT:
+                    code.append(indent).append(field.set("readLong(reader)"));
+                    break;
+                case TYPE_LIST:
+                    if (field.elementClass == null) {
+                        code.append(indent).append("boolean isArray = reader.peek() == ").append(READER)
+                                .append(".BEGIN_ARRAY;\n");
+                        code.append(indent).append("reader.skipValue();\n");
+                        code.append(indent).append("if (isArray) {\n");
+                        code.append(indent).append("    ").append(field.set("null"));
+                        code.append(indent).append("}\n");
+                    } else {
+                        code.append(indent).append("java.util.List value = readList(").append(field.elementClass)
+                                .append(".class, reader);\n");
+                        code.append(indent).append("if (value != null) {\n");
+                        code.append(indent).append("    ").append(field.set(listValue(field)));
+                        code.append(indent).append("}\n");
+                    }
+                    break;
+                case TYPE_JSON_OBJECT:
+                case TYPE_JSON_ARRAY:
+                    String method = field.type == TYPE_JSON_OBJECT ? "readJSONObject" : "readJSONArray";
+                    code.append(indent).append(field.typeName).append(" value = ").append(method).append("(reader);\n");
+                    code.append(indent).append("if (value != null) {\n");
+                    code.append(indent).append("    ").append(field.set("value"));
+                    code.append(indent).append("}\n");
+                    break;
+                case TYPE_OBJECT:
+                    code.append(indent).append(field.set("readObject(" + field.get() + ", reader)"));
+                    break;
+                default:
+                    code.append(indent).append(field.typeName).append(" value = readNested(").append(field.get())
+                            .append(", ").append(field.typeName).append(".class, reader);\n");
+                    code.append(indent).append("if (value != null) {\n");
+                    code.append(indent).append("    ").append(field.set("value"));
+                    code.append(indent).append("}\n");
+                    break;
+            }
+            code.append(indent).append("break;\n");
+            code.append("                }\n");
+        }
+        code.append("                default:\n");
+        code.append("                    reader.skipValue();\n");
+        code.append("                    break;\n");
+        code.append("            }\n");
+        code.append("        }\n");
+        code.append("        reader.endObject();\n");
+        code.append("    }\n\n");
+    }
+
+    /**
+     * readList返回java.util.List，域类型为List本身时直接赋值，避免生成多余的强制转换
+     */
+    private static String listValue(FieldModel field) {
+        return "java.util.List".equals(field.typeName) ? "value" : "(" + field.typeName + ") value";
+    }
+
+    private void emitToJSON(StringBuilder code, String modelName, List<FieldModel> fields) {
+        code.append("    @Override\n");
+        code.append("    public void toJSON(").append(modelName).append(" object, org.json.JSONObject json) {\n");
+        for (FieldModel field : fields) {
+            if (field.type == TYPE_LIST) {
+                code.append("        put(json, \"").append(field.name).append("\", writeList(").append(field.get())
+                        .append("));\n");
+            } else {
+                code.append("        put(json, \"").append(field.name).append("\", ").append(field.get())
+                        .append(");\n");
+            }
+        }
+        code.append("    }\n\n");
+    }
+
+    private void emitToStream(StringBuilder code, String modelName, List<FieldModel> fields) {
+        code.append("    @Override\n");
+        code.append("    public void toStream(").append(modelName).append(" object, ").append(WRITER)
+                .append(" writer) throws java.io.IOException {\n");
+        code.append("        writer.beginObject();\n");
+        for (FieldModel field : fields) {
+            String name = field.name;
+            switch (field.type) {
+                case TYPE_INT:
+                case TYPE_LONG:
+                case TYPE_BOOLEAN:
+                    code.append("        writer.name(\"").append(name).append("\").value(").append(field.get())
+                            .append(");\n");
+                    break;
+                case TYPE_LIST:
+                    code.append("        writeList(writer, \"").append(name).append("\", ").append(field.get())
+                            .append(");\n");
+                    break;
+                default:
+                    code.append("        write(writer, \"").append(name).append("\", ").append(field.get())
+                            .append(");\n");
+                    break;
+            }
+        }
+        code.append("        writer.endObject();\n");
+        code.append("    }\n\n");
+    }
+
+    private void emitToMap(StringBuilder code, String modelName, List<FieldModel> fields) {
+        code.append("    @Override\n");
+        code.append("    public void toMap(").append(modelName).append(" object, java.util.Map<String, Object> map) {\n");
+        for (FieldModel field : fields) {
+            String name = field.name;
+            switch (field.type) {
+                case TYPE_INT:
+                case TYPE_BOOLEAN:
+                case TYPE_DOUBLE:
+                case TYPE_FLOAT:
+                case TYPE_LONG:
+                    code.append("        map.put(\"").append(name).append("\", String.valueOf(").append(field.get())
+                            .append("));\n");
+                    break;
+                case TYPE_INTEGER:
+                case TYPE_STRING:
+                case TYPE_BOOLEAN_OBJECT:
+                case TYPE_DOUBLE_OBJECT:
+                case TYPE_FLOAT_OBJECT:
+                case TYPE_LONG_OBJECT:
+                    code.append("        if (").append(field.get()).append(" != null) {\n");
+                    code.append("            map.put(\"").append(name).append("\", String.valueOf(").append(field.get())
+                            .append("));\n");
+                    code.append("        }\n");
+                    break;
+                case TYPE_LIST:
+                    code.append("        if (writeListMap(").append(field.get()).append(") != null) {\n");
+                    code.append("            map.put(\"").append(name).append("\", writeListMap(").append(field.get())
+                            .append("));\n");
+                    code.append("        }\n");
+                    break;
+                default:
+                    break;
+            }
+        }
+        code.append("    }\n");
+    }
+
+    private void collectFields(TypeElement owner, TypeElement model, PackageElement packageElement, List<FieldModel>
+            fields) {
+        for (VariableElement element : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+            if (element.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            fields.add(new FieldModel(element, model, isAccessible(element, packageElement)));
+        }
+    }
+
+    private boolean isAccessible(Element element, PackageElement packageElement) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && elements.getPackageOf(element).equals(packageElement);
+    }
+
+    private boolean hasDefaultConstructor(TypeElement type) {
+        PackageElement packageElement = elements.getPackageOf(type);
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && isAccessible(constructor, packageElement)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String binaryName(TypeElement type) {
+        String name = type.getSimpleName().toString();
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name = enclosing.getSimpleName() + "$" + name;
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * 单个域的生成信息：类型编码、访问方式（直接访问或get/set方法）
+     */
+    private class FieldModel {
+        final VariableElement element;
+        final String name;
+        final int type;
+        final String typeName;
+        final String elementClass;
+        final String getter;
+        final String setter;
+
+        FieldModel(VariableElement element, TypeElement model, boolean accessible) {
+            this.element = element;
+            this.name = element.getSimpleName().toString();
+            TypeMirror erasure = types.erasure(element.asType());
+            this.typeName = erasure.toString();
+            this.type = typeOf(erasure);
+            this.elementClass = type == TYPE_LIST ? listElementClass(element) : null;
+            boolean isFinal = element.getModifiers().contains(Modifier.FINAL);
+            if (accessible) {
+                getter = "object." + name;
+                setter = isFinal ? null : "object." + name + " = %s;\n";
+                return;
+            }
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            String get = null;
+            String set = null;
+            PackageElement packageElement = elements.getPackageOf(model);
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(model))) {
+                if (!isAccessible(method, packageElement) || method.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                String methodName = method.getSimpleName().toString();
+                int params = method.getParameters().size();
+                if (params == 0 && (methodName.equals("get" + suffix) || (methodName.equals("is" + suffix)
+                        && erasure.getKind() == TypeKind.BOOLEAN))) {
+                    get = "object." + methodName + "()";
+                } else if (params == 1 && methodName.equals("set" + suffix)) {
+                    set = "object." + methodName + "(%s);\n";
+                }
+            }
+            if (isFinal) {
+                set = null;
+            } else if (set == null) {
+                get = null;
+            }
+            getter = get;
+            setter = set;
+        }
+
+        String get() {
+            return getter;
+        }
+
+        String set(String value) {
+            return String.format(setter, value);
+        }
+
+        private int typeOf(TypeMirror erasure) {
+            switch (erasure.getKind()) {
+                case INT:
+                    return TYPE_INT;
+                case BOOLEAN:
+                    return TYPE_BOOLEAN;
+                case DOUBLE:
+                    return TYPE_DOUBLE;
+                case FLOAT:
+                    return TYPE_FLOAT;
+                case LONG:
+                    return TYPE_LONG;
+                case DECLARED:
+                    break;
+                default:
+                    return TYPE_OTHER;
+            }
+            String name = erasure.toString();
+            switch (name) {
+                case "java.lang.Integer":
+                    return TYPE_INTEGER;
+                case "java.lang.String":
+                    return TYPE_STRING;
+                case "java.lang.Boolean":
+                    return TYPE_BOOLEAN_OBJECT;
+                case "java.lang.Double":
+                    return TYPE_DOUBLE_OBJECT;
+                case "java.lang.Float":
+                    return TYPE_FLOAT_OBJECT;
+                case "java.lang.Long":
+                    return TYPE_LONG_OBJECT;
+                case "org.json.JSONObject":
+                    return TYPE_JSON_OBJECT;
+                case "org.json.JSONArray":
+                    return TYPE_JSON_ARRAY;
+                case "java.lang.Object":
+                    return TYPE_OBJECT;
+                default:
+                    break;
+            }
+            TypeMirror list = types.erasure(elements.getTypeElement("java.util.List").asType());
+            if (types.isAssignable(erasure, list)) {
+                return TYPE_LIST;
+            }
+            return TYPE_NESTED;
+        }
+
+        private String listElementClass(VariableElement element) {
+            for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+                if (!annotationType.getQualifiedName().contentEquals(LIST_ANNOTATION)) {
+                    continue;
+                }
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues()
+                        .entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("actualClass")) {
+                        return types.erasure((TypeMirror) entry.getValue().getValue()).toString();
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
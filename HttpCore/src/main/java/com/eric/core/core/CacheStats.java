@@ -0,0 +1,64 @@
+package com.eric.core.core;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: CacheStats
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 磁盘缓存命中统计，通过应用拦截器按最终响应的来源计数
+ */
+public class CacheStats implements Interceptor {
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong revalidateCount = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        if (response.cacheResponse() != null) {
+            if (response.networkResponse() != null) {
+                // 条件请求返回304，使用缓存
+                revalidateCount.incrementAndGet();
+            } else {
+                hitCount.incrementAndGet();
+            }
+        } else {
+            missCount.incrementAndGet();
+        }
+        return response;
+    }
+
+    /**
+     * 直接由缓存返回的次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 未命中缓存的次数（走网络，或离线只读缓存时缓存不存在）
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 经服务端校验（304）后使用缓存的次数
+     */
+    public long getRevalidateCount() {
+        return revalidateCount.get();
+    }
+
+    public void reset() {
+        hitCount.set(0);
+        missCount.set(0);
+        revalidateCount.set(0);
+    }
+}
@@ -0,0 +1,287 @@
+package com.eric.core.core;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Dns;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: CachingDns
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 带TTL的DNS内存缓存：过期后在staleMillis内先返回旧结果并在后台刷新，同一host的并发解析只查询一次；
+ * 可按IPv6/IPv4交替排列地址，连接失败的地址移到末尾，下次连接优先尝试其他地址族
+ */
+public class CachingDns implements Dns {
+    private final Dns delegate;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final boolean isInterleave;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FutureTask<List<InetAddress>>> inFlights = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Http Dns");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong staleHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong lookupNanos = new AtomicLong();
+
+    /**
+     * @param delegate     实际解析器，一般为Dns.SYSTEM
+     * @param ttlMillis    缓存有效期，单位毫秒
+     * @param staleMillis  过期后仍可返回旧结果（同时后台刷新）的时长，单位毫秒
+     * @param isInterleave 是否按IPv6/IPv4交替排列地址
+     */
+    public CachingDns(Dns delegate, long ttlMillis, long staleMillis, boolean isInterleave) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.staleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, staleMillis));
+        this.isInterleave = isInterleave;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        if (hostname == null) {
+            throw new UnknownHostException("hostname == null");
+        }
+        Entry entry = cache.get(hostname);
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (now < entry.expireAt) {
+                hitCount.incrementAndGet();
+                return entry.addresses;
+            }
+            if (now < entry.expireAt + staleNanos) {
+                staleHitCount.incrementAndGet();
+                refreshAsync(hostname);
+                return entry.addresses;
+            }
+        }
+        missCount.incrementAndGet();
+        return resolve(hostname);
+    }
+
+    /**
+     * 在后台预解析host，已有未过期缓存的跳过
+     *
+     * @param hostnames 主机名
+     */
+    public void prefetch(List<String> hostnames) {
+        if (hostnames == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (String hostname : hostnames) {
+            Entry entry = hostname == null ? null : cache.get(hostname);
+            if (hostname != null && (entry == null || now >= entry.expireAt)) {
+                refreshAsync(hostname);
+            }
+        }
+    }
+
+    /**
+     * 记录连接失败的地址，将其移到该host地址列表的末尾
+     *
+     * @param hostname 主机名
+     * @param address  连接失败的地址
+     */
+    public void reportFailure(String hostname, InetAddress address) {
+        Entry entry = cache.get(hostname);
+        if (entry == null || entry.addresses.size() < 2 || !entry.addresses.contains(address)) {
+            return;
+        }
+        List<InetAddress> addresses = new ArrayList<>(entry.addresses);
+        addresses.remove(address);
+        addresses.add(address);
+        cache.replace(hostname, entry, new Entry(Collections.unmodifiableList(addresses), entry.expireAt));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 未过期缓存命中次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 已过期但在stale时长内、返回旧结果并后台刷新的次数
+     */
+    public long getStaleHitCount() {
+        return staleHitCount.get();
+    }
+
+    /**
+     * 需要同步等待解析的次数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 实际解析失败次数（包括后台刷新）
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * 缓存命中率（含stale命中），没有查询时为0
+     */
+    public double getHitRate() {
+        long hits = hitCount.get() + staleHitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    /**
+     * 实际解析（包括预解析和后台刷新）的次数
+     */
+    public long getLookupCount() {
+        return lookupCount.get();
+    }
+
+    /**
+     * 实际解析的平均耗时，单位毫秒
+     */
+    public double getAverageLookupMillis() {
+        long count = lookupCount.get();
+        return count == 0 ? 0d : lookupNanos.get() / 1e6d / count;
+    }
+
+    public void reset() {
+        hitCount.set(0);
+        staleHitCount.set(0);
+        missCount.set(0);
+        failureCount.set(0);
+        lookupCount.set(0);
+        lookupNanos.set(0);
+    }
+
+    private void refreshAsync(final String hostname) {
+        if (inFlights.containsKey(hostname)) {
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    resolve(hostname);
+                } catch (UnknownHostException e) {
+                    // 保留旧结果，下次查询再试
+                }
+            }
+        });
+    }
+
+    /**
+     * 解析并写入缓存，同一host同时只有一次实际解析，其他调用方等待其结果
+     */
+    private List<InetAddress> resolve(final String hostname) throws UnknownHostException {
+        FutureTask<List<InetAddress>> task = new FutureTask<>(new Callable<List<InetAddress>>() {
+            @Override
+            public List<InetAddress> call() throws Exception {
+                long start = System.nanoTime();
+                try {
+                    List<InetAddress> addresses = order(delegate.lookup(hostname));
+                    cache.put(hostname, new Entry(addresses, System.nanoTime() + ttlNanos));
+                    return addresses;
+                } catch (UnknownHostException e) {
+                    failureCount.incrementAndGet();
+                    throw e;
+                } finally {
+                    lookupCount.incrementAndGet();
+                    lookupNanos.addAndGet(System.nanoTime() - start);
+                    inFlights.remove(hostname);
+                }
+            }
+        });
+        FutureTask<List<InetAddress>> existing = inFlights.putIfAbsent(hostname, task);
+        if (existing == null) {
+            task.run();
+        } else {
+            task = existing;
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnknownHostException("interrupted while resolving " + hostname);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnknownHostException) {
+                throw (UnknownHostException) cause;
+            }
+            UnknownHostException exception = new UnknownHostException(hostname);
+            exception.initCause(cause);
+            throw exception;
+        }
+    }
+
+    /**
+     * 按IPv6/IPv4交替排列，保留解析器返回的首个地址族在前
+     */
+    private List<InetAddress> order(List<InetAddress> addresses) {
+        if (!isInterleave || addresses.size() < 2) {
+            return Collections.unmodifiableList(new ArrayList<>(addresses));
+        }
+        List<InetAddress> first = new ArrayList<>();
+        List<InetAddress> second = new ArrayList<>();
+        boolean isFirstV6 = addresses.get(0) instanceof Inet6Address;
+        for (InetAddress address : addresses) {
+            if ((address instanceof Inet6Address) == isFirstV6) {
+                first.add(address);
+            } else {
+                second.add(address);
+            }
+        }
+        List<InetAddress> ordered = new ArrayList<>(addresses.size());
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) {
+                ordered.add(first.get(i));
+            }
+            if (i < second.size()) {
+                ordered.add(second.get(i));
+            }
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+
+    private static final class Entry {
+        final List<InetAddress> addresses;
+        final long expireAt;
+
+        Entry(List<InetAddress> addresses, long expireAt) {
+            this.addresses = addresses;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.eric.core.core;
+
+import java.io.File;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: ChunkedUploadOptions
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 分块上传（tus协议）可选项
+ */
+public class ChunkedUploadOptions {
+    /**
+     * 每个PATCH请求上传的字节数
+     */
+    private long chunkSize = 4 * 1024 * 1024;
+    /**
+     * 并行上传的分片数，大于1时使用tus concatenation扩展，每个分片单独上传后合并
+     */
+    private int parallelism = 1;
+    /**
+     * 上传日志目录，记录各分片的上传地址用于续传；为null时使用context.getCacheDir()/tus
+     */
+    private File journalDir;
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public File getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(File journalDir) {
+        this.journalDir = journalDir;
+    }
+}
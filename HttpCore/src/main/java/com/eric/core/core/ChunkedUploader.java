@@ -0,0 +1,556 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.UploadListener;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: ChunkedUploader
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 分块续传上传（tus 1.0.0）：POST创建上传地址，按块PATCH并携带Upload-Offset，每块确认后将上传地址和偏移记录到日志；
+ * 再次上传同一文件时以HEAD查询的服务端已确认偏移为准，从最后确认的块继续。并行上传时文件拆成多个partial上传，
+ * 全部完成后用Upload-Concat: final合并
+ */
+class ChunkedUploader extends CallHandle {
+    static final String TUS_VERSION = "1.0.0";
+
+    private static final MediaType OFFSET_OCTET_STREAM = MediaType.parse("application/offset+octet-stream");
+
+    private static final int STAGE_CREATE = 0;
+    private static final int STAGE_HEAD = 1;
+    private static final int STAGE_PATCH = 2;
+
+    private static final String KEY_URL = "url";
+    private static final String KEY_PATH = "path";
+    private static final String KEY_LENGTH = "length";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_PARTS = "parts";
+    private static final String KEY_LOCATION = "location.";
+    private static final String KEY_OFFSET = "offset.";
+
+    private final OkHttpClient client;
+    private final PriorityScheduler scheduler;
+    private final HttpUrl url;
+    private final Map<String, String> headers;
+    private final Object tag;
+    private final File file;
+    private final String fileName;
+    private final long chunkSize;
+    private final int parallelism;
+    private final File journal;
+    private final ProgressThrottle throttle;
+    private final UploadListener<String> listener;
+
+    /**
+     * 未完成的请求，完成后移除
+     */
+    private final List<Call> calls = new ArrayList<>();
+    private boolean executed;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final AtomicLong uploaded = new AtomicLong();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile boolean canceled;
+    private Part[] parts;
+
+    /**
+     * @param client     OkHttpClient
+     * @param scheduler  优先级调度
+     * @param url        tus创建上传的地址
+     * @param headers    每个请求都携带的请求头（如鉴权）
+     * @param tag        业务请求编码
+     * @param entity     上传的文件
+     * @param options    分块上传可选项
+     * @param journalDir 上传日志目录，为null时不持久化
+     * @param throttle   进度回调节流
+     * @param listener   回调监听，成功时返回最终的上传地址
+     */
+    ChunkedUploader(OkHttpClient client, PriorityScheduler scheduler, HttpUrl url, Map<String, String> headers, Object tag,
+                    FileEntity entity, ChunkedUploadOptions options, File journalDir, ProgressThrottle throttle,
+                    UploadListener<String> listener) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.url = url;
+        this.headers = headers;
+        this.tag = tag;
+        this.file = entity.getFile();
+        this.fileName = entity.getFileName();
+        this.chunkSize = options.getChunkSize() > 0 ? options.getChunkSize() : new ChunkedUploadOptions().getChunkSize();
+        this.parallelism = options.getParallelism() < 1 ? 1 : options.getParallelism();
+        this.journal = journalDir == null ? null : new File(journalDir, ByteString.encodeUtf8(url + "\n" + file
+                .getAbsolutePath()).md5().hex() + ".upload");
+        this.throttle = throttle;
+        this.listener = listener;
+    }
+
+    void start() {
+        long length = file.length();
+        int count = (int) Math.max(1, Math.min(parallelism, length / chunkSize));
+        String[] locations = loadJournal(length, count);
+        parts = new Part[count];
+        long size = length / count;
+        for (int i = 0; i < count; i++) {
+            long start = i * size;
+            long partLength = i == count - 1 ? length - start : size;
+            parts[i] = new Part(i, start, partLength, locations[i]);
+        }
+        remaining.set(count);
+        for (Part part : parts) {
+            part.begin();
+        }
+    }
+
+    /**
+     * 单个分片：依次经过创建、查询偏移、逐块PATCH
+     */
+    private class Part implements Callback {
+        final int index;
+        final long start;
+        final long length;
+        /**
+         * 上传地址和已确认偏移，由saveJournal在其他线程读取，写入时持有ChunkedUploader的锁
+         */
+        String location;
+        long offset;
+        int stage;
+        /**
+         * 当前块已写出但未确认的字节数
+         */
+        final AtomicLong sending = new AtomicLong();
+
+        Part(int index, long start, long length, String location) {
+            this.index = index;
+            this.start = start;
+            this.length = length;
+            this.location = location;
+        }
+
+        void moveTo(String location, long offset) {
+            synchronized (ChunkedUploader.this) {
+                this.location = location;
+                this.offset = offset;
+            }
+        }
+
+        void begin() {
+            if (location == null) {
+                create();
+            } else {
+                stage = STAGE_HEAD;
+                enqueue(newRequest(HttpUrl.parse(location)).head().build(), this);
+            }
+        }
+
+        void create() {
+            stage = STAGE_CREATE;
+            Request.Builder builder = newRequest(url).header("Upload-Length", String.valueOf(length)).post(RequestBody
+                    .create(null, new byte[0]));
+            if (fileName != null) {
+                builder.header("Upload-Metadata", "filename " + ByteString.encodeUtf8(fileName).base64());
+            }
+            if (parts.length > 1) {
+                builder.header("Upload-Concat", "partial");
+            }
+            enqueue(builder.build(), this);
+        }
+
+        void next() {
+            if (offset >= length) {
+                if (remaining.decrementAndGet() == 0) {
+                    complete();
+                }
+                return;
+            }
+            stage = STAGE_PATCH;
+            sending.set(0);
+            long count = Math.min(chunkSize, length - offset);
+            enqueue(newRequest(HttpUrl.parse(location)).header("Upload-Offset", String.valueOf(offset)).patch(new
+                    ChunkBody(start + offset, count, sending)).build(), this);
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            fail(e);
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            try {
+                if (stage == STAGE_CREATE) {
+                    String header = response.header("Location");
+                    HttpUrl created = header == null ? null : url.resolve(header);
+                    if (response.code() != 201 || created == null) {
+                        failWithData(response);
+                        return;
+                    }
+                    moveTo(created.toString(), 0);
+                    saveJournal();
+                    next();
+                } else if (stage == STAGE_HEAD) {
+                    if (response.code() == 404 || response.code() == 410) {
+                        // 服务端已丢弃该上传，重新创建
+                        moveTo(null, 0);
+                        create();
+                        return;
+                    }
+                    long confirmed = parseOffset(response);
+                    if (!response.isSuccessful() || confirmed < 0) {
+                        failWithData(response);
+                        return;
+                    }
+                    moveTo(location, confirmed);
+                    uploaded.addAndGet(confirmed);
+                    next();
+                } else {
+                    long confirmed = parseOffset(response);
+                    if (response.code() == 409) {
+                        // 偏移与服务端不一致，重新查询后继续
+                        uploaded.addAndGet(-sending.getAndSet(0) - offset);
+                        stage = STAGE_HEAD;
+                        enqueue(newRequest(HttpUrl.parse(location)).head().build(), this);
+                        return;
+                    }
+                    if (!response.isSuccessful() || confirmed < offset) {
+                        failWithData(response);
+                        return;
+                    }
+                    uploaded.addAndGet(confirmed - offset - sending.getAndSet(0));
+                    moveTo(location, confirmed);
+                    saveJournal();
+                    next();
+                }
+            } finally {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * 文件中指定区间的请求体，写出时累计进度
+     */
+    private class ChunkBody extends RequestBody {
+        private final long position;
+        private final long count;
+        private final AtomicLong sending;
+
+        ChunkBody(long position, long count, AtomicLong sending) {
+            this.position = position;
+            this.count = count;
+            this.sending = sending;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return OFFSET_OCTET_STREAM;
+        }
+
+        @Override
+        public long contentLength() {
+            return count;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            // 重试时会再次写出，先撤销上次已计入的进度
+            uploaded.addAndGet(-sending.getAndSet(0));
+            FileInputStream in = new FileInputStream(file);
+            try {
+                in.getChannel().position(position);
+                Source source = Okio.source(in);
+                long written = 0;
+                while (written < count) {
+                    long n = source.read(sink.buffer(), Math.min(DownloadWriter.DEFAULT_CHUNK_SIZE, count - written));
+                    if (n == -1) {
+                        throw new IOException("file changed during upload: " + file);
+                    }
+                    sink.emitCompleteSegments();
+                    written += n;
+                    sending.addAndGet(n);
+                    progress(uploaded.addAndGet(n), false);
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    private void complete() {
+        if (parts.length == 1) {
+            succeed(200, parts[0].location, null);
+            return;
+        }
+        StringBuilder concat = new StringBuilder("final;");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                concat.append(' ');
+            }
+            concat.append(HttpUrl.parse(parts[i].location).encodedPath());
+        }
+        enqueue(newRequest(url).header("Upload-Concat", concat.toString()).post(RequestBody.create(null, new
+                byte[0])).build(), new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                fail(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    String header = response.header("Location");
+                    HttpUrl created = header == null ? null : url.resolve(header);
+                    if (response.code() != 201 || created == null) {
+                        failWithData(response);
+                        return;
+                    }
+                    succeed(response.code(), created.toString(), response);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    private void succeed(int httpCode, String location, Response response) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        if (journal != null) {
+            journal.delete();
+        }
+        if (listener != null) {
+            long length = file.length();
+            if (throttle == null || throttle.shouldReport(length, true)) {
+                listener.onProgress(length, length, true);
+            }
+            listener.onSuccess(tag, httpCode, location, response == null ? null : response.headers());
+        }
+    }
+
+    private void progress(long bytes, boolean isDone) {
+        if (listener != null && !finished.get() && (throttle == null || throttle.shouldReport(bytes, isDone))) {
+            listener.onProgress(bytes, file.length(), isDone);
+        }
+    }
+
+    private Request.Builder newRequest(HttpUrl target) {
+        Request.Builder builder = new Request.Builder().url(target).tag(tag).header("Tus-Resumable", TUS_VERSION);
+        if (headers != null) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                builder.header(entry.getKey(), entry.getValue() == null ? "" : entry.getValue());
+            }
+        }
+        return builder;
+    }
+
+    private void enqueue(Request request, final Callback callback) {
+        Call call = client.newCall(request);
+        synchronized (calls) {
+            if (!canceled) {
+                calls.add(call);
+                scheduler.enqueue(call, RequestOptions.PRIORITY_BACKGROUND, new Callback() {
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        remove(call);
+                        callback.onFailure(call, e);
+                    }
+
+                    @Override
+                    public void onResponse(Call call, Response response) throws IOException {
+                        remove(call);
+                        callback.onResponse(call, response);
+                    }
+                });
+                return;
+            }
+        }
+        fail(new IOException("Canceled"));
+    }
+
+    private void remove(Call call) {
+        synchronized (calls) {
+            executed |= call.isExecuted();
+            calls.remove(call);
+        }
+    }
+
+    private static long parseOffset(Response response) {
+        String value = response.header("Upload-Offset");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 读取日志中各分片的上传地址，文件或分片数变化时丢弃
+     */
+    private String[] loadJournal(long length, int count) {
+        String[] locations = new String[count];
+        if (journal == null || !journal.exists()) {
+            return locations;
+        }
+        Properties properties = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(journal);
+            properties.load(in);
+            if (url.toString().equals(properties.getProperty(KEY_URL)) && file.getAbsolutePath().equals(properties
+                    .getProperty(KEY_PATH)) && String.valueOf(length).equals(properties.getProperty(KEY_LENGTH)) &&
+                    String.valueOf(file.lastModified()).equals(properties.getProperty(KEY_LAST_MODIFIED)) && String
+                    .valueOf(count).equals(properties.getProperty(KEY_PARTS))) {
+                for (int i = 0; i < count; i++) {
+                    locations[i] = properties.getProperty(KEY_LOCATION + i);
+                }
+            }
+        } catch (IOException e) {
+            // 日志损坏时重新上传
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        return locations;
+    }
+
+    private void saveJournal() {
+        if (journal == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(KEY_URL, url.toString());
+        properties.setProperty(KEY_PATH, file.getAbsolutePath());
+        properties.setProperty(KEY_LENGTH, String.valueOf(file.length()));
+        properties.setProperty(KEY_LAST_MODIFIED, String.valueOf(file.lastModified()));
+        properties.setProperty(KEY_PARTS, String.valueOf(parts.length));
+        synchronized (this) {
+            for (Part part : parts) {
+                if (part.location != null) {
+                    properties.setProperty(KEY_LOCATION + part.index, part.location);
+                    properties.setProperty(KEY_OFFSET + part.index, String.valueOf(part.offset));
+                }
+            }
+            journal.getParentFile().mkdirs();
+            File tmp = new File(journal.getPath() + ".tmp");
+            OutputStream out = null;
+            try {
+                out = new FileOutputStream(tmp);
+                properties.store(out, null);
+                out.close();
+                out = null;
+                if (!tmp.renameTo(journal)) {
+                    tmp.delete();
+                }
+            } catch (IOException e) {
+                // 日志写入失败只影响续传
+                tmp.delete();
+            } finally {
+                if (out != null) {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+    }
+
+    private void fail(Exception e) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        cancelCalls();
+        if (listener != null) {
+            listener.onFailure(tag, e);
+        }
+    }
+
+    private void failWithData(Response response) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        cancelCalls();
+        String data;
+        try {
+            data = response.body().string();
+        } catch (IOException e) {
+            data = null;
+        }
+        if (listener != null) {
+            listener.onData(tag, response.code(), data);
+        }
+    }
+
+    private void cancelCalls() {
+        List<Call> list;
+        synchronized (calls) {
+            list = new ArrayList<>(calls);
+        }
+        for (Call call : list) {
+            call.cancel();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (calls) {
+            canceled = true;
+        }
+        cancelCalls();
+    }
+
+    @Override
+    public boolean isExecuted() {
+        synchronized (calls) {
+            if (executed) {
+                return true;
+            }
+            for (Call call : calls) {
+                if (call.isExecuted()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+}
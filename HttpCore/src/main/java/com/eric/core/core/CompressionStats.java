@@ -0,0 +1,82 @@
+package com.eric.core.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: CompressionStats
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 请求体压缩统计：压缩前后字节数、压缩耗费的线程CPU时间以及因阈值跳过的次数
+ */
+public class CompressionStats {
+    private final AtomicLong compressedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong cpuTimeNanos = new AtomicLong();
+
+    /**
+     * 记录一次压缩
+     *
+     * @param raw          压缩前字节数
+     * @param compressed   压缩后字节数
+     * @param cpuTimeNanos 压缩线程CPU时间，单位纳秒
+     */
+    public void recordCompressed(long raw, long compressed, long cpuTimeNanos) {
+        compressedCount.incrementAndGet();
+        rawBytes.addAndGet(raw);
+        compressedBytes.addAndGet(compressed);
+        this.cpuTimeNanos.addAndGet(cpuTimeNanos);
+    }
+
+    /**
+     * 记录一次未压缩（体积过小、类型不可压缩或压缩后没有变小）
+     */
+    public void recordSkipped() {
+        skippedCount.incrementAndGet();
+    }
+
+    /**
+     * 压缩发送的请求数
+     */
+    public long getCompressedCount() {
+        return compressedCount.get();
+    }
+
+    /**
+     * 要求压缩但按原样发送的请求数
+     */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getRawBytes() {
+        return rawBytes.get();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos.get();
+    }
+
+    /**
+     * 压缩率（压缩后/压缩前），没有压缩过的请求时为1
+     */
+    public double getRatio() {
+        long raw = rawBytes.get();
+        return raw == 0 ? 1d : (double) compressedBytes.get() / raw;
+    }
+
+    public void reset() {
+        compressedCount.set(0);
+        skippedCount.set(0);
+        rawBytes.set(0);
+        compressedBytes.set(0);
+        cpuTimeNanos.set(0);
+    }
+}
@@ -0,0 +1,129 @@
+package com.eric.core.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okio.ByteString;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: DownloadDigest
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载文件校验：写文件时同步计算摘要，下载结束即校验，不再重新读一遍文件；
+ * 期望值可直接指定，也可从响应头读取，支持十六进制和Base64，以及"sha-256=..."形式的Digest响应头
+ */
+public class DownloadDigest {
+    public static final String MD5 = "MD5";
+    public static final String SHA_1 = "SHA-1";
+    public static final String SHA_256 = "SHA-256";
+
+    /**
+     * 摘要算法，MessageDigest支持的名称
+     */
+    private String algorithm = SHA_256;
+    /**
+     * 期望的摘要值，十六进制或Base64
+     */
+    private String expected;
+    /**
+     * 未指定期望值时从该响应头读取，响应中没有该头时不校验
+     */
+    private String header;
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getExpected() {
+        return expected;
+    }
+
+    public void setExpected(String expected) {
+        this.expected = expected;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    /**
+     * 创建摘要计算器
+     *
+     * @throws NoSuchAlgorithmException 不支持的算法
+     */
+    MessageDigest newMessageDigest() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(algorithm);
+    }
+
+    /**
+     * 断点续传时先计算文件中已有部分的摘要
+     *
+     * @param digest 摘要计算器
+     * @param file   目标文件
+     * @param length 已有部分的长度
+     */
+    static void updatePrefix(MessageDigest digest, File file, long length) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(DownloadWriter.DEFAULT_CHUNK_SIZE);
+            long position = 0;
+            while (position < length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    throw new IOException("file shorter than resume offset " + length);
+                }
+                buffer.flip();
+                digest.update(buffer);
+                position += n;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * 校验摘要
+     *
+     * @param digest         已计算完成的摘要
+     * @param headerExpected 响应头中的期望值，可为null
+     * @return 不一致时返回错误信息，一致或没有期望值时返回null
+     */
+    String verify(MessageDigest digest, String headerExpected) {
+        String value = expected != null ? expected : headerExpected;
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        int eq = value.indexOf('=');
+        if (eq > 0 && eq < value.length() - 1 && value.substring(0, eq).equalsIgnoreCase(algorithm)) {
+            // Digest: sha-256=<base64>
+            value = value.substring(eq + 1);
+        }
+        ByteString actual = ByteString.of(digest.digest());
+        if (value.equalsIgnoreCase(actual.hex()) || value.equals(actual.base64())) {
+            return null;
+        }
+        return algorithm + " mismatch, expected " + value + " but was " + actual.hex();
+    }
+}
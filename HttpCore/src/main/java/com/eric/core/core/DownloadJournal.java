@@ -0,0 +1,211 @@
+package com.eric.core.core;
+
+import android.os.SystemClock;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: DownloadJournal
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 断点续传日志，与目标文件同目录的"目标文件名.journal"，记录URL、ETag/Last-Modified、文件总长度和已提交偏移；
+ * 续传时用其中的校验值发送If-Range，服务端文件已变化时返回200并从头下载
+ */
+public class DownloadJournal {
+    /**
+     * 日志文件后缀
+     */
+    public static final String SUFFIX = ".journal";
+
+    /**
+     * 下载过程中提交偏移的最小间隔，单位毫秒
+     */
+    private static final long COMMIT_INTERVAL = 1000;
+
+    private static final String KEY_URL = "url";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_LENGTH = "length";
+    private static final String KEY_OFFSET = "offset";
+
+    private final File file;
+    private String url;
+    private String etag;
+    private String lastModified;
+    private long length = -1;
+    private long offset;
+
+    public DownloadJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 目标文件对应的日志
+     *
+     * @param dest 下载目标文件
+     * @return 日志
+     */
+    public static DownloadJournal forFile(File dest) {
+        return new DownloadJournal(new File(dest.getPath() + SUFFIX));
+    }
+
+    /**
+     * 读取日志
+     *
+     * @return 日志不存在或内容损坏时返回false
+     */
+    public boolean load() {
+        if (!file.exists()) {
+            return false;
+        }
+        Properties properties = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            properties.load(in);
+            url = properties.getProperty(KEY_URL);
+            etag = properties.getProperty(KEY_ETAG);
+            lastModified = properties.getProperty(KEY_LAST_MODIFIED);
+            length = Long.parseLong(properties.getProperty(KEY_LENGTH, "-1"));
+            offset = Long.parseLong(properties.getProperty(KEY_OFFSET, "0"));
+            return url != null;
+        } catch (IOException | NumberFormatException e) {
+            return false;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * 写入日志，先写临时文件再重命名，进程被杀时不会留下半个日志
+     *
+     * @throws IOException 写入异常
+     */
+    public void save() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_URL, url == null ? "" : url);
+        if (etag != null) {
+            properties.setProperty(KEY_ETAG, etag);
+        }
+        if (lastModified != null) {
+            properties.setProperty(KEY_LAST_MODIFIED, lastModified);
+        }
+        properties.setProperty(KEY_LENGTH, String.valueOf(length));
+        properties.setProperty(KEY_OFFSET, String.valueOf(offset));
+        File tmp = new File(file.getPath() + ".tmp");
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            properties.store(out, null);
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("rename journal failed: " + file);
+        }
+    }
+
+    /**
+     * 删除日志
+     */
+    public void delete() {
+        file.delete();
+    }
+
+    /**
+     * If-Range请求头的值，优先使用强ETag（弱ETag不能用于If-Range），其次Last-Modified
+     *
+     * @return 没有可用的校验值时返回null
+     */
+    public String ifRange() {
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return lastModified;
+    }
+
+    /**
+     * 下载过程中按时间间隔提交已写入偏移
+     *
+     * @param position 本次写入的起始偏移
+     * @return 写入进度回调
+     */
+    DownloadWriter.Listener committer(final long position) {
+        offset = position;
+        return new DownloadWriter.Listener() {
+            private long lastCommit = SystemClock.elapsedRealtime();
+
+            @Override
+            public void onWrite(long bytes) {
+                offset += bytes;
+                long now = SystemClock.elapsedRealtime();
+                if (now - lastCommit >= COMMIT_INTERVAL) {
+                    lastCommit = now;
+                    try {
+                        save();
+                    } catch (IOException e) {
+                        // 提交失败不影响下载，续传时以文件实际长度为准
+                    }
+                }
+            }
+        };
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+}
@@ -0,0 +1,112 @@
+package com.eric.core.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: DownloadWriter
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载写文件：在Okio缓冲区中攒够一个块后，经每个线程复用的直接内存ByteBuffer按位置写入FileChannel，
+ * 每个块只有一次系统调用，进度按内存中的计数回调，不再查询文件长度
+ */
+final class DownloadWriter {
+    /**
+     * 默认块大小
+     */
+    static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+
+    /**
+     * 写入进度回调，每写完一个块回调一次
+     */
+    interface Listener {
+        void onWrite(long bytes);
+    }
+
+    /**
+     * 每个下载线程（OkHttp Dispatcher线程或分段下载线程）复用一个直接内存块，容量不足时才重新分配
+     */
+    private static final ThreadLocal<ByteBuffer> CHUNKS = new ThreadLocal<>();
+
+    private DownloadWriter() {
+    }
+
+    /**
+     * 将响应体写入文件通道
+     *
+     * @param source    响应体
+     * @param channel   目标文件通道
+     * @param position  写入起始位置
+     * @param length    期望写入的字节数，-1表示读到结束
+     * @param chunkSize 块大小，<=0时使用默认值
+     * @param listener  进度回调，可为null
+     * @return 实际写入的字节数
+     * @throws IOException 读写异常
+     */
+    static long write(BufferedSource source, FileChannel channel, long position, long length, int chunkSize, Listener
+            listener) throws IOException {
+        return write(source, channel, position, length, chunkSize, listener, null);
+    }
+
+    /**
+     * 将响应体写入文件通道，同时计算写入内容的摘要
+     *
+     * @param source    响应体
+     * @param channel   目标文件通道
+     * @param position  写入起始位置
+     * @param length    期望写入的字节数，-1表示读到结束
+     * @param chunkSize 块大小，<=0时使用默认值
+     * @param listener  进度回调，可为null
+     * @param digest    摘要计算器，可为null
+     * @return 实际写入的字节数
+     * @throws IOException 读写异常
+     */
+    static long write(BufferedSource source, FileChannel channel, long position, long length, int chunkSize, Listener
+            listener, MessageDigest digest) throws IOException {
+        if (chunkSize <= 0) {
+            chunkSize = DEFAULT_CHUNK_SIZE;
+        }
+        ByteBuffer chunk = CHUNKS.get();
+        if (chunk == null || chunk.capacity() < chunkSize) {
+            chunk = ByteBuffer.allocateDirect(chunkSize);
+            CHUNKS.set(chunk);
+        }
+        Buffer buffer = source.buffer();
+        long written = 0;
+        while (length < 0 || written < length) {
+            long want = length < 0 ? chunkSize : Math.min(chunkSize, length - written);
+            boolean exhausted = !source.request(want);
+            int count = (int) Math.min(buffer.size(), want);
+            if (count == 0) {
+                break;
+            }
+            chunk.clear();
+            chunk.limit(count);
+            while (chunk.hasRemaining()) {
+                buffer.read(chunk);
+            }
+            chunk.flip();
+            if (digest != null) {
+                digest.update(chunk.duplicate());
+            }
+            while (chunk.hasRemaining()) {
+                position += channel.write(chunk, position);
+            }
+            written += count;
+            if (listener != null) {
+                listener.onWrite(count);
+            }
+            if (exhausted) {
+                break;
+            }
+        }
+        return written;
+    }
+}
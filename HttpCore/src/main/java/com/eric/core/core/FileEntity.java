@@ -1,6 +1,11 @@
 package com.eric.core.core;
 
 import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
 
 /**
  * @author li
@@ -8,15 +13,41 @@ import java.io.File;
  * @Title: FileEntity
  * @Description: Copyright (c)
  * Create DateTime: 2017/10/25
- * 文件实体
+ * 文件实体，数据来源可以是整个文件、文件的一段、内存中的ByteBuffer或输入流（四选一，后设置的覆盖先设置的）
  */
 public class FileEntity {
+    private static final MediaType DEFAULT_CONTENT_TYPE = MediaType.parse("application/octet-stream");
+
     private String name;
 
     private String fileName;
 
     private File file;
 
+    /**
+     * 文件段起始位置，仅在file不为null时有效
+     */
+    private long offset;
+
+    /**
+     * 文件段长度，-1表示到文件末尾
+     */
+    private long length = -1;
+
+    private ByteBuffer buffer;
+
+    private InputStream stream;
+
+    /**
+     * 输入流长度，-1表示未知（按chunked方式传输）
+     */
+    private long streamLength = -1;
+
+    /**
+     * 该部分的Content-Type，为空时使用application/octet-stream
+     */
+    private String contentType;
+
     public String getName() {
         return name;
     }
@@ -38,6 +69,108 @@ public class FileEntity {
     }
 
     public void setFile(File file) {
+        setFileRange(file, 0, -1);
+    }
+
+    /**
+     * 上传文件中的一段，通过FileChannel直接写入请求体，无需先拷贝到临时文件
+     *
+     * @param file   文件
+     * @param offset 起始位置
+     * @param length 长度，-1表示到文件末尾
+     */
+    public void setFileRange(File file, long offset, long length) {
+        if (offset < 0 || length < -1) {
+            throw new IllegalArgumentException("offset or length is illegal");
+        }
+        clearSource();
         this.file = file;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * 上传内存中的数据，写入position到limit之间的内容，不修改buffer的position
+     *
+     * @param buffer 数据
+     */
+    public void setBuffer(ByteBuffer buffer) {
+        clearSource();
+        this.buffer = buffer;
+    }
+
+    public InputStream getStream() {
+        return stream;
+    }
+
+    public long getStreamLength() {
+        return streamLength;
+    }
+
+    /**
+     * 上传输入流，请求体写入时读取并在结束后关闭该流；流只能读取一次，因此不会被重试
+     *
+     * @param stream 输入流
+     * @param length 长度，-1表示未知
+     */
+    public void setStream(InputStream stream, long length) {
+        clearSource();
+        this.stream = stream;
+        this.streamLength = length;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * 是否设置了数据来源
+     */
+    public boolean hasSource() {
+        return file != null || buffer != null || stream != null;
+    }
+
+    /**
+     * 根据数据来源创建请求体
+     *
+     * @return 请求体
+     */
+    RequestBody newRequestBody() {
+        MediaType mediaType = contentType == null ? null : MediaType.parse(contentType);
+        if (mediaType == null) {
+            mediaType = DEFAULT_CONTENT_TYPE;
+        }
+        if (buffer != null) {
+            return SourceRequestBody.create(mediaType, buffer);
+        }
+        if (stream != null) {
+            return SourceRequestBody.create(mediaType, stream, streamLength);
+        }
+        return SourceRequestBody.create(mediaType, file, offset, length);
+    }
+
+    private void clearSource() {
+        file = null;
+        offset = 0;
+        length = -1;
+        buffer = null;
+        stream = null;
+        streamLength = -1;
     }
 }
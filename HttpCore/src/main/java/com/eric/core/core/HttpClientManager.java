@@ -1,34 +1,49 @@
 package com.eric.core.core;
 
 import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
 import android.text.TextUtils;
 
 import com.eric.core.listener.DownLoadListener;
 import com.eric.core.listener.UploadListener;
 import com.eric.core.listener.WebCallbackListener;
-import com.eric.core.lnterceptor.LoggerInterceptor;
+import com.eric.core.lnterceptor.GZipInterceptor;
+import com.eric.core.lnterceptor.ProgressInterceptor;
+import com.eric.core.lnterceptor.StructuredLoggerInterceptor;
 
-import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
+import okhttp3.CacheControl;
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.ConnectionPool;
 import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * @author li
@@ -47,8 +62,41 @@ public class HttpClientManager {
 
     private static final MediaType FORM_URLENCODED = MediaType.parse("application/x-www-form-urlencoded;charset=UTF-8");
 
+    private static final ResponseParser<String> STRING_PARSER = new ResponseParser<String>() {
+        @Override
+        public String parse(ResponseBody body) throws Exception {
+            return body.string();
+        }
+    };
+
     private boolean isKeepConnection;
 
+    private Map<String, Boolean> hostKeepConnection = Collections.emptyMap();
+
+    private int downloadChunkSize = DownloadWriter.DEFAULT_CHUNK_SIZE;
+
+    private long progressMinBytes;
+
+    private long progressIntervalMillis;
+
+    private String compressEncoding = GZipInterceptor.ENCODING_GZIP;
+
+    private final CacheStats cacheStats = new CacheStats();
+
+    private final CompressionStats compressionStats = new CompressionStats();
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    private PriorityScheduler scheduler;
+
+    private Preconnector preconnector;
+
+    private StructuredLoggerInterceptor logger;
+
+    private CachingDns dns;
+
+    private RequestMetrics requestMetrics = new RequestMetrics(0);
+
     private HttpClientManager() {
 
     }
@@ -66,16 +114,132 @@ public class HttpClientManager {
 
     public void init(Context context, boolean isDebug, long connectTimeout, long soTimeout, boolean isRetry, boolean
             isKeepConnection) {
+        HttpConfig config = new HttpConfig();
+        config.setDebug(isDebug);
+        config.setConnectTimeout(connectTimeout);
+        config.setSoTimeout(soTimeout);
+        config.setRetry(isRetry);
+        config.setKeepConnection(isKeepConnection);
+        init(context, config);
+    }
+
+    /**
+     * 初始化HttpClientManager
+     *
+     * @param context 上下文
+     * @param config  初始化配置
+     */
+    public void init(Context context, HttpConfig config) {
         this.context = context;
-        this.isKeepConnection = isKeepConnection;
-        OkHttpClient.Builder builder = new OkHttpClient.Builder().connectTimeout(connectTimeout, TimeUnit.SECONDS).writeTimeout
-                (soTimeout, TimeUnit.SECONDS).readTimeout(soTimeout, TimeUnit.SECONDS).retryOnConnectionFailure(isRetry);
+        this.isKeepConnection = config.isKeepConnection();
+        this.hostKeepConnection = new HashMap<>(config.getHostKeepConnection());
+        this.downloadChunkSize = config.getDownloadChunkSize();
+        this.progressMinBytes = config.getProgressMinBytes();
+        this.progressIntervalMillis = config.getProgressIntervalMillis();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder().connectTimeout(config.getConnectTimeout(), TimeUnit
+                .SECONDS).writeTimeout(config.getSoTimeout(), TimeUnit.SECONDS).readTimeout(config.getSoTimeout(), TimeUnit
+                .SECONDS).retryOnConnectionFailure(config.isRetry()).connectionPool(new ConnectionPool(config
+                .getMaxIdleConnections(), config.getKeepAliveDuration(), TimeUnit.SECONDS));
+        switch (config.getProtocol()) {
+            case HttpConfig.PROTOCOL_HTTP_1_1:
+                builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+                break;
+            case HttpConfig.PROTOCOL_H2_PRIOR_KNOWLEDGE:
+                builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+                break;
+            default:
+                builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+                break;
+        }
 
-//        builder.addInterceptor(new GZipInterceptor());
-        if (isDebug) {
-            builder.addInterceptor(new LoggerInterceptor());
+        if (config.getDnsCacheTtlMillis() > 0) {
+            dns = new CachingDns(Dns.SYSTEM, config.getDnsCacheTtlMillis(), config.getDnsStaleMillis(), config
+                    .isDnsInterleave());
+            builder.dns(dns);
+            dns.prefetch(config.getDnsPrefetchHosts());
+        } else {
+            dns = null;
+        }
+
+        requestMetrics = new RequestMetrics(config.getMetricsMaxKeys());
+        builder.eventListenerFactory(MetricsEventListener.factory(requestMetrics, dns));
+
+        if (preconnector != null) {
+            preconnector.stop();
+        }
+        preconnector = new Preconnector(config.getPreconnectUrls(), config.getPreconnectIntervalMillis(), config
+                .getPreconnectBudgetMillis());
+        builder.addInterceptor(preconnector);
+        this.compressEncoding = config.getCompressEncoding();
+        builder.addInterceptor(new GZipInterceptor(config.getCompressMinSize(), config.getCompressMaxBufferSize(), config
+                .getCompressLevel(), compressionStats));
+        builder.addInterceptor(new ProgressInterceptor(progressMinBytes, progressIntervalMillis));
+        if (config.getCacheMaxSize() > 0) {
+            File cacheDir = config.getCacheDir();
+            if (cacheDir == null) {
+                cacheDir = new File(context.getCacheDir(), "http");
+            }
+            builder.cache(new Cache(cacheDir, config.getCacheMaxSize()));
+            builder.addInterceptor(cacheStats);
+        }
+        if (logger != null) {
+            logger.shutdown();
+            logger = null;
+        }
+        if (config.isDebug()) {
+            logger = new StructuredLoggerInterceptor(config.getLogLevel(), config.getLogSampleRate(), config
+                    .getLogBodyMaxBytes(), config.getLogBufferSize(), StructuredLoggerInterceptor.LOGCAT);
+            builder.addInterceptor(logger);
         }
         mOkHttpClient = builder.build();
+        mOkHttpClient.dispatcher().setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+        scheduler = new PriorityScheduler(mOkHttpClient.dispatcher());
+        preconnector.start(mOkHttpClient);
+    }
+
+    /**
+     * 优先级调度器，可读取各优先级的排队深度和等待时长
+     *
+     * @return 优先级调度器
+     */
+    public PriorityScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 请求体压缩统计：压缩率、CPU耗时以及跳过压缩的次数
+     *
+     * @return 压缩统计
+     */
+    public CompressionStats getCompressionStats() {
+        return compressionStats;
+    }
+
+    /**
+     * 分阶段耗时统计（DNS、建连、TLS、写请求、首字节、读响应体、总耗时），可按host、tag读取分位数快照
+     *
+     * @return 耗时统计
+     */
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    /**
+     * DNS缓存，可读取命中率和解析耗时，未启用时为null
+     *
+     * @return DNS缓存
+     */
+    public CachingDns getDns() {
+        return dns;
+    }
+
+    /**
+     * 磁盘缓存命中统计，未配置缓存时各项计数均为0
+     *
+     * @return 缓存统计
+     */
+    public CacheStats getCacheStats() {
+        return cacheStats;
     }
 
 
@@ -109,7 +273,7 @@ public class HttpClientManager {
         return TextUtils.isEmpty(url) || url.contains("?");
     }
 
-    private void addHeader(Map<String, String> headers, Request.Builder builder, boolean iskeepAlive) throws
+    private void addHeader(Map<String, String> headers, Request.Builder builder, String url, boolean iskeepAlive) throws
             IllegalArgumentException {
         if (headers != null) {
             for (Map.Entry<String, String> entry : headers.entrySet()) {
@@ -119,13 +283,112 @@ public class HttpClientManager {
                 builder.header(entry.getKey(), TextUtils.isEmpty(entry.getValue()) ? "" : entry.getValue());
             }
         }
-        if (isKeepConnection) {
+        if (iskeepAlive || isKeepConnection(url)) {
             return;
         }
-        if (!iskeepAlive) {
-            builder.header("Connection", "close");
+        builder.header("Connection", "close");
+
+    }
+
+    /**
+     * 按host查找连接复用策略，没有单独配置时使用全局的isKeepConnection
+     *
+     * @param url 请求url
+     * @return 是否复用连接
+     */
+    private boolean isKeepConnection(String url) {
+        if (hostKeepConnection.isEmpty()) {
+            return isKeepConnection;
         }
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        Boolean isKeep = httpUrl == null ? null : hostKeepConnection.get(httpUrl.host());
+        return isKeep == null ? isKeepConnection : isKeep;
+    }
 
+    /**
+     * 按请求可选项设置缓存策略
+     *
+     * @param builder 请求构造器
+     * @param options 请求可选项，可为null
+     */
+    private void applyOptions(Request.Builder builder, RequestOptions options) {
+        if (options == null) {
+            return;
+        }
+        switch (options.getCachePolicy()) {
+            case RequestOptions.CACHE_NETWORK_ONLY:
+                builder.cacheControl(new CacheControl.Builder().noCache().noStore().build());
+                break;
+            case RequestOptions.CACHE_FIRST:
+                builder.cacheControl(new CacheControl.Builder().maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS).build());
+                break;
+            case RequestOptions.CACHE_ONLY_OFFLINE:
+                if (!isNetworkAvailable()) {
+                    builder.cacheControl(CacheControl.FORCE_CACHE);
+                }
+                break;
+            case RequestOptions.CACHE_FORCE_REVALIDATE:
+                // no-cache会让OkHttp直接跳过缓存，max-age=0才会发出带If-None-Match/If-Modified-Since的条件请求
+                builder.cacheControl(new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static int priority(RequestOptions options) {
+        return options == null ? RequestOptions.PRIORITY_NORMAL : options.getPriority();
+    }
+
+    private boolean isNetworkAvailable() {
+        ConnectivityManager manager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (manager == null) {
+            return true;
+        }
+        NetworkInfo info = manager.getActiveNetworkInfo();
+        return info != null && info.isConnected();
+    }
+
+    /**
+     * 发起异步请求，成功响应交由parser解析后回调
+     *
+     * @param call     请求
+     * @param options  请求可选项（调度优先级），可为null
+     * @param tag      代表的业务请求编码
+     * @param parser   响应体解析器
+     * @param listener 回调监听
+     */
+    private <T> void enqueue(Call call, RequestOptions options, final Object tag, final ResponseParser<T> parser, final
+    WebCallbackListener<T> listener) {
+        scheduler.enqueue(call, priority(options), new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (listener != null) {
+                    listener.onFailure(tag, e);
+                }
+
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                if (listener != null && response != null) {
+                    if (response.isSuccessful()) {
+                        T result;
+                        try {
+                            result = parser.parse(response.body());
+                        } catch (Exception e) {
+                            listener.onFailure(tag, e);
+                            return;
+                        } finally {
+                            response.close();
+                        }
+                        listener.onSuccess(tag, response.code(), result, response.headers());
+                    } else {
+                        listener.onData(tag, response.code(), response.body().string());
+                    }
+                }
+            }
+        });
     }
 
     /**
@@ -138,6 +401,21 @@ public class HttpClientManager {
      * @return SyncResponse 响应体
      */
     public SyncResponse get(String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams) {
+        return get(url, tag, headers, urlParams, null);
+    }
+
+    /**
+     * 同步get请求
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param options   请求可选项（缓存策略等），可为null
+     * @return SyncResponse 响应体
+     */
+    public SyncResponse get(String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams,
+                            RequestOptions options) {
         SyncResponse syncResponse = new SyncResponse();
         syncResponse.setTag(tag);
         if (checkUrl(url)) {
@@ -156,6 +434,7 @@ public class HttpClientManager {
             return syncResponse;
         }
         Request.Builder builder = new Request.Builder().tag(tag).get();
+        applyOptions(builder, options);
 
         if (TextUtils.isEmpty(sParams)) {
             builder.url(url);
@@ -163,7 +442,7 @@ public class HttpClientManager {
             builder.url(url + "?" + sParams);
         }
         try {
-            addHeader(headers, builder, false);
+            addHeader(headers, builder, url, false);
         } catch (IllegalArgumentException e) {
             syncResponse.setHttpCode(-1);
             syncResponse.setSuccess(false);
@@ -236,10 +515,10 @@ public class HttpClientManager {
             if (headers == null) {
                 headers = new HashMap<>();
             }
-            if (isGzip) {
-                headers.put("Content-Encoding", "gzip");
+            if (isGzip && !headers.containsKey("Content-Encoding")) {
+                headers.put("Content-Encoding", compressEncoding);
             }
-            addHeader(headers, builder, false);
+            addHeader(headers, builder, url, false);
         } catch (IllegalArgumentException e) {
             syncResponse.setHttpCode(-1);
             syncResponse.setSuccess(false);
@@ -276,6 +555,54 @@ public class HttpClientManager {
      */
     public CallHandle asyncGet(final String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams,
                                final WebCallbackListener<String> listener) {
+        return asyncGet(url, tag, headers, urlParams, null, STRING_PARSER, listener);
+    }
+
+    /**
+     * 异步get请求
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param options   请求可选项（缓存策略等），可为null
+     * @return CallHandle 响应句柄
+     */
+    public CallHandle asyncGet(final String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams,
+                               RequestOptions options, final WebCallbackListener<String> listener) {
+        return asyncGet(url, tag, headers, urlParams, options, STRING_PARSER, listener);
+    }
+
+    /**
+     * 异步get请求，响应体由parser在网络线程直接解析
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param parser    响应体解析器
+     * @param listener  回调监听
+     * @return CallHandle 响应句柄
+     */
+    public <T> CallHandle asyncGet(final String url, final Object tag, Map<String, String> headers, Map<String, String>
+            urlParams, final ResponseParser<T> parser, final WebCallbackListener<T> listener) {
+        return asyncGet(url, tag, headers, urlParams, null, parser, listener);
+    }
+
+    /**
+     * 异步get请求，响应体由parser在网络线程直接解析
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param options   请求可选项（缓存策略等），可为null
+     * @param parser    响应体解析器
+     * @param listener  回调监听
+     * @return CallHandle 响应句柄
+     */
+    public <T> CallHandle asyncGet(final String url, final Object tag, Map<String, String> headers, Map<String, String>
+            urlParams, RequestOptions options, final ResponseParser<T> parser, final WebCallbackListener<T> listener) {
         CallHandle callHandle = new CallHandle();
         if (checkUrl(url)) {
             listener.onFailure(tag, new Exception("url is illegal"));
@@ -289,6 +616,7 @@ public class HttpClientManager {
             return callHandle;
         }
         Request.Builder builder = new Request.Builder().tag(tag).get();
+        applyOptions(builder, options);
 
         if (TextUtils.isEmpty(sParams)) {
             builder.url(url);
@@ -296,34 +624,18 @@ public class HttpClientManager {
             builder.url(url + "?" + sParams);
         }
         try {
-            addHeader(headers, builder, false);
+            addHeader(headers, builder, url, false);
         } catch (IllegalArgumentException e) {
             listener.onFailure(tag, e);
             return callHandle;
         }
         Request request = builder.build();
+        if (options != null && options.isCoalesce()) {
+            return coalescer.enqueue(mOkHttpClient, scheduler, priority(options), request, tag, parser, listener);
+        }
         Call call = mOkHttpClient.newCall(request);
         try {
-            call.enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    if (listener != null) {
-                        listener.onFailure(tag, e);
-                    }
-
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    if (listener != null && response != null) {
-                        if (response.isSuccessful()) {
-                            listener.onSuccess(tag, response.code(), response.body().string(), response.headers());
-                        } else {
-                            listener.onData(tag, response.code(), response.body().string());
-                        }
-                    }
-                }
-            });
+            enqueue(call, options, tag, parser, listener);
         } catch (IllegalStateException e) {
             listener.onFailure(tag, e);
         }
@@ -344,6 +656,43 @@ public class HttpClientManager {
      */
     public CallHandle asyncPost(final String url, final Object tag, Map<String, String> headers, Map<String, String> urlParams,
                                 Map<String, String> bodyParams, final WebCallbackListener<String> listener, boolean isGzip) {
+        return asyncPost(url, tag, headers, urlParams, bodyParams, STRING_PARSER, listener, isGzip);
+    }
+
+    /**
+     * 异步post请求，响应体由parser在网络线程直接解析
+     *
+     * @param url        http请求的url（PS:不包括url参数）
+     * @param tag        代表的业务请求编码
+     * @param headers    http请求头
+     * @param bodyParams 请求体参数
+     * @param parser     响应体解析器
+     * @param listener   回调监听
+     * @param isGzip     是否GZIP压缩
+     * @return CallHandle 响应句柄
+     */
+    public <T> CallHandle asyncPost(final String url, final Object tag, Map<String, String> headers, Map<String, String>
+            urlParams, Map<String, String> bodyParams, final ResponseParser<T> parser, final WebCallbackListener<T> listener,
+                                    boolean isGzip) {
+        return asyncPost(url, tag, headers, urlParams, bodyParams, null, parser, listener, isGzip);
+    }
+
+    /**
+     * 异步post请求，响应体由parser在网络线程直接解析
+     *
+     * @param url        http请求的url（PS:不包括url参数）
+     * @param tag        代表的业务请求编码
+     * @param headers    http请求头
+     * @param bodyParams 请求体参数
+     * @param options    请求可选项（调度优先级等），可为null
+     * @param parser     响应体解析器
+     * @param listener   回调监听
+     * @param isGzip     是否GZIP压缩
+     * @return CallHandle 响应句柄
+     */
+    public <T> CallHandle asyncPost(final String url, final Object tag, Map<String, String> headers, Map<String, String>
+            urlParams, Map<String, String> bodyParams, RequestOptions options, final ResponseParser<T> parser, final
+    WebCallbackListener<T> listener, boolean isGzip) {
         CallHandle callHandle = new CallHandle();
         if (checkUrl(url)) {
             listener.onFailure(tag, new Exception("url is illegal"));
@@ -375,10 +724,10 @@ public class HttpClientManager {
             if (headers == null) {
                 headers = new HashMap<>();
             }
-            if (isGzip) {
-                headers.put("Content-Encoding", "gzip");
+            if (isGzip && !headers.containsKey("Content-Encoding")) {
+                headers.put("Content-Encoding", compressEncoding);
             }
-            addHeader(headers, builder, false);
+            addHeader(headers, builder, url, false);
         } catch (IllegalArgumentException e) {
             listener.onFailure(tag, e);
             return callHandle;
@@ -387,26 +736,7 @@ public class HttpClientManager {
         Request request = builder.build();
         Call call = mOkHttpClient.newCall(request);
         try {
-            call.enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    if (listener != null) {
-                        listener.onFailure(tag, e);
-                    }
-
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    if (listener != null && response != null) {
-                        if (response.isSuccessful()) {
-                            listener.onSuccess(tag, response.code(), response.body().string(), response.headers());
-                        } else {
-                            listener.onData(tag, response.code(), response.body().string());
-                        }
-                    }
-                }
-            });
+            enqueue(call, options, tag, parser, listener);
         } catch (IllegalStateException e) {
             listener.onFailure(tag, e);
         }
@@ -428,6 +758,39 @@ public class HttpClientManager {
      */
     public CallHandle asyncPostJson(String url, final Object tag, Map<String, String> headers, String json, final
     WebCallbackListener<String> listener, boolean isGzip) {
+        return asyncPostJson(url, tag, headers, json, STRING_PARSER, listener, isGzip);
+    }
+
+    /**
+     * 异步post json格式请求，请求体由调用方提供（如流式序列化的实体）
+     *
+     * @param url         http请求的url（PS:不包括url参数）
+     * @param tag         代表的业务请求编码
+     * @param headers     http请求头
+     * @param requestBody 请求体
+     * @param listener    回调监听
+     * @param isGzip      是否GZIP压缩
+     * @return CallHandle  响应句柄
+     */
+    public CallHandle asyncPostJson(String url, final Object tag, Map<String, String> headers, RequestBody
+            requestBody, final WebCallbackListener<String> listener, boolean isGzip) {
+        return asyncPostJson(url, tag, headers, requestBody, STRING_PARSER, listener, isGzip);
+    }
+
+    /**
+     * 异步post json格式请求，响应体由parser在网络线程直接解析
+     *
+     * @param url      http请求的url（PS:不包括url参数）
+     * @param tag      代表的业务请求编码
+     * @param headers  http请求头
+     * @param json     请求体参数
+     * @param parser   响应体解析器
+     * @param listener 回调监听
+     * @param isGzip   是否GZIP压缩
+     * @return CallHandle  响应句柄
+     */
+    public <T> CallHandle asyncPostJson(String url, final Object tag, Map<String, String> headers, String json, final
+    ResponseParser<T> parser, final WebCallbackListener<T> listener, boolean isGzip) {
         CallHandle callHandle = new CallHandle();
         if (checkUrl(url)) {
             listener.onFailure(tag, new Exception("url is illegal"));
@@ -439,17 +802,61 @@ public class HttpClientManager {
             listener.onFailure(tag, new IllegalArgumentException("json body empty is not allowed"));
             return callHandle;
         }
-        RequestBody requestBody = RequestBody.create(JSON, json);
+        return asyncPostJson(url, tag, headers, RequestBody.create(JSON, json), parser, listener, isGzip);
+    }
+
+    /**
+     * 异步post json格式请求，请求体由调用方提供（如在写请求时直接序列化实体的RequestBody）
+     *
+     * @param url         http请求的url（PS:不包括url参数）
+     * @param tag         代表的业务请求编码
+     * @param headers     http请求头
+     * @param requestBody json请求体
+     * @param parser      响应体解析器
+     * @param listener    回调监听
+     * @param isGzip      是否GZIP压缩
+     * @return CallHandle  响应句柄
+     */
+    public <T> CallHandle asyncPostJson(String url, final Object tag, Map<String, String> headers, RequestBody
+            requestBody, final ResponseParser<T> parser, final WebCallbackListener<T> listener, boolean isGzip) {
+        return asyncPostJson(url, tag, headers, requestBody, null, parser, listener, isGzip);
+    }
+
+    /**
+     * 异步post json格式请求，请求体由调用方提供（如在写请求时直接序列化实体的RequestBody）
+     *
+     * @param url         http请求的url（PS:不包括url参数）
+     * @param tag         代表的业务请求编码
+     * @param headers     http请求头
+     * @param requestBody json请求体
+     * @param options     请求可选项（调度优先级等），可为null
+     * @param parser      响应体解析器
+     * @param listener    回调监听
+     * @param isGzip      是否GZIP压缩
+     * @return CallHandle  响应句柄
+     */
+    public <T> CallHandle asyncPostJson(String url, final Object tag, Map<String, String> headers, RequestBody
+            requestBody, RequestOptions options, final ResponseParser<T> parser, final WebCallbackListener<T> listener,
+                                        boolean isGzip) {
+        CallHandle callHandle = new CallHandle();
+        if (checkUrl(url)) {
+            listener.onFailure(tag, new Exception("url is illegal"));
+            return callHandle;
+        }
+        if (requestBody == null) {
+            listener.onFailure(tag, new IllegalArgumentException("json body empty is not allowed"));
+            return callHandle;
+        }
         Request.Builder builder = new Request.Builder().tag(tag).post(requestBody);
         builder.url(url);
         try {
             if (headers == null) {
                 headers = new HashMap<>();
             }
-            if (isGzip) {
-                headers.put("Content-Encoding", "gzip");
+            if (isGzip && !headers.containsKey("Content-Encoding")) {
+                headers.put("Content-Encoding", compressEncoding);
             }
-            addHeader(headers, builder, false);
+            addHeader(headers, builder, url, false);
         } catch (IllegalArgumentException e) {
             listener.onFailure(tag, e);
             return callHandle;
@@ -457,26 +864,7 @@ public class HttpClientManager {
         Request request = builder.build();
         Call call = mOkHttpClient.newCall(request);
         try {
-            call.enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    if (listener != null) {
-                        listener.onFailure(tag, e);
-                    }
-
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    if (listener != null && response != null) {
-                        if (response.isSuccessful()) {
-                            listener.onSuccess(tag, response.code(), response.body().string(), response.headers());
-                        } else {
-                            listener.onData(tag, response.code(), response.body().string());
-                        }
-                    }
-                }
-            });
+            enqueue(call, options, tag, parser, listener);
         } catch (IllegalStateException e) {
             listener.onFailure(tag, e);
         }
@@ -524,13 +912,12 @@ public class HttpClientManager {
                     listener.onFailure(tag, new IllegalArgumentException("params is illegal"));
                     return callHandle;
                 }
-                if ((TextUtils.isEmpty(entity.getName())) || (TextUtils.isEmpty(entity.getFileName())) || (entity.getFile() ==
-                        null)) {
+                if ((TextUtils.isEmpty(entity.getName())) || (TextUtils.isEmpty(entity.getFileName())) || (!entity
+                        .hasSource())) {
                     listener.onFailure(tag, new IllegalArgumentException("params is illegal"));
                     return callHandle;
                 }
-                multiBuilder.addFormDataPart(entity.getName(), entity.getFileName(), RequestBody.create(MediaType.parse
-                        ("application/octet-stream"), entity.getFile()));
+                multiBuilder.addFormDataPart(entity.getName(), entity.getFileName(), entity.newRequestBody());
             }
         }
         MultipartBody multipartBody;
@@ -540,7 +927,7 @@ public class HttpClientManager {
             listener.onFailure(tag, e);
             return callHandle;
         }
-        ProgressRequestBody progressRequestBody = new ProgressRequestBody(multipartBody, listener);
+        ProgressRequestBody progressRequestBody = new ProgressRequestBody(multipartBody, listener, newProgressThrottle());
 
         Request.Builder builder = new Request.Builder().tag(tag).post(progressRequestBody);
 
@@ -561,10 +948,10 @@ public class HttpClientManager {
             if (headers == null) {
                 headers = new HashMap<>();
             }
-            if (isGzip) {
-                headers.put("Content-Encoding", "gzip");
+            if (isGzip && !headers.containsKey("Content-Encoding")) {
+                headers.put("Content-Encoding", compressEncoding);
             }
-            addHeader(headers, builder, true);
+            addHeader(headers, builder, url, true);
         } catch (IllegalArgumentException e) {
             listener.onFailure(tag, e);
             return callHandle;
@@ -573,7 +960,7 @@ public class HttpClientManager {
         Request request = builder.build();
         Call call = mOkHttpClient.newCall(request);
         try {
-            call.enqueue(new Callback() {
+            scheduler.enqueue(call, RequestOptions.PRIORITY_NORMAL, new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
                     if (listener != null) {
@@ -601,6 +988,46 @@ public class HttpClientManager {
 
     }
 
+    /**
+     * 分块续传上传大文件（tus协议），上传中断后再次调用会从服务端最后确认的块继续
+     *
+     * @param url      tus创建上传的地址
+     * @param tag      代表的业务请求编码
+     * @param headers  http请求头，每个请求都会携带
+     * @param entity   上传的文件，只支持整个文件（setFile）
+     * @param options  分块大小、并行数、日志目录，为null时使用默认值
+     * @param listener 回调监听，成功时返回最终的上传地址
+     * @return CallHandle 响应句柄，取消时取消全部分块请求
+     */
+    public CallHandle asyncChunkedUpload(String url, Object tag, Map<String, String> headers, FileEntity entity,
+                                         ChunkedUploadOptions options, UploadListener<String> listener) {
+        HttpUrl httpUrl = checkUrl(url) ? null : HttpUrl.parse(url);
+        if (httpUrl == null) {
+            if (listener != null) {
+                listener.onFailure(tag, new Exception("url is illegal"));
+            }
+            return new CallHandle();
+        }
+        if (entity == null || entity.getFile() == null || !entity.getFile().isFile() || entity.getOffset() != 0 || entity
+                .getLength() != -1) {
+            if (listener != null) {
+                listener.onFailure(tag, new IllegalArgumentException("params is illegal"));
+            }
+            return new CallHandle();
+        }
+        if (options == null) {
+            options = new ChunkedUploadOptions();
+        }
+        File journalDir = options.getJournalDir();
+        if (journalDir == null && context != null) {
+            journalDir = new File(context.getCacheDir(), "tus");
+        }
+        ChunkedUploader uploader = new ChunkedUploader(mOkHttpClient, scheduler, httpUrl, headers, tag, entity, options,
+                journalDir, newProgressThrottle(), listener);
+        uploader.start();
+        return uploader;
+    }
+
     /**
      * get请求 下载文件(支持断点续传)
      *
@@ -615,6 +1042,25 @@ public class HttpClientManager {
      */
     public CallHandle asyncDownLoad(final String url, final Object tag, final String destPath, Map<String, String> headers,
                                     Map<String, String> urlParams, final DownLoadListener listener, final boolean isRange) {
+        return asyncDownLoad(url, tag, destPath, headers, urlParams, null, listener, isRange);
+    }
+
+    /**
+     * get请求 下载文件(支持断点续传)，写文件时同步计算摘要，不一致时回调onFailure而不回调onSuccess
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param destPath  下载后存储的目标路径
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param digest    文件校验，为null时不校验
+     * @param listener  回调监听
+     * @param isRange   是否开启断点续传
+     * @return CallHandle 响应句柄
+     */
+    public CallHandle asyncDownLoad(final String url, final Object tag, final String destPath, Map<String, String> headers,
+                                    Map<String, String> urlParams, final DownloadDigest digest, final DownLoadListener
+                                            listener, final boolean isRange) {
         CallHandle callHandle = new CallHandle();
         if (checkUrl(url)) {
             if (listener != null) {
@@ -632,76 +1078,37 @@ public class HttpClientManager {
             }
             return callHandle;
         }
-        if (TextUtils.isEmpty(destPath)) {
-            if (listener != null) {
-                listener.onFailure(tag, new Exception("dest path empty is not allowed"));
-            }
+        final File file = createDestFile(tag, destPath, listener);
+        if (file == null) {
             return callHandle;
         }
-        final File file = new File(destPath);
-        if (file.isDirectory()) {
-            if (listener != null) {
-                listener.onFailure(tag, new Exception("dest path does not support for directory,only absolute file path is " +
-                        "allowed"));
-
-            }
-            return callHandle;
-        }
-        if (!file.exists()) {
-            boolean b;
-            if (!file.getParentFile().exists()) {
-                b = file.getParentFile().mkdirs();
-                if (!b) {
-                    if (listener != null) {
-                        listener.onFailure(tag, new Exception("destPath permission denied!"));
-                    }
-                    return callHandle;
-                } else {
-                    try {
-                        boolean isCreate = file.createNewFile();
-                        if (!isCreate) {
-                            if (listener != null) {
-                                listener.onFailure(tag, new Exception("destPath permission denied!"));
-                            }
-                            return callHandle;
-                        }
-                    } catch (IOException e) {
-                        if (listener != null) {
-                            listener.onFailure(tag, new Exception("destPath permission denied!"));
-                        }
-                        return callHandle;
-                    }
-                }
-            } else {
-                try {
-                    boolean isCreate = file.createNewFile();
-                    if (!isCreate) {
-                        if (listener != null) {
-                            listener.onFailure(tag, new Exception("destPath permission denied!"));
-                        }
-                        return callHandle;
-                    }
-                } catch (IOException e) {
-                    if (listener != null) {
-                        listener.onFailure(tag, new Exception("destPath permission denied!"));
-                    }
-                    return callHandle;
+        if (digest != null) {
+            try {
+                digest.newMessageDigest();
+            } catch (NoSuchAlgorithmException e) {
+                if (listener != null) {
+                    listener.onFailure(tag, e);
                 }
+                return callHandle;
             }
         }
         Request.Builder builder = new Request.Builder().tag(tag);
 
-        if (TextUtils.isEmpty(sParams)) {
-            builder.url(url);
-        } else {
-            builder.url(url + "?" + sParams);
-        }
+        final String fullUrl = TextUtils.isEmpty(sParams) ? url : url + "?" + sParams;
+        builder.url(fullUrl);
 
+        final DownloadJournal journal = isRange ? DownloadJournal.forFile(file) : null;
+        long resume = 0;
         try {
-            addHeader(headers, builder, true);
+            addHeader(headers, builder, url, true);
             if (isRange) {
-                if (file.length() > 0) {
-                    builder.header("Range", "bytes=" + file.length() + "-");
+                // 只有日志中的URL一致且有校验值时才续传，If-Range使服务端文件变化时返回200完整内容
+                String validator = journal.load() && fullUrl.equals(journal.getUrl()) ? journal.ifRange() : null;
+                long length = file.length();
+                if (validator != null && length > 0 && (journal.getLength() < 0 || length < journal.getLength())) {
+                    resume = length;
+                    builder.header("Range", "bytes=" + length + "-");
+                    builder.header("If-Range", validator);
                 }
             }
 
@@ -713,23 +1120,16 @@ public class HttpClientManager {
             return callHandle;
         }
 
-        Request request = builder.build();
-        OkHttpClient.Builder okBuilder = mOkHttpClient.newBuilder();
-        if (!isRange) {
-            okBuilder.interceptors().add(new Interceptor() {
-                @Override
-                public Response intercept(Chain chain) throws IOException {
-                    //拦截
-                    Response originalResponse = chain.proceed(chain.request());
-                    //包装响应体并返回
-                    return originalResponse.newBuilder().body(new ProgressResponseBody(originalResponse.body(), listener))
-                            .build();
-                }
-            });
+        if (listener != null) {
+            // 由初始化时安装的ProgressInterceptor按tag找到回调并包装响应体
+            builder.tag(DownLoadListener.class, listener);
         }
-        Call call = okBuilder.build().newCall(request);
+        Request request = builder.build();
+        Call call = mOkHttpClient.newCall(request);
+        final long resumeFrom = resume;
         try {
-            call.enqueue(new Callback() {
+            // 下载不应阻塞页面请求，按后台优先级调度
+            scheduler.enqueue(call, RequestOptions.PRIORITY_BACKGROUND, new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
                     if (listener != null) {
@@ -741,54 +1141,77 @@ public class HttpClientManager {
                 public void onResponse(Call call, Response response) throws IOException {
                     if (response != null) {
                         if (response.isSuccessful()) {
-                            BufferedInputStream reader = null;
                             RandomAccessFile rSavedFile = null;
+                            boolean isCompleted = false;
                             try {
-                                reader = new BufferedInputStream(response.body().byteStream());
                                 rSavedFile = new RandomAccessFile(destPath, "rw");
+                                long position = 0;
+                                DownloadWriter.Listener committer = null;
                                 if (isRange) {
-                                    if (response.code() == 206) {
-                                        rSavedFile.seek(file.length());
-                                    }
+                                    position = beginJournal(journal, fullUrl, response, resumeFrom);
+                                    committer = journal.committer(position);
+                                }
+                                // 从头下载时截掉旧文件多余的部分
+                                rSavedFile.setLength(position);
+                                MessageDigest messageDigest = null;
+                                if (digest != null) {
+                                    messageDigest = digest.newMessageDigest();
+                                    DownloadDigest.updatePrefix(messageDigest, file, position);
                                 }
-                                int n;
-                                byte[] buffer = new byte[1024 * 8];
-                                long fullLength = 0L;
+                                DownloadWriter.write(response.body().source(), rSavedFile.getChannel(), position, -1,
+                                        downloadChunkSize, committer, messageDigest);
+                                isCompleted = true;
                                 if (isRange) {
-                                    fullLength = response.body().contentLength() + rSavedFile.length();
+                                    journal.delete();
                                 }
-
-                                while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
-                                    rSavedFile.write(buffer, 0, n);
-                                    if (isRange) {
-                                        if (listener != null) {
-                                            listener.onProgress(rSavedFile.length(), fullLength, rSavedFile.length() ==
-                                                    fullLength);
-                                        }
+                                String mismatch = digest == null ? null : digest.verify(messageDigest, digest
+                                        .getHeader() == null ? null : response.header(digest.getHeader()));
+                                if (mismatch != null) {
+                                    // 内容已损坏，不保留用于续传
+                                    rSavedFile.close();
+                                    rSavedFile = null;
+                                    file.delete();
+                                    if (listener != null) {
+                                        listener.onFailure(tag, new IOException(mismatch));
                                     }
+                                    return;
                                 }
 
                                 if (listener != null) {
                                     listener.onSuccess(tag, response.code(), file);
                                 }
 
+                            } catch (FileNotFoundException | SecurityException e) {
+                                // 目标文件无法以读写方式打开
+                                if (listener != null) {
+                                    listener.onFailure(tag, new Exception("destPath permission denied!", e));
+                                }
                             } catch (Exception e) {
+                                // 连接中断、取消、Content-Range不符、日志写入失败等原样回调，调用方据此判断能否重试续传
                                 if (listener != null) {
-                                    listener.onFailure(tag, new Exception("destPath permission denied!"));
+                                    listener.onFailure(tag, e);
                                 }
                             } finally {
                                 if (rSavedFile != null) {
                                     rSavedFile.close();
                                 }
-                                if (reader != null) {
-                                    reader.close();
+                                response.body().close();
+                                if (isRange && !isCompleted && journal.getUrl() != null && file.exists()) {
+                                    // 失败时提交最终偏移，供下次续传
+                                    saveJournal(journal);
                                 }
 
                             }
 
                         } else {
-                            if (file.exists()) {
-                                file.delete();
+                            // 续传模式下普通错误保留已下载部分；416说明日志已失效，与非续传模式一样清理
+                            if (!isRange || response.code() == 416) {
+                                if (file.exists()) {
+                                    file.delete();
+                                }
+                                if (isRange) {
+                                    journal.delete();
+                                }
                             }
                             if (listener != null) {
                                 listener.onData(tag, response.code(), response.body().string());
@@ -807,21 +1230,201 @@ public class HttpClientManager {
         return callHandle;
     }
 
+    /**
+     * 根据响应确定写入位置并写入日志：206且起始位置与续传位置一致时接着写，200时从头下载
+     *
+     * @param journal    断点续传日志
+     * @param url        下载地址
+     * @param response   响应
+     * @param resumeFrom 请求的续传位置，未续传时为0
+     * @return 写入起始位置
+     * @throws IOException 响应区间与请求不一致或日志写入失败
+     */
+    private static long beginJournal(DownloadJournal journal, String url, Response response, long resumeFrom) throws
+            IOException {
+        long position = 0;
+        long length = response.body().contentLength();
+        if (response.code() == 206) {
+            long[] range = ProgressInterceptor.parseContentRange(response.header("Content-Range"));
+            if (range == null || range[0] != resumeFrom) {
+                throw new IOException("unexpected Content-Range: " + response.header("Content-Range"));
+            }
+            position = resumeFrom;
+            length = range[1] >= 0 ? range[1] : (length >= 0 ? position + length : -1);
+        } else {
+            journal.setEtag(null);
+            journal.setLastModified(null);
+        }
+        journal.setUrl(url);
+        if (response.header("ETag") != null) {
+            journal.setEtag(response.header("ETag"));
+        }
+        if (response.header("Last-Modified") != null) {
+            journal.setLastModified(response.header("Last-Modified"));
+        }
+        journal.setLength(length);
+        journal.setOffset(position);
+        journal.save();
+        return position;
+    }
+
+    private static void saveJournal(DownloadJournal journal) {
+        try {
+            journal.save();
+        } catch (IOException e) {
+            // 续传时以文件实际长度为准
+        }
+    }
+
+    /**
+     * get请求 多连接分段下载文件，服务端支持Range时按字节区间拆分并发下载，不支持时回退为单连接
+     *
+     * @param url       http请求的url（PS:不包括url参数）
+     * @param tag       代表的业务请求编码
+     * @param destPath  下载后存储的目标路径
+     * @param headers   http请求头
+     * @param urlParams url参数
+     * @param segments  分段数，文件较小时会相应减少，实际并发数仍受Dispatcher的单host请求数限制
+     * @param listener  回调监听，进度为各段合并后的已下载字节数
+     * @return CallHandle 响应句柄，取消时取消全部分段
+     */
+    public CallHandle asyncSegmentedDownLoad(String url, Object tag, String destPath, Map<String, String> headers,
+                                             Map<String, String> urlParams, int segments, DownLoadListener listener) {
+        CallHandle callHandle = new CallHandle();
+        if (checkUrl(url)) {
+            if (listener != null) {
+                listener.onFailure(tag, new Exception("url is illegal"));
+            }
+            return callHandle;
+        }
+
+        String sParams;
+        try {
+            sParams = mapToStringParams(urlParams);
+        } catch (UnsupportedEncodingException e) {
+            if (listener != null) {
+                listener.onFailure(tag, e);
+            }
+            return callHandle;
+        }
+        File file = createDestFile(tag, destPath, listener);
+        if (file == null) {
+            return callHandle;
+        }
+        Request.Builder builder = new Request.Builder().tag(tag);
+        if (TextUtils.isEmpty(sParams)) {
+            builder.url(url);
+        } else {
+            builder.url(url + "?" + sParams);
+        }
+        try {
+            addHeader(headers, builder, url, true);
+        } catch (IllegalArgumentException e) {
+            if (listener != null) {
+                listener.onFailure(tag, e);
+            }
+            return callHandle;
+        }
+        SegmentedDownloader downloader = new SegmentedDownloader(mOkHttpClient, scheduler, builder.build(), tag, file,
+                segments, downloadChunkSize, newProgressThrottle(), listener);
+        downloader.start();
+        return downloader;
+    }
+
+    /**
+     * 按初始化配置创建单次传输的进度节流
+     */
+    private ProgressThrottle newProgressThrottle() {
+        return new ProgressThrottle(progressMinBytes, progressIntervalMillis);
+    }
+
+    /**
+     * 校验下载目标路径，不存在时创建文件
+     *
+     * @param tag      业务请求编码
+     * @param destPath 下载后存储的目标路径
+     * @param listener 回调监听
+     * @return 目标文件，路径不合法或无权限时回调失败并返回null
+     */
+    private File createDestFile(Object tag, String destPath, DownLoadListener listener) {
+        if (TextUtils.isEmpty(destPath)) {
+            if (listener != null) {
+                listener.onFailure(tag, new Exception("dest path empty is not allowed"));
+            }
+            return null;
+        }
+        File file = new File(destPath);
+        if (file.isDirectory()) {
+            if (listener != null) {
+                listener.onFailure(tag, new Exception("dest path does not support for directory,only absolute file path is " +
+                        "allowed"));
+
+            }
+            return null;
+        }
+        if (!file.exists()) {
+            boolean b;
+            if (!file.getParentFile().exists()) {
+                b = file.getParentFile().mkdirs();
+                if (!b) {
+                    if (listener != null) {
+                        listener.onFailure(tag, new Exception("destPath permission denied!"));
+                    }
+                    return null;
+                } else {
+                    try {
+                        boolean isCreate = file.createNewFile();
+                        if (!isCreate) {
+                            if (listener != null) {
+                                listener.onFailure(tag, new Exception("destPath permission denied!"));
+                            }
+                            return null;
+                        }
+                    } catch (IOException e) {
+                        if (listener != null) {
+                            listener.onFailure(tag, new Exception("destPath permission denied!"));
+                        }
+                        return null;
+                    }
+                }
+            } else {
+                try {
+                    boolean isCreate = file.createNewFile();
+                    if (!isCreate) {
+                        if (listener != null) {
+                            listener.onFailure(tag, new Exception("destPath permission denied!"));
+                        }
+                        return null;
+                    }
+                } catch (IOException e) {
+                    if (listener != null) {
+                        listener.onFailure(tag, new Exception("destPath permission denied!"));
+                    }
+                    return null;
+                }
+            }
+        }
+        return file;
+    }
+
     /**
      * 根据网络请求标识位取消网络请求
      *
      * @param tag 网络请求标识位
      */
     public void cancelByTag(Object tag) {
+        // 合并请求只解除该tag的调用方，其他调用方仍在等待时不取消底层Call
+        coalescer.cancelByTag(tag);
+        scheduler.cancelByTag(tag);
         Dispatcher dispatcher = mOkHttpClient.dispatcher();
         synchronized (dispatcher) {
             for (Call call : dispatcher.queuedCalls()) {
-                if (tag.equals(call.request().tag())) {
+                if (call.request().tag(RequestCoalescer.class) == null && tag.equals(call.request().tag())) {
                     call.cancel();
                 }
             }
             for (Call call : dispatcher.runningCalls()) {
-                if (tag.equals(call.request().tag())) {
+                if (call.request().tag(RequestCoalescer.class) == null && tag.equals(call.request().tag())) {
                     call.cancel();
                 }
             }
@@ -0,0 +1,456 @@
+package com.eric.core.core;
+
+import android.util.Log;
+
+import com.eric.core.lnterceptor.GZipInterceptor;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: HttpConfig
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * HttpClientManager初始化配置
+ */
+public class HttpConfig {
+    /**
+     * 只使用HTTP/1.1
+     */
+    public static final int PROTOCOL_HTTP_1_1 = 1;
+    /**
+     * HTTPS通过ALPN协商HTTP/2，不支持时回退HTTP/1.1（OkHttp默认）
+     */
+    public static final int PROTOCOL_HTTP_2 = 2;
+    /**
+     * 明文HTTP/2（h2c prior knowledge），只用于确定支持h2c的内部网关，不能与HTTP/1.1混用
+     */
+    public static final int PROTOCOL_H2_PRIOR_KNOWLEDGE = 3;
+
+    /**
+     * 是否为debug模式，debug模式打印http请求日志
+     */
+    private boolean isDebug;
+    /**
+     * 连接超时时间，单位秒
+     */
+    private long connectTimeout = 10;
+    /**
+     * 读写超时时间，单位秒
+     */
+    private long soTimeout = 10;
+    /**
+     * 是否允许重试
+     */
+    private boolean isRetry;
+    /**
+     * 是否保持KeepAlive，为false时普通接口请求带Connection: close，连接不复用
+     */
+    private boolean isKeepConnection = true;
+    /**
+     * 按host覆盖isKeepConnection
+     */
+    private final Map<String, Boolean> hostKeepConnection = new HashMap<>();
+    /**
+     * 协议选择，PROTOCOL_*
+     */
+    private int protocol = PROTOCOL_HTTP_2;
+    /**
+     * 连接池最大空闲连接数
+     */
+    private int maxIdleConnections = 5;
+    /**
+     * 空闲连接保留时长，单位秒，超过后被连接池回收
+     */
+    private long keepAliveDuration = 300;
+    /**
+     * 每个host同时执行的最大请求数，HTTP/2下这些请求复用同一连接
+     */
+    private int maxRequestsPerHost = 5;
+    /**
+     * 磁盘缓存目录，为null时使用context.getCacheDir()/http
+     */
+    private File cacheDir;
+    /**
+     * 磁盘缓存上限，单位字节，超出后按LRU淘汰；<=0时不启用缓存
+     */
+    private long cacheMaxSize;
+    /**
+     * 已解析响应实体内存缓存的最大条目数，<=0时不启用
+     */
+    private int objectCacheMaxEntries;
+    /**
+     * 已解析响应实体内存缓存的最大总权重，<=0时不限制
+     */
+    private long objectCacheMaxWeight;
+    /**
+     * 下载写文件的块大小，单位字节，每攒够一块写一次文件
+     */
+    private int downloadChunkSize = DownloadWriter.DEFAULT_CHUNK_SIZE;
+    /**
+     * 上传、下载进度两次回调之间的最小字节增量，<=0时不限制
+     */
+    private long progressMinBytes;
+    /**
+     * 上传、下载进度两次回调之间的最小时间间隔，单位毫秒，<=0时不限制
+     */
+    private long progressIntervalMillis = 100;
+    /**
+     * isGzip为true时使用的请求体压缩方式，gzip或deflate
+     */
+    private String compressEncoding = GZipInterceptor.ENCODING_GZIP;
+    /**
+     * 最小压缩长度，单位字节，已知长度小于该值的请求体不压缩
+     */
+    private long compressMinSize = 1024;
+    /**
+     * 在内存中压缩（保留Content-Length）的最大请求体长度，单位字节，超过或长度未知时按chunked方式边压缩边发送
+     */
+    private long compressMaxBufferSize = 256 * 1024;
+    /**
+     * 压缩级别，0~9，-1为默认级别
+     */
+    private int compressLevel = Deflater.DEFAULT_COMPRESSION;
+    /**
+     * init后在后台预连接的url（只取scheme、host和port），为null时不预连接
+     */
+    private List<String> preconnectUrls;
+    /**
+     * 预连接后保活HEAD请求的间隔，单位毫秒，<=0时只预连接一次；某个host出现业务请求后停止对其保活
+     */
+    private long preconnectIntervalMillis;
+    /**
+     * 保活的总时长预算，单位毫秒
+     */
+    private long preconnectBudgetMillis = 60 * 1000;
+    /**
+     * DNS缓存有效期，单位毫秒，<=0时不启用DNS缓存，使用系统解析
+     */
+    private long dnsCacheTtlMillis = 60 * 1000;
+    /**
+     * DNS缓存过期后仍可使用旧结果（同时后台刷新）的时长，单位毫秒
+     */
+    private long dnsStaleMillis = 10 * 60 * 1000;
+    /**
+     * init后在后台预解析的host
+     */
+    private List<String> dnsPrefetchHosts;
+    /**
+     * 是否按IPv6/IPv4交替排列解析结果，连接失败的地址移到末尾
+     */
+    private boolean isDnsInterleave;
+    /**
+     * 分阶段耗时统计中host、tag各自最多记录的数量，<=0时只记录全局统计
+     */
+    private int metricsMaxKeys = 64;
+    /**
+     * debug模式下请求日志的最低级别（android.util.Log常量），DEBUG及以下时记录请求头、响应头和响应体
+     */
+    private int logLevel = Log.INFO;
+    /**
+     * 成功请求日志的采样率，0~1，失败请求总是记录
+     */
+    private float logSampleRate = 1f;
+    /**
+     * 日志中记录响应体的最大字节数
+     */
+    private long logBodyMaxBytes = 4 * 1024;
+    /**
+     * 日志环形缓冲容量，写满时丢弃新日志
+     */
+    private int logBufferSize = 1024;
+    /**
+     * 批量请求接口地址，Http.asyncBatch(BatchRequest, boolean)使用
+     */
+    private String batchUrl;
+
+    public boolean isDebug() {
+        return isDebug;
+    }
+
+    public void setDebug(boolean debug) {
+        isDebug = debug;
+    }
+
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public long getSoTimeout() {
+        return soTimeout;
+    }
+
+    public void setSoTimeout(long soTimeout) {
+        this.soTimeout = soTimeout;
+    }
+
+    public boolean isRetry() {
+        return isRetry;
+    }
+
+    public void setRetry(boolean retry) {
+        isRetry = retry;
+    }
+
+    public boolean isKeepConnection() {
+        return isKeepConnection;
+    }
+
+    public void setKeepConnection(boolean keepConnection) {
+        isKeepConnection = keepConnection;
+    }
+
+    /**
+     * 按host设置是否复用连接，覆盖全局的isKeepConnection
+     *
+     * @param host             主机名
+     * @param isKeepConnection 是否保持KeepAlive
+     */
+    public void setKeepConnection(String host, boolean isKeepConnection) {
+        hostKeepConnection.put(host, isKeepConnection);
+    }
+
+    public Map<String, Boolean> getHostKeepConnection() {
+        return hostKeepConnection;
+    }
+
+    public int getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(int protocol) {
+        this.protocol = protocol;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public long getKeepAliveDuration() {
+        return keepAliveDuration;
+    }
+
+    public void setKeepAliveDuration(long keepAliveDuration) {
+        this.keepAliveDuration = keepAliveDuration;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    public void setCacheDir(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public long getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(long cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public int getObjectCacheMaxEntries() {
+        return objectCacheMaxEntries;
+    }
+
+    public void setObjectCacheMaxEntries(int objectCacheMaxEntries) {
+        this.objectCacheMaxEntries = objectCacheMaxEntries;
+    }
+
+    public long getObjectCacheMaxWeight() {
+        return objectCacheMaxWeight;
+    }
+
+    public void setObjectCacheMaxWeight(long objectCacheMaxWeight) {
+        this.objectCacheMaxWeight = objectCacheMaxWeight;
+    }
+
+    public int getDownloadChunkSize() {
+        return downloadChunkSize;
+    }
+
+    public void setDownloadChunkSize(int downloadChunkSize) {
+        this.downloadChunkSize = downloadChunkSize;
+    }
+
+    public long getProgressMinBytes() {
+        return progressMinBytes;
+    }
+
+    public void setProgressMinBytes(long progressMinBytes) {
+        this.progressMinBytes = progressMinBytes;
+    }
+
+    public long getProgressIntervalMillis() {
+        return progressIntervalMillis;
+    }
+
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    public String getCompressEncoding() {
+        return compressEncoding;
+    }
+
+    public void setCompressEncoding(String compressEncoding) {
+        this.compressEncoding = compressEncoding;
+    }
+
+    public long getCompressMinSize() {
+        return compressMinSize;
+    }
+
+    public void setCompressMinSize(long compressMinSize) {
+        this.compressMinSize = compressMinSize;
+    }
+
+    public long getCompressMaxBufferSize() {
+        return compressMaxBufferSize;
+    }
+
+    public void setCompressMaxBufferSize(long compressMaxBufferSize) {
+        this.compressMaxBufferSize = compressMaxBufferSize;
+    }
+
+    public int getCompressLevel() {
+        return compressLevel;
+    }
+
+    /**
+     * @param compressLevel 压缩级别，0~9，-1为默认级别
+     * @throws IllegalArgumentException 级别超出范围
+     */
+    public void setCompressLevel(int compressLevel) {
+        if (compressLevel < Deflater.DEFAULT_COMPRESSION || compressLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compressLevel is illegal: " + compressLevel);
+        }
+        this.compressLevel = compressLevel;
+    }
+
+    public List<String> getPreconnectUrls() {
+        return preconnectUrls;
+    }
+
+    public void setPreconnectUrls(List<String> preconnectUrls) {
+        this.preconnectUrls = preconnectUrls;
+    }
+
+    public long getPreconnectIntervalMillis() {
+        return preconnectIntervalMillis;
+    }
+
+    public void setPreconnectIntervalMillis(long preconnectIntervalMillis) {
+        this.preconnectIntervalMillis = preconnectIntervalMillis;
+    }
+
+    public long getPreconnectBudgetMillis() {
+        return preconnectBudgetMillis;
+    }
+
+    public void setPreconnectBudgetMillis(long preconnectBudgetMillis) {
+        this.preconnectBudgetMillis = preconnectBudgetMillis;
+    }
+
+    public long getDnsCacheTtlMillis() {
+        return dnsCacheTtlMillis;
+    }
+
+    public void setDnsCacheTtlMillis(long dnsCacheTtlMillis) {
+        this.dnsCacheTtlMillis = dnsCacheTtlMillis;
+    }
+
+    public long getDnsStaleMillis() {
+        return dnsStaleMillis;
+    }
+
+    public void setDnsStaleMillis(long dnsStaleMillis) {
+        this.dnsStaleMillis = dnsStaleMillis;
+    }
+
+    public List<String> getDnsPrefetchHosts() {
+        return dnsPrefetchHosts;
+    }
+
+    public void setDnsPrefetchHosts(List<String> dnsPrefetchHosts) {
+        this.dnsPrefetchHosts = dnsPrefetchHosts;
+    }
+
+    public boolean isDnsInterleave() {
+        return isDnsInterleave;
+    }
+
+    public void setDnsInterleave(boolean dnsInterleave) {
+        isDnsInterleave = dnsInterleave;
+    }
+
+    public int getMetricsMaxKeys() {
+        return metricsMaxKeys;
+    }
+
+    public void setMetricsMaxKeys(int metricsMaxKeys) {
+        this.metricsMaxKeys = metricsMaxKeys;
+    }
+
+    public int getLogLevel() {
+        return logLevel;
+    }
+
+    public void setLogLevel(int logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    public float getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    public void setLogSampleRate(float logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    public long getLogBodyMaxBytes() {
+        return logBodyMaxBytes;
+    }
+
+    public void setLogBodyMaxBytes(long logBodyMaxBytes) {
+        this.logBodyMaxBytes = logBodyMaxBytes;
+    }
+
+    public int getLogBufferSize() {
+        return logBufferSize;
+    }
+
+    public void setLogBufferSize(int logBufferSize) {
+        this.logBufferSize = logBufferSize;
+    }
+
+    public String getBatchUrl() {
+        return batchUrl;
+    }
+
+    public void setBatchUrl(String batchUrl) {
+        this.batchUrl = batchUrl;
+    }
+}
@@ -0,0 +1,159 @@
+package com.eric.core.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: MetricsEventListener
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 每个Call一个实例，记录各阶段起始时间并在阶段结束时写入RequestMetrics；
+ * 连接失败时通知CachingDns降级该地址
+ */
+final class MetricsEventListener extends EventListener {
+    private final RequestMetrics metrics;
+    private final CachingDns dns;
+    private final String host;
+    private final String tag;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseBodyStart;
+
+    private MetricsEventListener(RequestMetrics metrics, CachingDns dns, Call call) {
+        this.metrics = metrics;
+        this.dns = dns;
+        Request request = call.request();
+        this.host = request.url().host();
+        Object tag = request.tag();
+        this.tag = tag == null ? null : String.valueOf(tag);
+    }
+
+    static EventListener.Factory factory(final RequestMetrics metrics, final CachingDns dns) {
+        return new EventListener.Factory() {
+            @Override
+            public EventListener create(Call call) {
+                return new MetricsEventListener(metrics, dns, call);
+            }
+        };
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        record(RequestMetrics.PHASE_DNS, dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        secureConnectStart = 0;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+        record(RequestMetrics.PHASE_CONNECT, connectStart);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        record(RequestMetrics.PHASE_TLS, secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        if (secureConnectStart == 0) {
+            record(RequestMetrics.PHASE_CONNECT, connectStart);
+        }
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        if (dns != null) {
+            dns.reportFailure(host, inetSocketAddress.getAddress());
+        }
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+        if (request.body() == null) {
+            record(RequestMetrics.PHASE_REQUEST, requestStart, requestEnd);
+        }
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+        record(RequestMetrics.PHASE_REQUEST, requestStart, requestEnd);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        record(RequestMetrics.PHASE_TTFB, requestEnd);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        record(RequestMetrics.PHASE_RESPONSE_BODY, responseBodyStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        record(RequestMetrics.PHASE_TOTAL, callStart);
+        metrics.recordCall(host, tag, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        record(RequestMetrics.PHASE_TOTAL, callStart);
+        metrics.recordCall(host, tag, true);
+    }
+
+    private void record(int phase, long start) {
+        record(phase, start, System.nanoTime());
+    }
+
+    private void record(int phase, long start, long end) {
+        if (start != 0) {
+            metrics.record(host, tag, phase, end - start);
+        }
+    }
+}
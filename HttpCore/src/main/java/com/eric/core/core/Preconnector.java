@@ -0,0 +1,154 @@
+package com.eric.core.core;
+
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: Preconnector
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 关键host预连接：init后在后台对每个url发HEAD请求完成DNS、TCP和TLS，连接留在连接池中；
+ * 可选按间隔继续发HEAD保活，直到该host出现第一个业务请求或超出时间预算
+ */
+final class Preconnector implements Interceptor {
+    private final List<HttpUrl> urls = new ArrayList<>();
+    private final long intervalMillis;
+    private final long budgetMillis;
+    /**
+     * 已有业务请求的host，不再预连接
+     */
+    private final Set<String> usedHosts = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private OkHttpClient client;
+    private ScheduledExecutorService executor;
+    private long deadline;
+
+    /**
+     * @param urls           预连接的url，只取scheme、host和port，非法url被忽略
+     * @param intervalMillis 保活HEAD请求的间隔，单位毫秒，<=0时只预连接一次
+     * @param budgetMillis   保活的总时长，单位毫秒，超过后停止
+     */
+    Preconnector(List<String> urls, long intervalMillis, long budgetMillis) {
+        if (urls != null) {
+            for (String url : urls) {
+                HttpUrl httpUrl = url == null ? null : HttpUrl.parse(url);
+                if (httpUrl == null) {
+                    continue;
+                }
+                // 只对源站发HEAD，避免触发业务接口
+                HttpUrl origin = httpUrl.newBuilder().encodedPath("/").query(null).fragment(null).username("")
+                        .password("").build();
+                if (!this.urls.contains(origin)) {
+                    this.urls.add(origin);
+                }
+            }
+        }
+        this.intervalMillis = intervalMillis;
+        this.budgetMillis = budgetMillis;
+    }
+
+    synchronized void start(OkHttpClient client) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        this.client = client;
+        this.deadline = SystemClock.elapsedRealtime() + budgetMillis;
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "Http Preconnect");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Runnable connect = new Runnable() {
+            @Override
+            public void run() {
+                connect();
+            }
+        };
+        if (intervalMillis > 0) {
+            executor.scheduleWithFixedDelay(connect, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            executor.execute(connect);
+        }
+    }
+
+    synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.tag(Preconnector.class) == null) {
+            usedHosts.add(key(request.url()));
+        }
+        return chain.proceed(request);
+    }
+
+    private void connect() {
+        OkHttpClient client;
+        synchronized (this) {
+            client = this.client;
+            if (executor == null) {
+                return;
+            }
+            if (intervalMillis > 0 && SystemClock.elapsedRealtime() > deadline) {
+                stop();
+                return;
+            }
+        }
+        boolean isPending = false;
+        for (HttpUrl url : urls) {
+            if (usedHosts.contains(key(url))) {
+                continue;
+            }
+            isPending = true;
+            Request request = new Request.Builder().url(url).head().cacheControl(CacheControl.FORCE_NETWORK).tag
+                    (Preconnector.class, this).build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    // 预连接失败不影响业务请求
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                }
+            });
+        }
+        if (!isPending || intervalMillis <= 0) {
+            stop();
+        }
+    }
+
+    private static String key(HttpUrl url) {
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+}
@@ -0,0 +1,228 @@
+package com.eric.core.core;
+
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: PriorityScheduler
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 位于OkHttp Dispatcher之前的优先级调度：按Dispatcher的总并发和单host并发上限放行，
+ * 排队的请求按"入队时间+优先级×老化时长"从小到大放行，低优先级请求等待足够久后不会被饿死
+ */
+public class PriorityScheduler {
+    /**
+     * 每降低一级优先级相当于晚入队的时长，单位毫秒
+     */
+    static final long AGING_MILLIS = 2000;
+
+    private static final int PRIORITY_COUNT = RequestOptions.PRIORITY_BACKGROUND + 1;
+
+    private final Dispatcher dispatcher;
+    private final List<Pending> pending = new ArrayList<>();
+    private final Map<String, Integer> runningPerHost = new HashMap<>();
+    private int running;
+
+    private final int[] queueDepth = new int[PRIORITY_COUNT];
+    private final long[] admittedCount = new long[PRIORITY_COUNT];
+    private final long[] totalWaitMillis = new long[PRIORITY_COUNT];
+    private final long[] maxWaitMillis = new long[PRIORITY_COUNT];
+
+    PriorityScheduler(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 按优先级排队，有空闲并发时交给Dispatcher执行
+     *
+     * @param call     请求
+     * @param priority 优先级，RequestOptions.PRIORITY_*
+     * @param callback 回调
+     */
+    void enqueue(Call call, int priority, Callback callback) {
+        if (priority < RequestOptions.PRIORITY_CRITICAL || priority > RequestOptions.PRIORITY_BACKGROUND) {
+            priority = RequestOptions.PRIORITY_NORMAL;
+        }
+        Pending p = new Pending(call, priority, callback, SystemClock.elapsedRealtime());
+        synchronized (this) {
+            pending.add(p);
+            queueDepth[priority]++;
+        }
+        promote();
+    }
+
+    /**
+     * 取消排队中的指定tag的请求；合并请求由RequestCoalescer按调用方取消，这里跳过
+     *
+     * @param tag 业务请求编码
+     */
+    void cancelByTag(Object tag) {
+        List<Pending> canceled = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Pending> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Pending p = iterator.next();
+                if (p.call.request().tag(RequestCoalescer.class) == null && tag.equals(p.call.request().tag())) {
+                    iterator.remove();
+                    queueDepth[p.priority]--;
+                    canceled.add(p);
+                }
+            }
+        }
+        for (Pending p : canceled) {
+            p.call.cancel();
+            p.callback.onFailure(p.call, new IOException("Canceled"));
+        }
+    }
+
+    /**
+     * 当前排队中的请求数
+     *
+     * @param priority 优先级，RequestOptions.PRIORITY_*
+     */
+    public synchronized int getQueueDepth(int priority) {
+        return queueDepth[priority];
+    }
+
+    /**
+     * 已放行的请求数
+     *
+     * @param priority 优先级，RequestOptions.PRIORITY_*
+     */
+    public synchronized long getAdmittedCount(int priority) {
+        return admittedCount[priority];
+    }
+
+    /**
+     * 已放行请求的平均排队时长，单位毫秒
+     *
+     * @param priority 优先级，RequestOptions.PRIORITY_*
+     */
+    public synchronized long getAverageWaitMillis(int priority) {
+        return admittedCount[priority] == 0 ? 0 : totalWaitMillis[priority] / admittedCount[priority];
+    }
+
+    /**
+     * 已放行请求的最长排队时长，单位毫秒
+     *
+     * @param priority 优先级，RequestOptions.PRIORITY_*
+     */
+    public synchronized long getMaxWaitMillis(int priority) {
+        return maxWaitMillis[priority];
+    }
+
+    private void promote() {
+        List<Pending> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            while (running < dispatcher.getMaxRequests()) {
+                Pending next = null;
+                for (Pending p : pending) {
+                    if (!p.call.isCanceled() && hostRunning(p.host) >= dispatcher.getMaxRequestsPerHost()) {
+                        continue;
+                    }
+                    if (next == null || p.rank < next.rank) {
+                        next = p;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                pending.remove(next);
+                queueDepth[next.priority]--;
+                if (next.call.isCanceled()) {
+                    ready.add(next);
+                    continue;
+                }
+                long wait = now - next.enqueuedAt;
+                admittedCount[next.priority]++;
+                totalWaitMillis[next.priority] += wait;
+                maxWaitMillis[next.priority] = Math.max(maxWaitMillis[next.priority], wait);
+                running++;
+                runningPerHost.put(next.host, hostRunning(next.host) + 1);
+                next.admitted = true;
+                ready.add(next);
+            }
+        }
+        for (Pending p : ready) {
+            if (!p.admitted) {
+                p.callback.onFailure(p.call, new IOException("Canceled"));
+                continue;
+            }
+            try {
+                p.call.enqueue(p);
+            } catch (IllegalStateException e) {
+                finished(p);
+                p.callback.onFailure(p.call, new IOException(e.getMessage()));
+            }
+        }
+    }
+
+    private int hostRunning(String host) {
+        Integer count = runningPerHost.get(host);
+        return count == null ? 0 : count;
+    }
+
+    private void finished(Pending p) {
+        synchronized (this) {
+            running--;
+            int count = hostRunning(p.host) - 1;
+            if (count <= 0) {
+                runningPerHost.remove(p.host);
+            } else {
+                runningPerHost.put(p.host, count);
+            }
+        }
+        promote();
+    }
+
+    private class Pending implements Callback {
+        final Call call;
+        final int priority;
+        final Callback callback;
+        final long enqueuedAt;
+        final long rank;
+        final String host;
+        boolean admitted;
+
+        Pending(Call call, int priority, Callback callback, long enqueuedAt) {
+            this.call = call;
+            this.priority = priority;
+            this.callback = callback;
+            this.enqueuedAt = enqueuedAt;
+            this.rank = enqueuedAt + priority * AGING_MILLIS;
+            this.host = call.request().url().host();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            try {
+                callback.onFailure(call, e);
+            } finally {
+                finished(this);
+            }
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            try {
+                callback.onResponse(call, response);
+            } finally {
+                finished(this);
+            }
+        }
+    }
+}
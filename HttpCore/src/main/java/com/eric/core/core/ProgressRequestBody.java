@@ -35,6 +35,18 @@ public class ProgressRequestBody extends RequestBody {
      */
 
     private BufferedSink bufferedSink;
+    /**
+     * 进度回调节流，为null时每次写入都回调
+     */
+    private final ProgressThrottle throttle;
+    /**
+     * 当前写入字节数
+     */
+    private long bytesWritten;
+    /**
+     * 是否已回调完成
+     */
+    private boolean isDoneReported;
 
     /**
      * 构造函数，赋值
@@ -43,8 +55,20 @@ public class ProgressRequestBody extends RequestBody {
      * @param uploadListener 回调接口
      */
     public ProgressRequestBody(RequestBody requestBody, UploadListener uploadListener) {
+        this(requestBody, uploadListener, null);
+    }
+
+    /**
+     * 构造函数，进度回调经过节流
+     *
+     * @param requestBody    待包装的请求体
+     * @param uploadListener 回调接口
+     * @param throttle       进度回调节流
+     */
+    public ProgressRequestBody(RequestBody requestBody, UploadListener uploadListener, ProgressThrottle throttle) {
         this.requestBody = requestBody;
         this.uploadListener = uploadListener;
+        this.throttle = throttle;
     }
 
     /**
@@ -85,6 +109,10 @@ public class ProgressRequestBody extends RequestBody {
             requestBody.writeTo(bufferedSink);
             //必须调用flush，否则最后一部分数据可能不会被写入
             bufferedSink.flush();
+            //总长度未知时写入结束也要回调完成
+            if (!isDoneReported) {
+                report(bytesWritten, contentLength(), true);
+            }
         } catch (Exception e) {
         }
 
@@ -98,8 +126,6 @@ public class ProgressRequestBody extends RequestBody {
      */
     private Sink sink(Sink sink) {
         return new ForwardingSink(sink) {
-            //当前写入字节数
-            long bytesWritten = 0L;
             //总字节长度，避免多次调用contentLength()方法
             long contentLength = 0L;
 
@@ -114,13 +140,23 @@ public class ProgressRequestBody extends RequestBody {
                     //增加当前写入的字节数
                     bytesWritten += byteCount;
                     //回调
-                    if (uploadListener != null) {
-                        uploadListener.onProgress(bytesWritten, contentLength, bytesWritten == contentLength);
-                    }
+                    report(bytesWritten, contentLength, bytesWritten == contentLength);
                 } catch (Exception e) {
                 }
 
             }
         };
     }
+
+    /**
+     * 经节流后回调进度接口
+     */
+    private void report(long bytes, long total, boolean isDone) {
+        if (isDone) {
+            isDoneReported = true;
+        }
+        if (uploadListener != null && (throttle == null || throttle.shouldReport(bytes, isDone))) {
+            uploadListener.onProgress(bytes, total, isDone);
+        }
+    }
 }
@@ -33,6 +33,18 @@ public class ProgressResponseBody extends ResponseBody {
      * 包装完成的BufferedSource
      */
     private BufferedSource bufferedSource;
+    /**
+     * 断点续传时已下载的字节数
+     */
+    private final long offset;
+    /**
+     * 整个文件的总字节数，未知时为-1
+     */
+    private final long totalBytes;
+    /**
+     * 进度回调节流，为null时每次读取都回调
+     */
+    private final ProgressThrottle throttle;
 
     /**
      * 构造函数，赋值
@@ -41,8 +53,38 @@ public class ProgressResponseBody extends ResponseBody {
      * @param downLoadListener 回调接口
      */
     public ProgressResponseBody(ResponseBody responseBody, DownLoadListener downLoadListener) {
+        this(responseBody, downLoadListener, 0, responseBody.contentLength());
+    }
+
+    /**
+     * 构造函数，断点续传时进度从offset开始计算
+     *
+     * @param responseBody     待包装的响应体
+     * @param downLoadListener 回调接口
+     * @param offset           已下载的字节数
+     * @param totalBytes       整个文件的总字节数，未知时为-1
+     */
+    public ProgressResponseBody(ResponseBody responseBody, DownLoadListener downLoadListener, long offset, long
+            totalBytes) {
+        this(responseBody, downLoadListener, offset, totalBytes, null);
+    }
+
+    /**
+     * 构造函数，进度回调经过节流
+     *
+     * @param responseBody     待包装的响应体
+     * @param downLoadListener 回调接口
+     * @param offset           已下载的字节数
+     * @param totalBytes       整个文件的总字节数，未知时为-1
+     * @param throttle         进度回调节流
+     */
+    public ProgressResponseBody(ResponseBody responseBody, DownLoadListener downLoadListener, long offset, long
+            totalBytes, ProgressThrottle throttle) {
+        this.throttle = throttle;
         this.responseBody = responseBody;
         this.downLoadListener = downLoadListener;
+        this.offset = offset;
+        this.totalBytes = totalBytes;
     }
 
 
@@ -91,17 +133,18 @@ public class ProgressResponseBody extends ResponseBody {
     private Source source(Source source) {
 
         return new ForwardingSource(source) {
-            //当前读取字节数
-            long totalBytesRead = 0L;
+            //当前读取字节数（包括断点续传已下载部分）
+            long totalBytesRead = offset;
 
             @Override
             public long read(Buffer sink, long byteCount) throws IOException {
                 long bytesRead = super.read(sink, byteCount);
                 //增加当前读取的字节数，如果读取完成了bytesRead会返回-1
                 totalBytesRead += bytesRead != -1 ? bytesRead : 0;
-                //回调，如果contentLength()不知道长度，会返回-1
-                if (downLoadListener != null) {
-                    downLoadListener.onProgress(totalBytesRead, responseBody.contentLength(), bytesRead == -1);
+                //回调，如果不知道总长度，会返回-1
+                boolean isDone = bytesRead == -1;
+                if (downLoadListener != null && (throttle == null || throttle.shouldReport(totalBytesRead, isDone))) {
+                    downLoadListener.onProgress(totalBytesRead, totalBytes, isDone);
                 }
                 return bytesRead;
             }
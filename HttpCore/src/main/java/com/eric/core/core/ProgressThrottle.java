@@ -0,0 +1,62 @@
+package com.eric.core.core;
+
+import android.os.SystemClock;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: ProgressThrottle
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 进度回调节流：距上次回调的字节增量和时间间隔都达到阈值才回调，首次进度立即回调，完成回调有且只有一次
+ */
+public class ProgressThrottle {
+    private final long minBytes;
+    private final long minIntervalMillis;
+
+    private boolean reported;
+    private boolean done;
+    private long lastBytes;
+    private long lastTime;
+
+    /**
+     * @param minBytes          两次回调之间的最小字节增量，<=0时不限制
+     * @param minIntervalMillis 两次回调之间的最小时间间隔，单位毫秒，<=0时不限制
+     */
+    public ProgressThrottle(long minBytes, long minIntervalMillis) {
+        this.minBytes = minBytes;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * 判断本次进度是否需要回调，可在多个线程中调用
+     *
+     * @param bytes  当前已传输字节数
+     * @param isDone 是否传输完成
+     * @return 是否回调
+     */
+    public synchronized boolean shouldReport(long bytes, boolean isDone) {
+        if (done) {
+            return false;
+        }
+        if (isDone) {
+            done = true;
+            return true;
+        }
+        long now = SystemClock.elapsedRealtime();
+        if (reported && (bytes - lastBytes < minBytes || now - lastTime < minIntervalMillis)) {
+            return false;
+        }
+        reported = true;
+        lastBytes = bytes;
+        lastTime = now;
+        return true;
+    }
+
+    /**
+     * 是否已回调过完成
+     */
+    public synchronized boolean isDone() {
+        return done;
+    }
+}
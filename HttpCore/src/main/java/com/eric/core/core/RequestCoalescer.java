@@ -0,0 +1,239 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.WebCallbackListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: RequestCoalescer
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 相同GET请求的合并（single-flight）：请求进行中时，后续相同请求（URL、请求头、解析器均相同）挂到进行中的Call上，
+ * 共用一次响应体读取和解析，结果分别回调给每个调用方；单个调用方取消只解除自身，全部取消后才取消底层Call
+ */
+class RequestCoalescer {
+    private final Map<String, InFlight<?>> inFlights = new HashMap<>();
+
+    /**
+     * 发起或加入进行中的请求
+     *
+     * @param client    OkHttpClient
+     * @param scheduler 优先级调度
+     * @param priority  调度优先级
+     * @param request   GET请求
+     * @param tag       调用方的业务请求编码
+     * @param parser    响应体解析器，只有同一解析器实例的请求才会合并
+     * @param listener  调用方回调
+     * @return 调用方独立的句柄
+     */
+    <T> CallHandle enqueue(OkHttpClient client, PriorityScheduler scheduler, int priority, Request request, Object tag,
+                           ResponseParser<T> parser, WebCallbackListener<T> listener) {
+        String key = key(request);
+        Subscriber<T> subscriber = new Subscriber<>(tag, listener);
+        InFlight<T> inFlight;
+        boolean start = false;
+        synchronized (this) {
+            InFlight<?> existing = inFlights.get(key);
+            if (existing != null && existing.parser == parser) {
+                @SuppressWarnings("unchecked")
+                InFlight<T> joined = (InFlight<T>) existing;
+                inFlight = joined;
+            } else {
+                inFlight = new InFlight<>(key, parser);
+                inFlight.call = client.newCall(request.newBuilder().tag(RequestCoalescer.class, this).build());
+                if (existing == null) {
+                    inFlights.put(key, inFlight);
+                }
+                start = true;
+            }
+            inFlight.subscribers.add(subscriber);
+        }
+        if (start) {
+            scheduler.enqueue(inFlight.call, priority, inFlight);
+        }
+        return new CoalescedCallHandle<>(inFlight, subscriber);
+    }
+
+    /**
+     * 按业务请求编码解除合并请求中的调用方
+     *
+     * @param tag 业务请求编码
+     */
+    void cancelByTag(Object tag) {
+        List<InFlight<?>> list;
+        synchronized (this) {
+            list = new ArrayList<InFlight<?>>(inFlights.values());
+        }
+        for (InFlight<?> inFlight : list) {
+            inFlight.cancelByTag(tag);
+        }
+    }
+
+    private static String key(Request request) {
+        StringBuilder builder = new StringBuilder(request.method()).append(' ').append(request.url());
+        Map<String, List<String>> headers = new TreeMap<>(request.headers().toMultimap());
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            builder.append('\n').append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return builder.toString();
+    }
+
+    private synchronized void remove(InFlight<?> inFlight) {
+        if (inFlights.get(inFlight.key) == inFlight) {
+            inFlights.remove(inFlight.key);
+        }
+    }
+
+    private static class Subscriber<T> {
+        final Object tag;
+        final WebCallbackListener<T> listener;
+        volatile boolean canceled;
+
+        Subscriber(Object tag, WebCallbackListener<T> listener) {
+            this.tag = tag;
+            this.listener = listener;
+        }
+    }
+
+    private class InFlight<T> implements Callback {
+        final String key;
+        final ResponseParser<T> parser;
+        final List<Subscriber<T>> subscribers = new ArrayList<>();
+        Call call;
+
+        InFlight(String key, ResponseParser<T> parser) {
+            this.key = key;
+            this.parser = parser;
+        }
+
+        /**
+         * 取得响应后不再接受新的调用方，返回当前仍有效的调用方
+         */
+        private List<Subscriber<T>> complete() {
+            remove(this);
+            synchronized (RequestCoalescer.this) {
+                List<Subscriber<T>> list = new ArrayList<>();
+                for (Subscriber<T> subscriber : subscribers) {
+                    if (!subscriber.canceled) {
+                        list.add(subscriber);
+                    }
+                }
+                subscribers.clear();
+                return list;
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            for (Subscriber<T> subscriber : complete()) {
+                if (subscriber.listener != null) {
+                    subscriber.listener.onFailure(subscriber.tag, e);
+                }
+            }
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            List<Subscriber<T>> list = complete();
+            if (response.isSuccessful()) {
+                T result;
+                try {
+                    result = parser.parse(response.body());
+                } catch (Exception e) {
+                    for (Subscriber<T> subscriber : list) {
+                        if (subscriber.listener != null) {
+                            subscriber.listener.onFailure(subscriber.tag, e);
+                        }
+                    }
+                    return;
+                } finally {
+                    response.close();
+                }
+                for (Subscriber<T> subscriber : list) {
+                    if (subscriber.listener != null) {
+                        subscriber.listener.onSuccess(subscriber.tag, response.code(), result, response.headers());
+                    }
+                }
+            } else {
+                String data = response.body().string();
+                for (Subscriber<T> subscriber : list) {
+                    if (subscriber.listener != null) {
+                        subscriber.listener.onData(subscriber.tag, response.code(), data);
+                    }
+                }
+            }
+        }
+
+        void cancel(Subscriber<T> subscriber) {
+            boolean cancelCall;
+            synchronized (RequestCoalescer.this) {
+                if (subscriber.canceled || !subscribers.remove(subscriber)) {
+                    return;
+                }
+                subscriber.canceled = true;
+                cancelCall = subscribers.isEmpty();
+                if (cancelCall) {
+                    // 在同一把锁内移除，之后相同的请求不会再加入即将取消的调用
+                    remove(this);
+                }
+            }
+            if (cancelCall) {
+                call.cancel();
+            }
+            if (subscriber.listener != null) {
+                subscriber.listener.onFailure(subscriber.tag, new IOException("Canceled"));
+            }
+        }
+
+        void cancelByTag(Object tag) {
+            List<Subscriber<T>> list = new ArrayList<>();
+            synchronized (RequestCoalescer.this) {
+                for (Subscriber<T> subscriber : subscribers) {
+                    if (tag.equals(subscriber.tag)) {
+                        list.add(subscriber);
+                    }
+                }
+            }
+            for (Subscriber<T> subscriber : list) {
+                cancel(subscriber);
+            }
+        }
+    }
+
+    /**
+     * 合并请求中单个调用方的句柄
+     */
+    private static class CoalescedCallHandle<T> extends CallHandle {
+        private final RequestCoalescer.InFlight<T> inFlight;
+        private final Subscriber<T> subscriber;
+
+        CoalescedCallHandle(RequestCoalescer.InFlight<T> inFlight, Subscriber<T> subscriber) {
+            this.inFlight = inFlight;
+            this.subscriber = subscriber;
+            setCall(inFlight.call);
+        }
+
+        @Override
+        public void cancel() {
+            inFlight.cancel(subscriber);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return subscriber.canceled || super.isCanceled();
+        }
+    }
+}
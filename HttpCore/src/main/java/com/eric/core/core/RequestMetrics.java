@@ -0,0 +1,323 @@
+package com.eric.core.core;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: RequestMetrics
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 请求分阶段耗时统计：全局、按host、按tag分别记录到固定大小的直方图，记录只做几次原子加法，不打印日志；
+ * host或tag数量超过上限后，新出现的只计入全局统计
+ */
+public class RequestMetrics {
+    public static final int PHASE_DNS = 0;
+    public static final int PHASE_CONNECT = 1;
+    public static final int PHASE_TLS = 2;
+    public static final int PHASE_REQUEST = 3;
+    /**
+     * 请求写完到响应头读完
+     */
+    public static final int PHASE_TTFB = 4;
+    public static final int PHASE_RESPONSE_BODY = 5;
+    public static final int PHASE_TOTAL = 6;
+    static final int PHASE_COUNT = 7;
+
+    private final int maxKeys;
+    private final Metrics overall = new Metrics();
+    private final ConcurrentHashMap<String, Metrics> hosts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Metrics> tags = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxKeys host、tag各自最多记录的数量，<=0时只记录全局统计
+     */
+    public RequestMetrics(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    void record(String host, String tag, int phase, long nanos) {
+        overall.phases[phase].record(nanos);
+        Metrics metrics = metrics(hosts, host);
+        if (metrics != null) {
+            metrics.phases[phase].record(nanos);
+        }
+        metrics = metrics(tags, tag);
+        if (metrics != null) {
+            metrics.phases[phase].record(nanos);
+        }
+    }
+
+    void recordCall(String host, String tag, boolean isError) {
+        overall.recordCall(isError);
+        Metrics metrics = metrics(hosts, host);
+        if (metrics != null) {
+            metrics.recordCall(isError);
+        }
+        metrics = metrics(tags, tag);
+        if (metrics != null) {
+            metrics.recordCall(isError);
+        }
+    }
+
+    /**
+     * 全局统计快照
+     */
+    public Snapshot snapshot() {
+        return overall.snapshot();
+    }
+
+    /**
+     * 指定host的统计快照，没有记录时为null
+     */
+    public Snapshot snapshotHost(String host) {
+        Metrics metrics = host == null ? null : hosts.get(host);
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    /**
+     * 指定tag（String.valueOf）的统计快照，没有记录时为null
+     */
+    public Snapshot snapshotTag(Object tag) {
+        Metrics metrics = tag == null ? null : tags.get(String.valueOf(tag));
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    public Set<String> getHosts() {
+        return Collections.unmodifiableSet(hosts.keySet());
+    }
+
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(tags.keySet());
+    }
+
+    public void reset() {
+        overall.reset();
+        hosts.clear();
+        tags.clear();
+    }
+
+    private Metrics metrics(ConcurrentHashMap<String, Metrics> map, String key) {
+        if (key == null) {
+            return null;
+        }
+        Metrics metrics = map.get(key);
+        if (metrics == null) {
+            if (map.size() >= maxKeys) {
+                return null;
+            }
+            metrics = new Metrics();
+            Metrics previous = map.putIfAbsent(key, metrics);
+            if (previous != null) {
+                metrics = previous;
+            }
+        }
+        return metrics;
+    }
+
+    private static final class Metrics {
+        final Histogram[] phases = new Histogram[PHASE_COUNT];
+        final AtomicLong callCount = new AtomicLong();
+        final AtomicLong errorCount = new AtomicLong();
+
+        Metrics() {
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                phases[i] = new Histogram();
+            }
+        }
+
+        void recordCall(boolean isError) {
+            callCount.incrementAndGet();
+            if (isError) {
+                errorCount.incrementAndGet();
+            }
+        }
+
+        Snapshot snapshot() {
+            PhaseSnapshot[] snapshots = new PhaseSnapshot[PHASE_COUNT];
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                snapshots[i] = phases[i].snapshot();
+            }
+            return new Snapshot(callCount.get(), errorCount.get(), snapshots);
+        }
+
+        void reset() {
+            for (Histogram histogram : phases) {
+                histogram.reset();
+            }
+            callCount.set(0);
+            errorCount.set(0);
+        }
+    }
+
+    /**
+     * 指数分桶直方图：第i个桶的上界为10us*1.3^i，共64个桶，覆盖10us到约150s（更长的耗时计入最后一个桶），相对误差不超过30%
+     */
+    static final class Histogram {
+        static final int BUCKET_COUNT = 64;
+        private static final long[] BOUNDS = new long[BUCKET_COUNT];
+
+        static {
+            double bound = TimeUnit.MICROSECONDS.toNanos(10);
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                BOUNDS[i] = (long) bound;
+                bound *= 1.3d;
+            }
+        }
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong sumNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                return;
+            }
+            buckets.incrementAndGet(bucket(nanos));
+            sumNanos.addAndGet(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        PhaseSnapshot snapshot() {
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long max = maxNanos.get();
+            return new PhaseSnapshot(total, total == 0 ? 0 : sumNanos.get() / total, percentile(counts, total,
+                    0.5d, max), percentile(counts, total, 0.95d, max), percentile(counts, total, 0.99d, max), max);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+            sumNanos.set(0);
+            maxNanos.set(0);
+        }
+
+        private static int bucket(long nanos) {
+            int low = 0;
+            int high = BUCKET_COUNT - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (BOUNDS[mid] < nanos) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 返回覆盖该分位的桶上界，不超过记录到的最大值
+         */
+        private static long percentile(long[] counts, long total, double quantile, long max) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(BOUNDS[i], max);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * 一组统计（全局、单个host或单个tag）的快照
+     */
+    public static final class Snapshot {
+        private final long callCount;
+        private final long errorCount;
+        private final PhaseSnapshot[] phases;
+
+        Snapshot(long callCount, long errorCount, PhaseSnapshot[] phases) {
+            this.callCount = callCount;
+            this.errorCount = errorCount;
+            this.phases = phases;
+        }
+
+        /**
+         * 结束的请求数（包括失败）
+         */
+        public long getCallCount() {
+            return callCount;
+        }
+
+        /**
+         * 以异常结束的请求数（不包括收到4xx/5xx响应）
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * @param phase PHASE_*
+         * @return 该阶段的耗时快照
+         */
+        public PhaseSnapshot getPhase(int phase) {
+            return phases[phase];
+        }
+    }
+
+    /**
+     * 单个阶段的耗时快照，单位纳秒；分位数取所在桶的上界
+     */
+    public static final class PhaseSnapshot {
+        private final long count;
+        private final long meanNanos;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        PhaseSnapshot(long count, long meanNanos, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+            this.count = count;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
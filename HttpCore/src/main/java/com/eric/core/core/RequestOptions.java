@@ -0,0 +1,94 @@
+package com.eric.core.core;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: RequestOptions
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 单个请求的可选项
+ */
+public class RequestOptions {
+    /**
+     * 按服务端缓存头处理（默认）
+     */
+    public static final int CACHE_DEFAULT = 0;
+    /**
+     * 只走网络，不读也不写缓存
+     */
+    public static final int CACHE_NETWORK_ONLY = 1;
+    /**
+     * 优先使用缓存（即使已过期），缓存不存在时走网络
+     */
+    public static final int CACHE_FIRST = 2;
+    /**
+     * 有网络时按服务端缓存头处理，无网络时只读缓存，缓存不存在返回504
+     */
+    public static final int CACHE_ONLY_OFFLINE = 3;
+    /**
+     * 强制向服务端校验缓存（条件请求），未修改时使用缓存
+     */
+    public static final int CACHE_FORCE_REVALIDATE = 4;
+
+    /**
+     * 最高优先级，用于当前可见页面等待的请求
+     */
+    public static final int PRIORITY_CRITICAL = 0;
+    /**
+     * 普通优先级（默认）
+     */
+    public static final int PRIORITY_NORMAL = 1;
+    /**
+     * 后台优先级，用于预取、下载等
+     */
+    public static final int PRIORITY_BACKGROUND = 2;
+
+    /**
+     * 缓存策略
+     */
+    private int cachePolicy = CACHE_DEFAULT;
+    /**
+     * 已解析实体在内存缓存中的有效时长，单位毫秒，<=0时不使用内存缓存
+     */
+    private long objectCacheTtl;
+    /**
+     * 是否与进行中的相同GET请求合并，共用一次响应
+     */
+    private boolean isCoalesce;
+    /**
+     * 调度优先级
+     */
+    private int priority = PRIORITY_NORMAL;
+
+    public int getCachePolicy() {
+        return cachePolicy;
+    }
+
+    public void setCachePolicy(int cachePolicy) {
+        this.cachePolicy = cachePolicy;
+    }
+
+    public long getObjectCacheTtl() {
+        return objectCacheTtl;
+    }
+
+    public void setObjectCacheTtl(long objectCacheTtl) {
+        this.objectCacheTtl = objectCacheTtl;
+    }
+
+    public boolean isCoalesce() {
+        return isCoalesce;
+    }
+
+    public void setCoalesce(boolean coalesce) {
+        isCoalesce = coalesce;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
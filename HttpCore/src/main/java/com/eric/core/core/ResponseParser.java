@@ -0,0 +1,23 @@
+package com.eric.core.core;
+
+import okhttp3.ResponseBody;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: ResponseParser
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 响应体解析接口，在网络线程直接从响应流解析出目标实体，避免先转为String
+ */
+public interface ResponseParser<T> {
+
+    /**
+     * 解析成功响应的响应体，调用方负责关闭响应体
+     *
+     * @param body 响应体
+     * @return 解析结果
+     * @throws Exception 解析异常，会回调到onFailure
+     */
+    T parse(ResponseBody body) throws Exception;
+}
@@ -0,0 +1,341 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.DownLoadListener;
+import com.eric.core.lnterceptor.ProgressInterceptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: SegmentedDownloader
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 多连接分段下载：先以Range: bytes=0-0探测服务端是否支持断点及文件总长度，支持时预分配目标文件，
+ * 按字节区间拆成多段并发下载，各段写入文件对应偏移，进度合并后回调；服务端不支持Range时直接按单连接写入探测响应
+ */
+class SegmentedDownloader extends CallHandle {
+    /**
+     * 每段最小字节数，文件较小时减少分段数，避免连接开销大于收益
+     */
+    static final long MIN_SEGMENT_BYTES = 256 * 1024;
+
+    private final OkHttpClient client;
+    private final PriorityScheduler scheduler;
+    private final Request request;
+    private final Object tag;
+    private final File file;
+    private final int segments;
+    private final int chunkSize;
+    private final ProgressThrottle throttle;
+    private final DownLoadListener listener;
+
+    private final List<Call> calls = new ArrayList<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final AtomicLong downloaded = new AtomicLong();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile boolean canceled;
+    private volatile long totalBytes = -1;
+
+    /**
+     * @param client    OkHttpClient
+     * @param scheduler 优先级调度
+     * @param request   下载请求（已包含url参数及请求头）
+     * @param tag       业务请求编码
+     * @param file      目标文件
+     * @param segments  期望的分段数
+     * @param chunkSize 写文件的块大小
+     * @param throttle  合并进度的回调节流
+     * @param listener  回调监听
+     */
+    SegmentedDownloader(OkHttpClient client, PriorityScheduler scheduler, Request request, Object tag, File file, int
+            segments, int chunkSize, ProgressThrottle throttle, DownLoadListener listener) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.request = request;
+        this.tag = tag;
+        this.file = file;
+        this.segments = segments < 1 ? 1 : segments;
+        this.chunkSize = chunkSize;
+        this.throttle = throttle;
+        this.listener = listener;
+    }
+
+    /**
+     * 发起探测请求
+     */
+    void start() {
+        Call probe = newCall(request.newBuilder().header("Range", "bytes=0-0").build());
+        if (probe == null) {
+            return;
+        }
+        scheduler.enqueue(probe, RequestOptions.PRIORITY_BACKGROUND, new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                fail(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    onProbe(response);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    private void onProbe(Response response) {
+        if (!response.isSuccessful()) {
+            failWithData(response);
+            return;
+        }
+        long[] range = response.code() == 206 ? ProgressInterceptor.parseContentRange(response.header
+                ("Content-Range")) : null;
+        if (range == null || range[1] < 0) {
+            if (response.code() == 206) {
+                // 支持Range但未给出总长度，无法拆分，改用单连接完整下载
+                startSingle();
+                return;
+            }
+            // 服务端忽略了Range，探测响应即完整内容
+            totalBytes = response.body().contentLength();
+            remaining.set(1);
+            try {
+                truncate(0);
+                write(response, 0, -1);
+                complete(response.code());
+            } catch (IOException e) {
+                fail(e);
+            }
+            return;
+        }
+        long total = range[1];
+        totalBytes = total;
+        int count = (int) Math.max(1, Math.min(segments, total / MIN_SEGMENT_BYTES));
+        try {
+            truncate(total);
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        if (total == 0) {
+            remaining.set(1);
+            complete(200);
+            return;
+        }
+        remaining.set(count);
+        long size = total / count;
+        for (int i = 0; i < count; i++) {
+            long start = i * size;
+            long end = i == count - 1 ? total - 1 : start + size - 1;
+            startSegment(start, end);
+        }
+    }
+
+    private void startSingle() {
+        Call call = newCall(request);
+        if (call == null) {
+            return;
+        }
+        remaining.set(1);
+        scheduler.enqueue(call, RequestOptions.PRIORITY_BACKGROUND, new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                fail(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    if (!response.isSuccessful()) {
+                        failWithData(response);
+                        return;
+                    }
+                    totalBytes = response.body().contentLength();
+                    truncate(0);
+                    write(response, 0, -1);
+                    complete(response.code());
+                } catch (IOException e) {
+                    fail(e);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    private void startSegment(final long start, final long end) {
+        Call call = newCall(request.newBuilder().header("Range", "bytes=" + start + "-" + end).build());
+        if (call == null) {
+            return;
+        }
+        scheduler.enqueue(call, RequestOptions.PRIORITY_BACKGROUND, new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                fail(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    if (!response.isSuccessful()) {
+                        failWithData(response);
+                        return;
+                    }
+                    long[] range = ProgressInterceptor.parseContentRange(response.header("Content-Range"));
+                    if (response.code() != 206 || range == null || range[0] != start) {
+                        fail(new IOException("server returned unexpected range for bytes=" + start + "-" + end));
+                        return;
+                    }
+                    write(response, start, end - start + 1);
+                    complete(200);
+                } catch (IOException e) {
+                    fail(e);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * 将响应体写入目标文件的指定偏移，每段使用独立的文件通道
+     *
+     * @param response 响应
+     * @param offset   写入起始偏移
+     * @param length   期望长度，-1表示读到结束
+     */
+    private void write(Response response, long offset, long length) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            long written = DownloadWriter.write(response.body().source(), out.getChannel(), offset, length, chunkSize,
+                    new DownloadWriter.Listener() {
+                        @Override
+                        public void onWrite(long bytes) {
+                            long current = downloaded.addAndGet(bytes);
+                            if (listener != null && !finished.get() && throttle.shouldReport(current, false)) {
+                                listener.onProgress(current, totalBytes, false);
+                            }
+                        }
+                    });
+            if (length >= 0 && written < length) {
+                throw new IOException("unexpected end of stream at " + (offset + written));
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void truncate(long length) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(length);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void complete(int httpCode) {
+        if (remaining.decrementAndGet() != 0 || !finished.compareAndSet(false, true)) {
+            return;
+        }
+        if (listener != null) {
+            long current = downloaded.get();
+            listener.onProgress(current, totalBytes < 0 ? current : totalBytes, true);
+            listener.onSuccess(tag, httpCode, file);
+        }
+    }
+
+    private void fail(Exception e) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        cancelCalls();
+        file.delete();
+        if (listener != null) {
+            listener.onFailure(tag, e);
+        }
+    }
+
+    private void failWithData(Response response) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        cancelCalls();
+        file.delete();
+        String data;
+        try {
+            data = response.body().string();
+        } catch (IOException e) {
+            data = null;
+        }
+        if (listener != null) {
+            listener.onData(tag, response.code(), data);
+        }
+    }
+
+    /**
+     * 创建Call并登记，已取消时回调失败并返回null
+     */
+    private Call newCall(Request request) {
+        Call call = client.newCall(request);
+        synchronized (calls) {
+            if (!canceled) {
+                calls.add(call);
+                return call;
+            }
+        }
+        fail(new IOException("Canceled"));
+        return null;
+    }
+
+    private void cancelCalls() {
+        List<Call> list;
+        synchronized (calls) {
+            list = new ArrayList<>(calls);
+        }
+        for (Call call : list) {
+            call.cancel();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (calls) {
+            canceled = true;
+        }
+        cancelCalls();
+    }
+
+    @Override
+    public boolean isExecuted() {
+        synchronized (calls) {
+            for (Call call : calls) {
+                if (call.isExecuted()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+}
@@ -0,0 +1,137 @@
+package com.eric.core.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * @author li
+ * @Package com.eric.core.core
+ * @Title: SourceRequestBody
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * FileEntity各数据来源对应的请求体，直接写入BufferedSink，不经过临时文件或中间byte[]
+ */
+final class SourceRequestBody {
+
+    private SourceRequestBody() {
+    }
+
+    /**
+     * 内存数据请求体，每次写入使用duplicate，可重复写入（重试、重定向）
+     */
+    static RequestBody create(final MediaType mediaType, final ByteBuffer buffer) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return buffer.remaining();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                ByteBuffer source = buffer.duplicate();
+                while (source.hasRemaining()) {
+                    sink.write(source);
+                }
+            }
+        };
+    }
+
+    /**
+     * 文件段请求体，通过FileChannel.transferTo写入（非文件目标时由系统按mmap分块传输）
+     *
+     * @param length 长度，-1表示从offset到文件末尾
+     */
+    static RequestBody create(final MediaType mediaType, final File file, final long offset, final long length) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                if (length >= 0) {
+                    return length;
+                }
+                return Math.max(0, file.length() - offset);
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                long count = contentLength();
+                RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                try {
+                    FileChannel channel = randomAccessFile.getChannel();
+                    if (offset + count > channel.size()) {
+                        throw new IOException("range exceeds file length: " + file.getAbsolutePath());
+                    }
+                    long position = offset;
+                    long end = offset + count;
+                    while (position < end) {
+                        long transferred = channel.transferTo(position, end - position, sink);
+                        if (transferred <= 0) {
+                            throw new IOException("unexpected end of file: " + file.getAbsolutePath());
+                        }
+                        position += transferred;
+                    }
+                } finally {
+                    randomAccessFile.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * 输入流请求体，length为-1时按chunked方式传输；流在写入结束后关闭，只能写入一次
+     */
+    static RequestBody create(final MediaType mediaType, final InputStream stream, final long length) {
+        return new RequestBody() {
+            private boolean isConsumed;
+
+            @Override
+            public MediaType contentType() {
+                return mediaType;
+            }
+
+            @Override
+            public long contentLength() {
+                return length;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                synchronized (this) {
+                    if (isConsumed) {
+                        throw new IOException("stream request body can only be written once");
+                    }
+                    isConsumed = true;
+                }
+                Source source = Okio.source(stream);
+                try {
+                    if (length < 0) {
+                        sink.writeAll(source);
+                    } else {
+                        sink.write(source, length);
+                    }
+                } finally {
+                    source.close();
+                }
+            }
+        };
+    }
+}
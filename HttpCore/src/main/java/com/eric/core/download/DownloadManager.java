@@ -0,0 +1,417 @@
+package com.eric.core.download;
+
+import com.eric.core.core.CallHandle;
+import com.eric.core.core.DownloadJournal;
+import com.eric.core.core.HttpClientManager;
+import com.eric.core.listener.DownLoadListener;
+import com.eric.core.listener.DownloadManagerListener;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author li
+ * @Package com.eric.core.download
+ * @Title: DownloadManager
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载管理器：基于HttpClientManager的断点续传下载，限制同时传输的任务数，任务持久化到目录中，
+ * 支持按id或tag暂停、恢复、取消，同一URL和目标路径只保留一个任务；进程重启后调用start()恢复未完成的任务
+ */
+public class DownloadManager {
+    /**
+     * 默认同时传输的任务数
+     */
+    public static final int DEFAULT_MAX_CONCURRENT = 3;
+
+    private final DownloadStore store;
+
+    private final Map<String, DownloadTask> tasks = new LinkedHashMap<>();
+
+    private final Map<String, CallHandle> handles = new HashMap<>();
+
+    private final List<DownloadManagerListener> listeners = new CopyOnWriteArrayList<>();
+
+    private int maxConcurrent;
+
+    private boolean isStarted;
+
+    private boolean isShutdown;
+
+    /**
+     * 创建下载管理器并读取已持久化的任务，进程退出前下载中的任务恢复为排队
+     *
+     * @param storeDir      任务持久化目录
+     * @param maxConcurrent 同时传输的任务数
+     */
+    public DownloadManager(File storeDir, int maxConcurrent) {
+        this.store = new DownloadStore(storeDir);
+        this.maxConcurrent = maxConcurrent < 1 ? 1 : maxConcurrent;
+        for (DownloadTask task : store.loadAll()) {
+            if (task.getState() == DownloadTask.STATE_RUNNING) {
+                task.setState(DownloadTask.STATE_QUEUED);
+            }
+            tasks.put(task.getId(), task);
+        }
+    }
+
+    /**
+     * 开始调度，恢复排队中的任务；调用前enqueue的任务只排队不下载，便于先注册监听
+     */
+    public void start() {
+        synchronized (this) {
+            isStarted = true;
+        }
+        promote();
+    }
+
+    /**
+     * 停止全部传输但保留任务状态（如应用退出），已下载部分和断点日志保留，下次创建后start()继续
+     */
+    public void shutdown() {
+        List<CallHandle> list;
+        synchronized (this) {
+            isShutdown = true;
+            list = new ArrayList<>(handles.values());
+            handles.clear();
+        }
+        for (CallHandle handle : list) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * 添加下载任务，同一URL和目标路径的任务已存在时返回已有任务的id，已暂停或失败的已有任务会重新排队
+     *
+     * @param url      下载地址（可包含url参数）
+     * @param destPath 下载后存储的目标路径
+     * @param headers  http请求头
+     * @param tag      任务分组标识，可用于按tag暂停、恢复、取消，可为null
+     * @return 任务id
+     */
+    public String enqueue(String url, String destPath, Map<String, String> headers, String tag) {
+        DownloadTask task = null;
+        synchronized (this) {
+            for (DownloadTask existing : tasks.values()) {
+                if (existing.isSame(url, destPath)) {
+                    task = existing;
+                    break;
+                }
+            }
+            if (task != null) {
+                int state = task.getState();
+                if (state == DownloadTask.STATE_COMPLETED && !new File(destPath).exists()) {
+                    task.setDownloadedBytes(0);
+                    state = DownloadTask.STATE_FAILED;
+                }
+                if (state != DownloadTask.STATE_PAUSED && state != DownloadTask.STATE_FAILED) {
+                    return task.getId();
+                }
+                task.setState(DownloadTask.STATE_QUEUED);
+            } else {
+                task = new DownloadTask();
+                task.setId(UUID.randomUUID().toString());
+                task.setUrl(url);
+                task.setDestPath(destPath);
+                task.setTag(tag);
+                if (headers != null) {
+                    task.setHeaders(new HashMap<>(headers));
+                }
+                task.setCreateTime(System.currentTimeMillis());
+                tasks.put(task.getId(), task);
+            }
+            store.save(task);
+        }
+        notifyStateChanged(task);
+        promote();
+        return task.getId();
+    }
+
+    /**
+     * 暂停任务，已下载部分保留
+     *
+     * @param id 任务id
+     */
+    public void pause(String id) {
+        CallHandle handle;
+        DownloadTask task;
+        synchronized (this) {
+            task = tasks.get(id);
+            if (task == null || (task.getState() != DownloadTask.STATE_QUEUED && task.getState() != DownloadTask
+                    .STATE_RUNNING)) {
+                return;
+            }
+            task.setState(DownloadTask.STATE_PAUSED);
+            handle = handles.remove(id);
+            store.save(task);
+        }
+        if (handle != null) {
+            handle.cancel();
+        }
+        notifyStateChanged(task);
+        promote();
+    }
+
+    /**
+     * 恢复已暂停或失败的任务
+     *
+     * @param id 任务id
+     */
+    public void resume(String id) {
+        DownloadTask task;
+        synchronized (this) {
+            task = tasks.get(id);
+            if (task == null || (task.getState() != DownloadTask.STATE_PAUSED && task.getState() != DownloadTask
+                    .STATE_FAILED)) {
+                return;
+            }
+            task.setState(DownloadTask.STATE_QUEUED);
+            store.save(task);
+        }
+        notifyStateChanged(task);
+        promote();
+    }
+
+    /**
+     * 取消任务并删除任务记录；未完成的任务同时删除已下载部分和断点日志，已完成的文件保留
+     *
+     * @param id 任务id
+     */
+    public void cancel(String id) {
+        CallHandle handle;
+        DownloadTask task;
+        int state;
+        synchronized (this) {
+            task = tasks.remove(id);
+            if (task == null) {
+                return;
+            }
+            state = task.getState();
+            task.setState(DownloadTask.STATE_CANCELED);
+            handle = handles.remove(id);
+            store.delete(id);
+        }
+        if (handle != null) {
+            handle.cancel();
+        }
+        if (state != DownloadTask.STATE_COMPLETED) {
+            File file = new File(task.getDestPath());
+            file.delete();
+            DownloadJournal.forFile(file).delete();
+        }
+        notifyStateChanged(task);
+        promote();
+    }
+
+    public void pauseByTag(String tag) {
+        for (String id : idsByTag(tag)) {
+            pause(id);
+        }
+    }
+
+    public void resumeByTag(String tag) {
+        for (String id : idsByTag(tag)) {
+            resume(id);
+        }
+    }
+
+    public void cancelByTag(String tag) {
+        for (String id : idsByTag(tag)) {
+            cancel(id);
+        }
+    }
+
+    public synchronized DownloadTask getTask(String id) {
+        return tasks.get(id);
+    }
+
+    public synchronized List<DownloadTask> getTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * 全部任务已下载字节数之和
+     */
+    public synchronized long getDownloadedBytes() {
+        long sum = 0;
+        for (DownloadTask task : tasks.values()) {
+            sum += task.getDownloadedBytes();
+        }
+        return sum;
+    }
+
+    /**
+     * 全部已知总长度的任务的总字节数之和
+     */
+    public synchronized long getTotalBytes() {
+        long sum = 0;
+        for (DownloadTask task : tasks.values()) {
+            if (task.getTotalBytes() > 0) {
+                sum += task.getTotalBytes();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 修改同时传输的任务数，调大时立即启动排队中的任务，调小时不中断正在下载的任务
+     *
+     * @param maxConcurrent 同时传输的任务数
+     */
+    public void setMaxConcurrent(int maxConcurrent) {
+        synchronized (this) {
+            this.maxConcurrent = maxConcurrent < 1 ? 1 : maxConcurrent;
+        }
+        promote();
+    }
+
+    public void addListener(DownloadManagerListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DownloadManagerListener listener) {
+        listeners.remove(listener);
+    }
+
+    private synchronized List<String> idsByTag(String tag) {
+        List<String> ids = new ArrayList<>();
+        for (DownloadTask task : tasks.values()) {
+            if (tag == null ? task.getTag() == null : tag.equals(task.getTag())) {
+                ids.add(task.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 在并发数限制内按添加顺序启动排队中的任务
+     */
+    private void promote() {
+        List<TaskListener> starts = new ArrayList<>();
+        synchronized (this) {
+            if (!isStarted || isShutdown) {
+                return;
+            }
+            int running = 0;
+            for (DownloadTask task : tasks.values()) {
+                if (task.getState() == DownloadTask.STATE_RUNNING) {
+                    running++;
+                }
+            }
+            for (DownloadTask task : tasks.values()) {
+                if (running >= maxConcurrent) {
+                    break;
+                }
+                if (task.getState() == DownloadTask.STATE_QUEUED) {
+                    task.setState(DownloadTask.STATE_RUNNING);
+                    task.setHttpCode(0);
+                    task.attempt++;
+                    store.save(task);
+                    starts.add(new TaskListener(task, task.attempt));
+                    running++;
+                }
+            }
+        }
+        for (TaskListener start : starts) {
+            DownloadTask task = start.task;
+            notifyStateChanged(task);
+            // 以任务id作为网络请求标识，HttpClientManager.cancelByTag不会误取消下载任务
+            CallHandle handle = HttpClientManager.getInstance().asyncDownLoad(task.getUrl(), task.getId(), task
+                    .getDestPath(), task.getHeaders(), null, start, true);
+            synchronized (this) {
+                if (task.attempt == start.attempt && task.getState() == DownloadTask.STATE_RUNNING && !isShutdown) {
+                    handles.put(task.getId(), handle);
+                    continue;
+                }
+            }
+            // 启动期间已被暂停、取消或已结束
+            handle.cancel();
+        }
+    }
+
+    /**
+     * 结束一次传输，仍是当前传输时更新状态
+     *
+     * @return 是否为当前传输
+     */
+    private boolean finish(DownloadTask task, int attempt, int state, int httpCode) {
+        synchronized (this) {
+            if (isShutdown || task.attempt != attempt || task.getState() != DownloadTask.STATE_RUNNING) {
+                return false;
+            }
+            task.setState(state);
+            task.setHttpCode(httpCode);
+            handles.remove(task.getId());
+            store.save(task);
+        }
+        notifyStateChanged(task);
+        promote();
+        return true;
+    }
+
+    private void notifyStateChanged(DownloadTask task) {
+        for (DownloadManagerListener listener : listeners) {
+            listener.onStateChanged(task);
+        }
+    }
+
+    /**
+     * 单个任务的下载回调
+     */
+    private class TaskListener implements DownLoadListener {
+        private final DownloadTask task;
+        private final int attempt;
+
+        TaskListener(DownloadTask task, int attempt) {
+            this.task = task;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void onSuccess(Object tag, int httpCode, File file) {
+            synchronized (DownloadManager.this) {
+                if (task.getTotalBytes() < 0) {
+                    task.setTotalBytes(file.length());
+                }
+                task.setDownloadedBytes(file.length());
+            }
+            finish(task, attempt, DownloadTask.STATE_COMPLETED, 0);
+        }
+
+        @Override
+        public void onData(Object tag, int httpCode, String data) {
+            finish(task, attempt, DownloadTask.STATE_FAILED, httpCode);
+        }
+
+        @Override
+        public void onFailure(Object tag, Exception e) {
+            finish(task, attempt, DownloadTask.STATE_FAILED, 0);
+        }
+
+        @Override
+        public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
+            long downloaded;
+            long total;
+            synchronized (DownloadManager.this) {
+                if (isShutdown || task.attempt != attempt || task.getState() != DownloadTask.STATE_RUNNING) {
+                    return;
+                }
+                task.setDownloadedBytes(bytesWrite);
+                if (totalBytes >= 0) {
+                    task.setTotalBytes(totalBytes);
+                }
+                downloaded = getDownloadedBytes();
+                total = getTotalBytes();
+            }
+            for (DownloadManagerListener listener : listeners) {
+                listener.onProgress(task, downloaded, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.eric.core.download;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * @author li
+ * @Package com.eric.core.download
+ * @Title: DownloadStore
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载任务持久化，每个任务一个"任务id.task"文件，先写临时文件再重命名
+ */
+class DownloadStore {
+    private static final String SUFFIX = ".task";
+    private static final String HEADER_PREFIX = "header.";
+
+    private static final String KEY_ID = "id";
+    private static final String KEY_URL = "url";
+    private static final String KEY_DEST_PATH = "destPath";
+    private static final String KEY_TAG = "tag";
+    private static final String KEY_STATE = "state";
+    private static final String KEY_DOWNLOADED = "downloadedBytes";
+    private static final String KEY_TOTAL = "totalBytes";
+    private static final String KEY_HTTP_CODE = "httpCode";
+    private static final String KEY_CREATE_TIME = "createTime";
+
+    private final File dir;
+
+    DownloadStore(File dir) {
+        this.dir = dir;
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+    }
+
+    /**
+     * 读取全部任务，按创建时间排序；内容损坏的任务文件直接丢弃
+     */
+    List<DownloadTask> loadAll() {
+        List<DownloadTask> tasks = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return tasks;
+        }
+        for (File file : files) {
+            if (!file.getName().endsWith(SUFFIX)) {
+                continue;
+            }
+            DownloadTask task = load(file);
+            if (task == null) {
+                file.delete();
+            } else {
+                tasks.add(task);
+            }
+        }
+        Collections.sort(tasks, new Comparator<DownloadTask>() {
+            @Override
+            public int compare(DownloadTask o1, DownloadTask o2) {
+                return o1.getCreateTime() < o2.getCreateTime() ? -1 : (o1.getCreateTime() == o2.getCreateTime() ? 0 : 1);
+            }
+        });
+        return tasks;
+    }
+
+    void save(DownloadTask task) {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_ID, task.getId());
+        properties.setProperty(KEY_URL, task.getUrl());
+        properties.setProperty(KEY_DEST_PATH, task.getDestPath());
+        if (task.getTag() != null) {
+            properties.setProperty(KEY_TAG, task.getTag());
+        }
+        properties.setProperty(KEY_STATE, String.valueOf(task.getState()));
+        properties.setProperty(KEY_DOWNLOADED, String.valueOf(task.getDownloadedBytes()));
+        properties.setProperty(KEY_TOTAL, String.valueOf(task.getTotalBytes()));
+        properties.setProperty(KEY_HTTP_CODE, String.valueOf(task.getHttpCode()));
+        properties.setProperty(KEY_CREATE_TIME, String.valueOf(task.getCreateTime()));
+        for (Map.Entry<String, String> entry : task.getHeaders().entrySet()) {
+            properties.setProperty(HEADER_PREFIX + entry.getKey(), entry.getValue() == null ? "" : entry.getValue());
+        }
+        File file = file(task.getId());
+        File tmp = new File(file.getPath() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tmp);
+            properties.store(out, null);
+            out.close();
+            out = null;
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            // 持久化失败不影响本次下载，仅重启后无法恢复该任务
+            tmp.delete();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    void delete(String id) {
+        file(id).delete();
+    }
+
+    private File file(String id) {
+        return new File(dir, id + SUFFIX);
+    }
+
+    private static DownloadTask load(File file) {
+        Properties properties = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            properties.load(in);
+            DownloadTask task = new DownloadTask();
+            task.setId(properties.getProperty(KEY_ID));
+            task.setUrl(properties.getProperty(KEY_URL));
+            task.setDestPath(properties.getProperty(KEY_DEST_PATH));
+            task.setTag(properties.getProperty(KEY_TAG));
+            task.setState(Integer.parseInt(properties.getProperty(KEY_STATE)));
+            task.setDownloadedBytes(Long.parseLong(properties.getProperty(KEY_DOWNLOADED, "0")));
+            task.setTotalBytes(Long.parseLong(properties.getProperty(KEY_TOTAL, "-1")));
+            task.setHttpCode(Integer.parseInt(properties.getProperty(KEY_HTTP_CODE, "0")));
+            task.setCreateTime(Long.parseLong(properties.getProperty(KEY_CREATE_TIME, "0")));
+            Map<String, String> headers = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(HEADER_PREFIX)) {
+                    headers.put(name.substring(HEADER_PREFIX.length()), properties.getProperty(name));
+                }
+            }
+            task.setHeaders(headers);
+            if (task.getId() == null || task.getUrl() == null || task.getDestPath() == null) {
+                return null;
+            }
+            return task;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+}
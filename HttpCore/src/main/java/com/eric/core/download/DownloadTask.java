@@ -0,0 +1,148 @@
+package com.eric.core.download;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author li
+ * @Package com.eric.core.download
+ * @Title: DownloadTask
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载任务，由DownloadManager创建和维护状态，持久化后进程重启可恢复
+ */
+public class DownloadTask {
+    /**
+     * 排队中
+     */
+    public static final int STATE_QUEUED = 0;
+    /**
+     * 下载中
+     */
+    public static final int STATE_RUNNING = 1;
+    /**
+     * 已暂停，已下载部分保留
+     */
+    public static final int STATE_PAUSED = 2;
+    /**
+     * 下载完成
+     */
+    public static final int STATE_COMPLETED = 3;
+    /**
+     * 下载失败，已下载部分保留，可恢复
+     */
+    public static final int STATE_FAILED = 4;
+    /**
+     * 已取消，任务及已下载部分已删除
+     */
+    public static final int STATE_CANCELED = 5;
+
+    private String id;
+    private String url;
+    private String destPath;
+    private String tag;
+    private Map<String, String> headers = new HashMap<>();
+    private int state = STATE_QUEUED;
+    private long downloadedBytes;
+    private long totalBytes = -1;
+    /**
+     * 失败时的http响应码，网络异常时为0
+     */
+    private int httpCode;
+    private long createTime;
+
+    /**
+     * 本次启动的传输序号，用于丢弃已暂停或取消的旧传输的迟到回调，不持久化
+     */
+    int attempt;
+
+    DownloadTask() {
+    }
+
+    /**
+     * 是否为同一URL和目标路径的下载
+     */
+    boolean isSame(String url, String destPath) {
+        return this.url.equals(url) && this.destPath.equals(destPath);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getDestPath() {
+        return destPath;
+    }
+
+    void setDestPath(String destPath) {
+        this.destPath = destPath;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    void setState(int state) {
+        this.state = state;
+    }
+
+    public long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    void setDownloadedBytes(long downloadedBytes) {
+        this.downloadedBytes = downloadedBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public int getHttpCode() {
+        return httpCode;
+    }
+
+    void setHttpCode(int httpCode) {
+        this.httpCode = httpCode;
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    void setCreateTime(long createTime) {
+        this.createTime = createTime;
+    }
+}
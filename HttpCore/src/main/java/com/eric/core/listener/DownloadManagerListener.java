@@ -0,0 +1,30 @@
+package com.eric.core.listener;
+
+import com.eric.core.download.DownloadTask;
+
+/**
+ * @author li
+ * @Package com.eric.core.listener
+ * @Title: DownloadManagerListener
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载管理器监听接口，回调在网络线程
+ */
+public interface DownloadManagerListener {
+
+    /**
+     * 任务状态变化
+     *
+     * @param task 下载任务，状态见DownloadTask.STATE_*
+     */
+    void onStateChanged(DownloadTask task);
+
+    /**
+     * 任务进度回调
+     *
+     * @param task            下载任务
+     * @param downloadedBytes 全部任务已下载字节数之和
+     * @param totalBytes      全部已知总长度的任务的总字节数之和
+     */
+    void onProgress(DownloadTask task, long downloadedBytes, long totalBytes);
+}
@@ -1,15 +1,26 @@
 package com.eric.core.lnterceptor;
 
+import android.os.Debug;
+
+import com.eric.core.core.CompressionStats;
+
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.Buffer;
 import okio.BufferedSink;
-import okio.GzipSink;
+import okio.ForwardingSink;
 import okio.Okio;
+import okio.Sink;
 
 /**
  * @author li
@@ -17,31 +28,147 @@ import okio.Okio;
  * @Title: GZipInterceptor
  * @Description: Copyright (c)
  * Create DateTime: 2017/10/25
- * GZIP处理http报文
+ * 压缩请求体：请求头带Content-Encoding: gzip/deflate时生效。
+ * 只压缩可压缩类型且不小于阈值的请求体，否则去掉Content-Encoding按原样发送；
+ * 不超过缓冲上限的请求体在内存中压缩，保留真实的Content-Length，其余按chunked方式边压缩边发送；
+ * 长度未知的请求体（如JsonRequestBody）先试写入内存，不超过缓冲上限时按已知长度处理，超过时再次写出并流式压缩
  */
 public class GZipInterceptor implements Interceptor {
+    public static final String ENCODING_GZIP = "gzip";
+    public static final String ENCODING_DEFLATE = "deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final long minSize;
+    private final long maxBufferSize;
+    private final int level;
+    private final CompressionStats stats;
+
+    /**
+     * @param minSize       最小压缩长度，单位字节，已知长度小于该值时不压缩
+     * @param maxBufferSize 内存压缩的最大长度，单位字节，超过时按chunked方式发送
+     * @param level         压缩级别，0~9，-1为默认级别
+     * @param stats         压缩统计，可为null
+     * @throws IllegalArgumentException 压缩级别超出范围
+     */
+    public GZipInterceptor(long minSize, long maxBufferSize, int level, CompressionStats stats) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compress level is illegal: " + level);
+        }
+        this.minSize = minSize;
+        this.maxBufferSize = maxBufferSize;
+        this.level = level;
+        this.stats = stats;
+    }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request originalRequest = chain.request();
-        if (originalRequest.body() == null) {
+        RequestBody body = originalRequest.body();
+        String encoding = originalRequest.header("Content-Encoding");
+        if (body == null || encoding == null) {
             return chain.proceed(originalRequest);
         }
-
-        if (originalRequest.header("Content-Encoding") == null) {
+        encoding = encoding.trim().toLowerCase(Locale.US);
+        if (!ENCODING_GZIP.equals(encoding) && !ENCODING_DEFLATE.equals(encoding)) {
             return chain.proceed(originalRequest);
         }
 
-        if (!originalRequest.header("Content-Encoding").equals("gzip")) {
-            return chain.proceed(originalRequest);
+        if (!isCompressible(body.contentType())) {
+            recordSkipped();
+            return chain.proceed(originalRequest.newBuilder().removeHeader("Content-Encoding").build());
+        }
+        long contentLength = body.contentLength();
+        Buffer raw = null;
+        if (contentLength < 0) {
+            raw = bufferUpTo(body, maxBufferSize);
+            if (raw != null) {
+                contentLength = raw.size();
+            }
+        }
+        if (contentLength >= 0 && contentLength < minSize) {
+            recordSkipped();
+            Request.Builder builder = originalRequest.newBuilder().removeHeader("Content-Encoding");
+            if (raw != null) {
+                // 已写出的数据按已知长度发送
+                builder.method(originalRequest.method(), RequestBody.create(body.contentType(), raw.readByteString()));
+            }
+            return chain.proceed(builder.build());
         }
 
-        Request compressedRequest = originalRequest.newBuilder().header("Content-Encoding", "gzip").method(originalRequest
-                .method(), gzip(originalRequest.body())).build();
+        RequestBody compressedBody;
+        if (contentLength >= 0 && contentLength <= maxBufferSize) {
+            if (raw == null) {
+                raw = new Buffer();
+                body.writeTo(raw);
+            }
+            Buffer compressed = new Buffer();
+            long start = Debug.threadCpuTimeNanos();
+            long[] sizes = compress(null, raw.clone(), compressed, encoding);
+            if (sizes[1] >= sizes[0]) {
+                // 压缩后没有变小，发送已写出的原始数据，避免再次调用body.writeTo
+                recordSkipped();
+                return chain.proceed(originalRequest.newBuilder().removeHeader("Content-Encoding").method(originalRequest
+                        .method(), RequestBody.create(body.contentType(), raw.readByteString())).build());
+            }
+            if (stats != null) {
+                stats.recordCompressed(sizes[0], sizes[1], Debug.threadCpuTimeNanos() - start);
+            }
+            compressedBody = RequestBody.create(body.contentType(), compressed.readByteString());
+        } else {
+            compressedBody = streaming(body, encoding);
+        }
+        Request compressedRequest = originalRequest.newBuilder().header("Content-Encoding", encoding).method
+                (originalRequest.method(), compressedBody).build();
         return chain.proceed(compressedRequest);
     }
 
-    private RequestBody gzip(final RequestBody body) {
+    /**
+     * 可压缩类型：text/*、json、xml、javascript、表单及+json/+xml后缀；multipart、图片、音视频等不压缩
+     *
+     * @param mediaType 请求体类型
+     * @return 是否可压缩
+     */
+    public static boolean isCompressible(MediaType mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        String type = mediaType.type().toLowerCase(Locale.US);
+        String subtype = mediaType.subtype().toLowerCase(Locale.US);
+        if ("text".equals(type)) {
+            return true;
+        }
+        if (!"application".equals(type)) {
+            return false;
+        }
+        return "json".equals(subtype) || "xml".equals(subtype) || "javascript".equals(subtype) || "x-www-form-urlencoded"
+                .equals(subtype) || "graphql".equals(subtype) || subtype.endsWith("+json") || subtype.endsWith("+xml");
+    }
+
+    /**
+     * 把长度未知的请求体写入内存，超过limit时放弃并返回null
+     */
+    private static Buffer bufferUpTo(RequestBody body, final long limit) throws IOException {
+        final Buffer buffer = new Buffer();
+        BufferedSink sink = Okio.buffer(new ForwardingSink(buffer) {
+            @Override
+            public void write(Buffer source, long byteCount) throws IOException {
+                if (buffer.size() + byteCount > limit) {
+                    throw new LimitExceededException();
+                }
+                super.write(source, byteCount);
+            }
+        });
+        try {
+            body.writeTo(sink);
+            sink.flush();
+        } catch (LimitExceededException e) {
+            return null;
+        }
+        return buffer;
+    }
+
+    private RequestBody streaming(final RequestBody body, final String encoding) {
         return new RequestBody() {
             @Override
             public MediaType contentType() {
@@ -50,16 +177,95 @@ public class GZipInterceptor implements Interceptor {
 
             @Override
             public long contentLength() {
-                return -1; // We don't know the compressed length in advance!
+                // 压缩后的长度无法预知
+                return -1;
             }
 
             @Override
             public void writeTo(BufferedSink sink) throws IOException {
-                BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
-                body.writeTo(gzipSink);
-                gzipSink.flush();
-                gzipSink.close();
+                long start = Debug.threadCpuTimeNanos();
+                long[] sizes = compress(body, null, sink, encoding);
+                if (stats != null) {
+                    stats.recordCompressed(sizes[0], sizes[1], Debug.threadCpuTimeNanos() - start);
+                }
             }
         };
     }
+
+    /**
+     * 把body（或已缓冲的raw）压缩写入sink，不关闭sink
+     *
+     * @return {压缩前字节数, 压缩后字节数}
+     */
+    private long[] compress(RequestBody body, Buffer raw, BufferedSink sink, String encoding) throws IOException {
+        CountingSink compressedCounter = new CountingSink(sink, false);
+        OutputStream compressedStream = Okio.buffer(compressedCounter).outputStream();
+        Deflater deflater = null;
+        DeflaterOutputStream deflaterStream;
+        if (ENCODING_GZIP.equals(encoding)) {
+            deflaterStream = new GZIPOutputStream(compressedStream, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        } else {
+            deflater = new Deflater(level);
+            deflaterStream = new DeflaterOutputStream(compressedStream, deflater, BUFFER_SIZE);
+        }
+        CountingSink rawCounter = new CountingSink(Okio.sink(deflaterStream), true);
+        BufferedSink rawSink = Okio.buffer(rawCounter);
+        try {
+            if (raw != null) {
+                rawSink.writeAll(raw);
+            } else {
+                body.writeTo(rawSink);
+            }
+            // 依次结束压缩流并刷新到sink，compressedCounter不会关闭sink
+            rawSink.close();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return new long[]{rawCounter.bytes, compressedCounter.bytes};
+    }
+
+    private void recordSkipped() {
+        if (stats != null) {
+            stats.recordSkipped();
+        }
+    }
+
+    /**
+     * 试写入内存时超过缓冲上限
+     */
+    private static final class LimitExceededException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class CountingSink extends ForwardingSink {
+        private final boolean isCloseDelegate;
+        long bytes;
+
+        CountingSink(Sink delegate, boolean isCloseDelegate) {
+            super(delegate);
+            this.isCloseDelegate = isCloseDelegate;
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            bytes += byteCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (isCloseDelegate) {
+                super.close();
+            } else {
+                // 底层sink由OkHttp关闭
+                flush();
+            }
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package com.eric.core.lnterceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+/**
+ * @author li
+ * @Package com.eric.core.lnterceptor
+ * @Title: LogRingBuffer
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 多生产者、单消费者的无锁环形缓冲，槽位为预分配的固定结构日志记录；写满时丢弃新记录而不阻塞请求线程
+ */
+final class LogRingBuffer {
+    private final Record[] records;
+    /**
+     * 每个槽位最近一次发布的序号，消费端据此判断记录是否写完
+     */
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    /**
+     * 下一条待消费的序号，只由消费端写入
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        records = new Record[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            records[i] = new Record();
+            published.set(i, -1);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * 申请一个槽位
+     *
+     * @return 序号，缓冲已满时返回-1
+     */
+    long claim() {
+        for (; ; ) {
+            long seq = tail.get();
+            if (seq - head >= records.length) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+            if (tail.compareAndSet(seq, seq + 1)) {
+                return seq;
+            }
+        }
+    }
+
+    Record get(long seq) {
+        return records[(int) (seq & mask)];
+    }
+
+    /**
+     * 记录写完后发布，消费端可见
+     */
+    void publish(long seq) {
+        published.lazySet((int) (seq & mask), seq);
+    }
+
+    /**
+     * 消费端：取出下一条已发布的记录，没有时返回null；处理完后必须调用release
+     */
+    Record poll() {
+        long seq = head;
+        int index = (int) (seq & mask);
+        if (published.get(index) != seq) {
+            return null;
+        }
+        return records[index];
+    }
+
+    /**
+     * 消费端：清空已处理的记录并让出槽位
+     */
+    void release(Record record) {
+        record.clear();
+        head = head + 1;
+    }
+
+    int size() {
+        return (int) (tail.get() - head);
+    }
+
+    int capacity() {
+        return records.length;
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 固定结构的日志记录，请求线程只写引用和数值，字符串在消费线程拼接
+     */
+    static final class Record {
+        int level;
+        long timeMillis;
+        String method;
+        HttpUrl url;
+        int code;
+        Protocol protocol;
+        long tookNanos;
+        /**
+         * 请求体长度在后台线程格式化时才计算
+         */
+        RequestBody requestBody;
+        long responseLength;
+        Headers requestHeaders;
+        Headers responseHeaders;
+        ResponseBody body;
+        Throwable error;
+
+        void clear() {
+            method = null;
+            url = null;
+            protocol = null;
+            requestBody = null;
+            requestHeaders = null;
+            responseHeaders = null;
+            body = null;
+            error = null;
+        }
+    }
+}
@@ -18,7 +18,10 @@ import okhttp3.Response;
  * @Description: Copyright (c)
  * Create DateTime: 2017/10/25
  * 日志模块打印
+ *
+ * @deprecated 在请求线程同步格式化并输出，请使用{@link StructuredLoggerInterceptor}
  */
+@Deprecated
 public class LoggerInterceptor implements Interceptor {
 
     @Override
@@ -0,0 +1,82 @@
+package com.eric.core.lnterceptor;
+
+import com.eric.core.core.ProgressResponseBody;
+import com.eric.core.core.ProgressThrottle;
+import com.eric.core.listener.DownLoadListener;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * @author li
+ * @Package com.eric.core.lnterceptor
+ * @Title: ProgressInterceptor
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 下载进度拦截器，初始化时安装一次；通过请求的DownLoadListener类型tag找到回调，
+ * 断点续传（206）时从Content-Range取起始位置，使进度按整个文件计算
+ */
+public class ProgressInterceptor implements Interceptor {
+    private final long minBytes;
+    private final long minIntervalMillis;
+
+    public ProgressInterceptor() {
+        this(0, 0);
+    }
+
+    /**
+     * @param minBytes          两次进度回调之间的最小字节增量
+     * @param minIntervalMillis 两次进度回调之间的最小时间间隔，单位毫秒
+     */
+    public ProgressInterceptor(long minBytes, long minIntervalMillis) {
+        this.minBytes = minBytes;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        DownLoadListener listener = chain.request().tag(DownLoadListener.class);
+        Response response = chain.proceed(chain.request());
+        if (listener == null || response.body() == null) {
+            return response;
+        }
+        long offset = 0;
+        long total = response.body().contentLength();
+        if (response.code() == 206) {
+            long[] range = parseContentRange(response.header("Content-Range"));
+            if (range != null) {
+                offset = range[0];
+                total = range[1] >= 0 ? range[1] : (total >= 0 ? offset + total : -1);
+            }
+        }
+        return response.newBuilder().body(new ProgressResponseBody(response.body(), listener, offset, total, new
+                ProgressThrottle(minBytes, minIntervalMillis))).build();
+    }
+
+    /**
+     * 解析"bytes start-end/total"，total为*时返回-1
+     *
+     * @param contentRange Content-Range响应头
+     * @return {start, total}，格式不合法时返回null
+     */
+    public static long[] parseContentRange(String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return null;
+        }
+        int dash = contentRange.indexOf('-');
+        int slash = contentRange.indexOf('/');
+        if (dash < 0 || slash < dash) {
+            return null;
+        }
+        try {
+            long start = Long.parseLong(contentRange.substring(6, dash).trim());
+            String totalText = contentRange.substring(slash + 1).trim();
+            long total = "*".equals(totalText) ? -1 : Long.parseLong(totalText);
+            return new long[]{start, total};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
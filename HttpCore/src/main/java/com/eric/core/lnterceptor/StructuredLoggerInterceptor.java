@@ -0,0 +1,255 @@
+package com.eric.core.lnterceptor;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * @author li
+ * @Package com.eric.core.lnterceptor
+ * @Title: StructuredLoggerInterceptor
+ * @Description: Copyright (c)
+ * Create DateTime: 2026/10/18
+ * 结构化日志：请求线程只把方法、URL、状态码、耗时等写入环形缓冲，由后台线程格式化并输出；
+ * 支持级别过滤和采样，DEBUG级别时通过peekBody记录不超过上限的文本响应体
+ */
+public class StructuredLoggerInterceptor implements Interceptor {
+    public static final String TAG = "HttpLog";
+
+    /**
+     * 日志输出，由后台线程调用
+     */
+    public interface Sink {
+        void log(int level, String tag, String message);
+    }
+
+    /**
+     * 输出到logcat
+     */
+    public static final Sink LOGCAT = new Sink() {
+        @Override
+        public void log(int level, String tag, String message) {
+            Log.println(level, tag, message);
+        }
+    };
+
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final int minLevel;
+    private final float sampleRate;
+    private final long bodyMaxBytes;
+    private final Sink sink;
+    private final LogRingBuffer buffer;
+    private final StringBuilder message = new StringBuilder(256);
+    /**
+     * 记录的是请求完成时间，输出可能延迟，只在后台线程使用
+     */
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+    private final Thread drainThread;
+    private volatile boolean stopped;
+
+    /**
+     * @param minLevel     最低输出级别（android.util.Log常量）；成功请求为INFO，状态码>=400为WARN，请求异常为ERROR，
+     *                     DEBUG及以下时额外记录请求头、响应头和响应体
+     * @param sampleRate   INFO级别记录的采样率，0~1，WARN和ERROR总是记录
+     * @param bodyMaxBytes 记录响应体的最大字节数，<=0时不记录响应体
+     * @param bufferSize   环形缓冲容量，写满时丢弃新记录
+     * @param sink         日志输出
+     */
+    public StructuredLoggerInterceptor(int minLevel, float sampleRate, long bodyMaxBytes, int bufferSize, Sink sink) {
+        this.minLevel = minLevel;
+        this.sampleRate = sampleRate;
+        this.bodyMaxBytes = bodyMaxBytes;
+        this.sink = sink;
+        this.buffer = new LogRingBuffer(bufferSize);
+        drainThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!stopped) {
+                    drain();
+                    LockSupport.parkNanos(this, DRAIN_INTERVAL_NANOS);
+                }
+                drain();
+            }
+        }, "http-logger");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (minLevel <= Log.ERROR) {
+                publish(Log.ERROR, request, null, System.nanoTime() - start, null, e);
+            }
+            throw e;
+        }
+        long tookNanos = System.nanoTime() - start;
+        int level = response.code() >= 400 ? Log.WARN : Log.INFO;
+        if (level < minLevel || (level < Log.WARN && !isSampled())) {
+            return response;
+        }
+        ResponseBody body = null;
+        if (minLevel <= Log.DEBUG && bodyMaxBytes > 0 && hasBody(request, response) && GZipInterceptor.isCompressible
+                (response.body().contentType())) {
+            // peekBody复制最多bodyMaxBytes字节，不消费原响应体
+            body = response.peekBody(bodyMaxBytes);
+        }
+        publish(level, request, response, tookNanos, body, null);
+        return response;
+    }
+
+    /**
+     * 立即把缓冲中的记录全部输出
+     */
+    public void flush() {
+        drain();
+    }
+
+    /**
+     * 停止后台线程，剩余记录输出后退出
+     */
+    public void shutdown() {
+        stopped = true;
+        LockSupport.unpark(drainThread);
+    }
+
+    /**
+     * 缓冲写满而被丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return buffer.getDroppedCount();
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1f || (sampleRate > 0f && ThreadLocalRandom.current().nextFloat() < sampleRate);
+    }
+
+    private static boolean hasBody(Request request, Response response) {
+        int code = response.code();
+        return response.body() != null && !"HEAD".equals(request.method()) && code != 204 && code != 304;
+    }
+
+    private void publish(int level, Request request, Response response, long tookNanos, ResponseBody body, Throwable
+            error) {
+        long seq = buffer.claim();
+        if (seq < 0) {
+            return;
+        }
+        LogRingBuffer.Record record = buffer.get(seq);
+        record.level = level;
+        record.timeMillis = System.currentTimeMillis();
+        record.method = request.method();
+        record.url = request.url();
+        record.tookNanos = tookNanos;
+        // FormBody、MultipartBody计算长度需要编码或遍历请求体，留到后台线程
+        record.requestBody = request.body();
+        boolean isDetail = minLevel <= Log.DEBUG;
+        record.requestHeaders = isDetail ? request.headers() : null;
+        if (response != null) {
+            record.code = response.code();
+            record.protocol = response.protocol();
+            record.responseLength = response.body() == null ? 0 : response.body().contentLength();
+            record.responseHeaders = isDetail ? response.headers() : null;
+        } else {
+            record.code = 0;
+            record.protocol = null;
+            record.responseLength = -1;
+        }
+        record.body = body;
+        record.error = error;
+        buffer.publish(seq);
+        if (buffer.size() >= buffer.capacity() >> 1) {
+            LockSupport.unpark(drainThread);
+        }
+    }
+
+    private synchronized void drain() {
+        LogRingBuffer.Record record;
+        while ((record = buffer.poll()) != null) {
+            try {
+                sink.log(record.level, TAG, format(record));
+            } catch (RuntimeException e) {
+                // 日志输出异常不影响后续记录
+            } finally {
+                buffer.release(record);
+            }
+        }
+    }
+
+    private String format(LogRingBuffer.Record record) {
+        StringBuilder builder = message;
+        builder.setLength(0);
+        builder.append(timeFormat.format(new Date(record.timeMillis))).append(" <-- ");
+        if (record.error != null) {
+            builder.append("FAILED");
+        } else {
+            builder.append(record.code);
+        }
+        builder.append(' ').append(record.method).append(' ').append(record.url).append(" (");
+        appendMillis(builder, record.tookNanos);
+        if (record.protocol != null) {
+            builder.append(", ").append(record.protocol);
+        }
+        builder.append(", req ").append(requestLength(record.requestBody)).append("B, resp ").append(record.responseLength)
+                .append("B)");
+        if (record.error != null) {
+            builder.append(' ').append(record.error);
+        }
+        appendHeaders(builder, "request headers", record.requestHeaders);
+        appendHeaders(builder, "response headers", record.responseHeaders);
+        if (record.body != null) {
+            builder.append("\nbody: ");
+            try {
+                builder.append(record.body.string());
+            } catch (IOException e) {
+                builder.append(e);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long requestLength(RequestBody body) {
+        if (body == null) {
+            return 0;
+        }
+        try {
+            return body.contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void appendMillis(StringBuilder builder, long nanos) {
+        long micros = nanos / 1000;
+        builder.append(micros / 1000).append('.').append(micros / 100 % 10).append("ms");
+    }
+
+    private static void appendHeaders(StringBuilder builder, String name, Headers headers) {
+        if (headers == null || headers.size() == 0) {
+            return;
+        }
+        builder.append('\n').append(name).append(':');
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            builder.append("\n  ").append(headers.name(i)).append(": ").append(headers.value(i));
+        }
+    }
+}
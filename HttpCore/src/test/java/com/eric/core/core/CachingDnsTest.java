@@ -0,0 +1,121 @@
+package com.eric.core.core;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Dns;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CachingDns：TTL命中、过期后返回旧结果并后台刷新、并发解析合并、地址族交替与失败地址降级
+ */
+public class CachingDnsTest {
+
+    private static class CountingDns implements Dns {
+        final AtomicInteger lookups = new AtomicInteger();
+        final long delayMillis;
+        final List<InetAddress> addresses;
+
+        CountingDns(long delayMillis, InetAddress... addresses) {
+            this.delayMillis = delayMillis;
+            this.addresses = Arrays.asList(addresses);
+        }
+
+        @Override
+        public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+            lookups.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                throw new UnknownHostException(hostname);
+            }
+            return addresses;
+        }
+    }
+
+    private static InetAddress address(String ip) throws UnknownHostException {
+        return InetAddress.getByName(ip);
+    }
+
+    @Test
+    public void lookup_cachesWithinTtl() throws Exception {
+        CountingDns delegate = new CountingDns(30, address("10.0.0.1"));
+        CachingDns dns = new CachingDns(delegate, 60 * 1000, 0, false);
+        long start = System.nanoTime();
+        dns.lookup("api.example.com");
+        long missNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        dns.lookup("api.example.com");
+        long hitNanos = System.nanoTime() - start;
+        assertEquals(1, delegate.lookups.get());
+        assertEquals(1, dns.getHitCount());
+        assertEquals(1, dns.getMissCount());
+        assertEquals(0.5d, dns.getHitRate(), 0d);
+        assertTrue(dns.getAverageLookupMillis() >= 30);
+        System.out.println(String.format("dns: miss %.1fms, hit %.3fms", missNanos / 1e6d, hitNanos / 1e6d));
+    }
+
+    @Test
+    public void lookup_staleServedWhileRefreshing() throws Exception {
+        CountingDns delegate = new CountingDns(0, address("10.0.0.1"));
+        CachingDns dns = new CachingDns(delegate, 20, 60 * 1000, false);
+        List<InetAddress> first = dns.lookup("api.example.com");
+        Thread.sleep(40);
+        assertSame(first, dns.lookup("api.example.com"));
+        assertEquals(1, dns.getStaleHitCount());
+        for (int i = 0; i < 100 && delegate.lookups.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, delegate.lookups.get());
+    }
+
+    @Test
+    public void lookup_concurrentMissesResolveOnce() throws Exception {
+        final CountingDns delegate = new CountingDns(50, address("10.0.0.1"));
+        final CachingDns dns = new CachingDns(delegate, 60 * 1000, 0, false);
+        final CountDownLatch latch = new CountDownLatch(8);
+        final AtomicInteger success = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        dns.lookup("api.example.com");
+                        success.incrementAndGet();
+                    } catch (UnknownHostException e) {
+                        // 计入失败
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(8, success.get());
+        assertEquals(1, delegate.lookups.get());
+    }
+
+    @Test
+    public void lookup_interleavesFamiliesAndDemotesFailures() throws Exception {
+        InetAddress v6a = address("2001:db8::1");
+        InetAddress v6b = address("2001:db8::2");
+        InetAddress v4a = address("10.0.0.1");
+        InetAddress v4b = address("10.0.0.2");
+        CachingDns dns = new CachingDns(new CountingDns(0, v6a, v6b, v4a, v4b), 60 * 1000, 0, true);
+        assertEquals(Arrays.asList(v6a, v4a, v6b, v4b), dns.lookup("api.example.com"));
+
+        dns.reportFailure("api.example.com", v6a);
+        List<InetAddress> expected = new ArrayList<>(Arrays.asList(v4a, v6b, v4b, v6a));
+        assertEquals(expected, dns.lookup("api.example.com"));
+    }
+}
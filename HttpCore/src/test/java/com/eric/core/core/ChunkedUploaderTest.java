@@ -0,0 +1,211 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.UploadListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ChunkedUploader：基于内存中的tus服务端验证中断续传与并行分片合并
+ */
+public class ChunkedUploaderTest {
+    private static final int SIZE = 1024 * 1024 + 123;
+
+    private MockWebServer server;
+    private byte[] data;
+    private File file;
+    private File journalDir;
+
+    private final Map<String, Buffer> uploads = new HashMap<>();
+    private final Map<String, Long> lengths = new HashMap<>();
+    private final AtomicInteger patches = new AtomicInteger();
+    private final AtomicInteger heads = new AtomicInteger();
+    private final AtomicLong patchBytes = new AtomicLong();
+    private volatile int dropAtPatch = -1;
+
+    @Before
+    public void setUp() throws Exception {
+        data = new byte[SIZE];
+        new Random(1).nextBytes(data);
+        file = File.createTempFile("upload", ".bin");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+        journalDir = new File(System.getProperty("java.io.tmpdir"), "tus-" + System.nanoTime());
+        server = new MockWebServer();
+        server.setDispatcher(new TusDispatcher());
+        server.start();
+        HttpConfig config = new HttpConfig();
+        config.setProgressIntervalMillis(0);
+        HttpClientManager.getInstance().init(null, config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        file.delete();
+        File[] children = journalDir.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                child.delete();
+            }
+        }
+        journalDir.delete();
+    }
+
+    @Test
+    public void upload_resumesAfterDrop() throws Exception {
+        ChunkedUploadOptions options = new ChunkedUploadOptions();
+        options.setChunkSize(128 * 1024);
+        options.setJournalDir(journalDir);
+        dropAtPatch = 5;
+
+        Result first = upload(options);
+        assertNotNull(first.failure);
+        assertEquals(5, patches.get());
+
+        Result second = upload(options);
+        assertNull(second.failure);
+        assertNotNull(second.location);
+        assertArrayEquals(data, uploads.get(pathOf(second.location)).snapshot().toByteArray());
+        // 中断的块服务端已收到，HEAD确认后不再重传
+        assertEquals(SIZE, patchBytes.get());
+        assertEquals(1, heads.get());
+        assertEquals(SIZE, second.progress);
+        assertTrue(second.isDone);
+        assertEquals(0, journalDir.list().length);
+    }
+
+    @Test
+    public void upload_parallelPartsAreConcatenated() throws Exception {
+        ChunkedUploadOptions options = new ChunkedUploadOptions();
+        options.setChunkSize(64 * 1024);
+        options.setParallelism(3);
+        options.setJournalDir(journalDir);
+
+        Result result = upload(options);
+        assertNull(result.failure);
+        assertArrayEquals(data, uploads.get(pathOf(result.location)).snapshot().toByteArray());
+        assertEquals(4, uploads.size());
+        assertEquals(SIZE, result.progress);
+    }
+
+    private Result upload(ChunkedUploadOptions options) throws Exception {
+        FileEntity entity = new FileEntity();
+        entity.setName("file");
+        entity.setFileName("video.mp4");
+        entity.setFile(file);
+        final Result result = new Result();
+        final CountDownLatch latch = new CountDownLatch(1);
+        HttpClientManager.getInstance().asyncChunkedUpload(server.url("/files").toString(), "upload", null, entity,
+                options, new UploadListener<String>() {
+                    @Override
+                    public void onSuccess(Object tag, int httpCode, String location, Headers headers) {
+                        result.location = location;
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onData(Object tag, int httpCode, String data) {
+                        result.failure = new Exception("http " + httpCode);
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(Object tag, Exception e) {
+                        result.failure = e;
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
+                        result.progress = bytesWrite;
+                        result.isDone = isDone;
+                    }
+                });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static String pathOf(String location) {
+        return location.substring(location.indexOf("/files/"));
+    }
+
+    private static class Result {
+        volatile String location;
+        volatile Exception failure;
+        volatile long progress;
+        volatile boolean isDone;
+    }
+
+    /**
+     * 最小的tus服务端：creation、HEAD查询偏移、PATCH追加与concatenation
+     */
+    private class TusDispatcher extends okhttp3.mockwebserver.Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            synchronized (uploads) {
+                String path = request.getPath();
+                if ("POST".equals(request.getMethod())) {
+                    String id = "/files/" + uploads.size();
+                    Buffer buffer = new Buffer();
+                    String concat = request.getHeader("Upload-Concat");
+                    if (concat != null && concat.startsWith("final;")) {
+                        for (String part : concat.substring("final;".length()).split(" ")) {
+                            buffer.write(uploads.get(part).snapshot());
+                        }
+                        lengths.put(id, buffer.size());
+                    } else {
+                        lengths.put(id, Long.parseLong(request.getHeader("Upload-Length")));
+                    }
+                    uploads.put(id, buffer);
+                    return new MockResponse().setResponseCode(201).addHeader("Location", id);
+                }
+                Buffer upload = uploads.get(path);
+                if (upload == null) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                if ("HEAD".equals(request.getMethod())) {
+                    heads.incrementAndGet();
+                    return new MockResponse().addHeader("Upload-Offset", upload.size()).addHeader("Upload-Length",
+                            lengths.get(path));
+                }
+                if (Long.parseLong(request.getHeader("Upload-Offset")) != upload.size()) {
+                    return new MockResponse().setResponseCode(409);
+                }
+                patchBytes.addAndGet(request.getBodySize());
+                upload.write(request.getBody(), request.getBodySize());
+                MockResponse response = new MockResponse().setResponseCode(204).addHeader("Upload-Offset", upload.size());
+                if (patches.incrementAndGet() == dropAtPatch) {
+                    // 服务端已收到该块，但响应丢失
+                    response.setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+                }
+                return response;
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.WebCallbackListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ServerSocketFactory;
+
+import okhttp3.Headers;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 连接复用：Connection: close、HTTP/1.1 keep-alive、h2c多路复用与预连接下的建连次数与耗时对比
+ */
+public class ConnectionReuseBenchmarkTest {
+    private static final int REQUESTS = 40;
+    /**
+     * 模拟的建连耗时（TCP/TLS握手往返），本地回环上建连几乎没有开销
+     */
+    private static final long CONNECT_DELAY_MILLIS = 10;
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setServerSocketFactory(new SlowAcceptServerSocketFactory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void http1_closeVsKeepAlive() throws Exception {
+        server.start();
+        HttpConfig config = new HttpConfig();
+        config.setKeepConnection(false);
+        long closeNanos = runSequential(config);
+        assertEquals(REQUESTS, newConnections(REQUESTS));
+
+        config = new HttpConfig();
+        long keepNanos = runSequential(config);
+        assertEquals(1, newConnections(REQUESTS));
+
+        // 全局关闭复用，单独为该host打开
+        config = new HttpConfig();
+        config.setKeepConnection(false);
+        config.setKeepConnection(server.getHostName(), true);
+        runSequential(config);
+        assertEquals(1, newConnections(REQUESTS));
+
+        System.out.println(String.format("http/1.1 x%d: connection close %.1fms, keep-alive %.1fms", REQUESTS, closeNanos /
+                1e6d, keepNanos / 1e6d));
+        assertTrue(keepNanos < closeNanos);
+    }
+
+    @Test
+    public void h2c_multiplexesConcurrentRequests() throws Exception {
+        server.setProtocols(Arrays.asList(Protocol.H2_PRIOR_KNOWLEDGE));
+        server.start();
+        HttpConfig config = new HttpConfig();
+        config.setProtocol(HttpConfig.PROTOCOL_H2_PRIOR_KNOWLEDGE);
+        config.setMaxRequestsPerHost(REQUESTS);
+        HttpClientManager.getInstance().init(null, config);
+        // 先建立连接，后续并发请求全部复用
+        server.enqueue(new MockResponse().setBody("ok"));
+        assertTrue(HttpClientManager.getInstance().get(server.url("/warm").toString(), "warm", null, null).isSuccess());
+
+        for (int i = 0; i < REQUESTS; i++) {
+            server.enqueue(new MockResponse().setBody("ok").setBodyDelay(20, TimeUnit.MILLISECONDS));
+        }
+        final CountDownLatch latch = new CountDownLatch(REQUESTS);
+        final AtomicInteger success = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            HttpClientManager.getInstance().asyncGet(server.url("/api").toString(), "h2c", null, null, new
+                    WebCallbackListener<String>() {
+                        @Override
+                        public void onSuccess(Object tag, int httpCode, String s, Headers headers) {
+                            success.incrementAndGet();
+                            latch.countDown();
+                        }
+
+                        @Override
+                        public void onData(Object tag, int httpCode, String data) {
+                            latch.countDown();
+                        }
+
+                        @Override
+                        public void onFailure(Object tag, Exception e) {
+                            latch.countDown();
+                        }
+                    });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        long nanos = System.nanoTime() - start;
+        assertEquals(REQUESTS, success.get());
+
+        Set<Integer> sequences = new HashSet<>();
+        for (int i = 0; i < REQUESTS + 1; i++) {
+            sequences.add(server.takeRequest().getSequenceNumber());
+        }
+        // 同一连接上的请求序号递增，没有新建连接
+        assertEquals(REQUESTS + 1, sequences.size());
+        System.out.println(String.format("h2c x%d concurrent (20ms each): %.1fms", REQUESTS, nanos / 1e6d));
+    }
+
+    @Test
+    public void preconnect_coldVsWarmFirstRequest() throws Exception {
+        server.start();
+        String url = server.url("/api").toString();
+        HttpClientManager.getInstance().init(null, new HttpConfig());
+        server.enqueue(new MockResponse().setBody("ok"));
+        long start = System.nanoTime();
+        assertTrue(HttpClientManager.getInstance().get(url, "cold", null, null).isSuccess());
+        long coldNanos = System.nanoTime() - start;
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+
+        HttpConfig config = new HttpConfig();
+        config.setPreconnectUrls(Arrays.asList(server.url("/api/user?id=1").toString()));
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setBody("ok"));
+        HttpClientManager.getInstance().init(null, config);
+        RecordedRequest head = server.takeRequest(5, TimeUnit.SECONDS);
+        assertEquals("HEAD", head.getMethod());
+        assertEquals("/", head.getPath());
+        // 等待预连接的响应关闭、连接归还连接池
+        Thread.sleep(100);
+        start = System.nanoTime();
+        assertTrue(HttpClientManager.getInstance().get(url, "warm", null, null).isSuccess());
+        long warmNanos = System.nanoTime() - start;
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+
+        System.out.println(String.format("first request: cold %.1fms, preconnected %.1fms", coldNanos / 1e6d, warmNanos /
+                1e6d));
+        assertTrue(warmNanos < coldNanos);
+    }
+
+    private long runSequential(HttpConfig config) throws Exception {
+        HttpClientManager.getInstance().init(null, config);
+        for (int i = 0; i < REQUESTS; i++) {
+            server.enqueue(new MockResponse().setBody("ok"));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            assertTrue(HttpClientManager.getInstance().get(server.url("/api").toString(), "api", null, null).isSuccess());
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 读取已收到的请求，返回其中新建连接（连接内序号为0）的次数
+     */
+    private int newConnections(int count) throws Exception {
+        int connections = 0;
+        for (int i = 0; i < count; i++) {
+            if (server.takeRequest().getSequenceNumber() == 0) {
+                connections++;
+            }
+        }
+        return connections;
+    }
+
+    /**
+     * 接受连接时关闭Nagle并延迟CONNECT_DELAY_MILLIS，模拟真实网络的建连开销
+     */
+    private static class SlowAcceptServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    try {
+                        Thread.sleep(CONNECT_DELAY_MILLIS);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, 50);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            ServerSocket serverSocket = createServerSocket();
+            serverSocket.bind(new InetSocketAddress(address, port), backlog);
+            return serverSocket;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.eric.core.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 下载写文件基准：BufferedInputStream + 8KB byte[] + RandomAccessFile + 每块查询文件长度（旧实现） vs DownloadWriter（新实现）
+ */
+public class DownloadWriterBenchmarkTest {
+    private static final int SIZE = 16 * 1024 * 1024;
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = 20;
+
+    private final OkHttpClient client = new OkHttpClient();
+    private MockWebServer server;
+    private byte[] data;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        data = new byte[SIZE];
+        new Random(1).nextBytes(data);
+        server = new MockWebServer();
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(okhttp3.mockwebserver.RecordedRequest request) {
+                return new MockResponse().setBody(new Buffer().write(data));
+            }
+        });
+        server.start();
+        file = File.createTempFile("download", ".bin");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        file.delete();
+    }
+
+    @Test
+    public void write_matchesLegacy() throws Exception {
+        writeLegacy();
+        byte[] legacy = readFile();
+        writeChannel(DownloadWriter.DEFAULT_CHUNK_SIZE);
+        assertArrayEquals(legacy, readFile());
+        assertArrayEquals(data, legacy);
+    }
+
+    @Test
+    public void write_rangeAtOffset() throws Exception {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(SIZE + 100);
+            Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute();
+            try {
+                long written = DownloadWriter.write(response.body().source(), out.getChannel(), 100, 1000, 64 * 1024,
+                        null);
+                assertEquals(1000, written);
+            } finally {
+                response.close();
+            }
+        } finally {
+            out.close();
+        }
+        byte[] bytes = readFile();
+        assertArrayEquals(Arrays.copyOfRange(data, 0, 1000), Arrays.copyOfRange(bytes, 100, 1100));
+    }
+
+    /**
+     * 数据源为内存Buffer，只比较写文件路径；旧实现按HttpClientManager续传下载原有循环：8KB写入，
+     * 每块两次rSavedFile.length()用于进度回调
+     */
+    @Test
+    public void write_benchmark() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            writeLegacyLoop();
+            writeChannelLoop(DownloadWriter.DEFAULT_CHUNK_SIZE);
+        }
+        // 取每种实现各轮中的最短耗时，减少页缓存回写等干扰
+        long legacyNanos = Long.MAX_VALUE;
+        long chunkNanos = Long.MAX_VALUE;
+        long largeChunkNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long t1 = System.nanoTime();
+            writeLegacyLoop();
+            long t2 = System.nanoTime();
+            writeChannelLoop(DownloadWriter.DEFAULT_CHUNK_SIZE);
+            long t3 = System.nanoTime();
+            writeChannelLoop(1024 * 1024);
+            long t4 = System.nanoTime();
+            legacyNanos = Math.min(legacyNanos, t2 - t1);
+            chunkNanos = Math.min(chunkNanos, t3 - t2);
+            largeChunkNanos = Math.min(largeChunkNanos, t4 - t3);
+        }
+        double mb = (double) SIZE / (1024 * 1024);
+        System.out.println(String.format("download %dMB best of %d: legacy %.1fMB/s, channel(128K) %.1fMB/s, " +
+                "channel(1M) %.1fMB/s", SIZE / (1024 * 1024), ROUNDS, mb / (legacyNanos / 1e9d), mb / (chunkNanos /
+                1e9d), mb / (largeChunkNanos / 1e9d)));
+        assertTrue(chunkNanos < legacyNanos);
+    }
+
+    private void writeLegacy() throws IOException {
+        Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute();
+        InputStream reader = new BufferedInputStream(response.body().byteStream());
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            int n;
+            byte[] buffer = new byte[1024 * 8];
+            while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            out.close();
+            reader.close();
+        }
+    }
+
+    private void writeLegacyLoop() throws IOException {
+        InputStream reader = new BufferedInputStream(new Buffer().write(data).inputStream());
+        RandomAccessFile rSavedFile = new RandomAccessFile(file, "rw");
+        try {
+            rSavedFile.setLength(0);
+            int n;
+            byte[] buffer = new byte[1024 * 8];
+            long fullLength = SIZE + rSavedFile.length();
+            long progress = 0;
+            while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+                rSavedFile.write(buffer, 0, n);
+                // 原实现的onProgress(rSavedFile.length(), fullLength, rSavedFile.length() == fullLength)
+                progress += rSavedFile.length();
+                if (rSavedFile.length() == fullLength) {
+                    progress++;
+                }
+            }
+            assertTrue(progress > 0);
+        } finally {
+            rSavedFile.close();
+            reader.close();
+        }
+    }
+
+    private void writeChannelLoop(int chunkSize) throws IOException {
+        final long[] progress = new long[1];
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(0);
+            DownloadWriter.write(new Buffer().write(data), out.getChannel(), 0, -1, chunkSize, new DownloadWriter
+                    .Listener() {
+                @Override
+                public void onWrite(long bytes) {
+                    progress[0] += bytes;
+                }
+            });
+            assertEquals(SIZE, progress[0]);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeChannel(int chunkSize) throws IOException {
+        Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute();
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            DownloadWriter.write(response.body().source(), out.getChannel(), 0, -1, chunkSize, null);
+        } finally {
+            out.close();
+            response.close();
+        }
+    }
+
+    private byte[] readFile() throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            byte[] bytes = new byte[(int) in.length()];
+            in.readFully(bytes);
+            return bytes;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.eric.core.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PriorityScheduler：并发占满时按优先级放行、按tag取消排队请求以及排队统计
+ */
+public class PrioritySchedulerTest {
+    private MockWebServer server;
+    private CountDownLatch release;
+    private final List<String> served = Collections.synchronizedList(new ArrayList<String>());
+    private OkHttpClient client;
+    private PriorityScheduler scheduler;
+
+    private static class Result implements Callback {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile IOException error;
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            error = e;
+            done.countDown();
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            response.close();
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        release = new CountDownLatch(1);
+        server = new MockWebServer();
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if ("/block".equals(request.getPath())) {
+                    release.await(5, TimeUnit.SECONDS);
+                } else {
+                    served.add(request.getPath());
+                }
+                return new MockResponse().setBody("ok");
+            }
+        });
+        server.start();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(1);
+        client = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+        scheduler = new PriorityScheduler(dispatcher);
+        scheduler.enqueue(call("/block", null), RequestOptions.PRIORITY_NORMAL, new Result());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        release.countDown();
+        server.shutdown();
+    }
+
+    @Test
+    public void enqueue_admitsByPriority() throws Exception {
+        Result background = new Result();
+        Result normal = new Result();
+        Result critical = new Result();
+        scheduler.enqueue(call("/background", null), RequestOptions.PRIORITY_BACKGROUND, background);
+        scheduler.enqueue(call("/normal", null), RequestOptions.PRIORITY_NORMAL, normal);
+        scheduler.enqueue(call("/critical", null), RequestOptions.PRIORITY_CRITICAL, critical);
+        assertEquals(1, scheduler.getQueueDepth(RequestOptions.PRIORITY_BACKGROUND));
+        assertEquals(1, scheduler.getQueueDepth(RequestOptions.PRIORITY_CRITICAL));
+
+        release.countDown();
+        background.await();
+        normal.await();
+        critical.await();
+        assertEquals(Arrays.asList("/critical", "/normal", "/background"), served);
+        assertEquals(0, scheduler.getQueueDepth(RequestOptions.PRIORITY_BACKGROUND));
+        assertEquals(1, scheduler.getAdmittedCount(RequestOptions.PRIORITY_CRITICAL));
+        assertEquals(2, scheduler.getAdmittedCount(RequestOptions.PRIORITY_NORMAL));
+    }
+
+    @Test
+    public void cancelByTag_removesQueuedCalls() throws Exception {
+        Result canceled = new Result();
+        Result kept = new Result();
+        Call canceledCall = call("/canceled", "A");
+        scheduler.enqueue(canceledCall, RequestOptions.PRIORITY_NORMAL, canceled);
+        scheduler.enqueue(call("/kept", "B"), RequestOptions.PRIORITY_NORMAL, kept);
+        scheduler.cancelByTag("A");
+        canceled.await();
+        assertEquals("Canceled", canceled.error.getMessage());
+        assertTrue(canceledCall.isCanceled());
+        assertEquals(1, scheduler.getQueueDepth(RequestOptions.PRIORITY_NORMAL));
+
+        release.countDown();
+        kept.await();
+        assertEquals(null, kept.error);
+        assertEquals(Collections.singletonList("/kept"), served);
+    }
+
+    private Call call(String path, Object tag) {
+        return client.newCall(new Request.Builder().url(server.url(path)).tag(tag).build());
+    }
+}
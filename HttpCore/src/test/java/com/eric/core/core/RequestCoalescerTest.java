@@ -0,0 +1,176 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.WebCallbackListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * RequestCoalescer：相同GET只发一次请求，单个调用方取消（含按tag取消）不影响其他调用方，全部取消后才取消底层Call
+ */
+public class RequestCoalescerTest {
+    private static final Callback NOOP = new Callback() {
+        @Override
+        public void onFailure(Call call, IOException e) {
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            response.close();
+        }
+    };
+
+    private MockWebServer server;
+    private CountDownLatch release;
+    private final AtomicInteger dataRequests = new AtomicInteger();
+    private OkHttpClient client;
+    private PriorityScheduler scheduler;
+    private RequestCoalescer coalescer;
+
+    private final ResponseParser<String> parser = new ResponseParser<String>() {
+        @Override
+        public String parse(ResponseBody body) throws Exception {
+            return body.string();
+        }
+    };
+
+    private static class Result implements WebCallbackListener<String> {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile String data;
+        volatile Exception error;
+
+        @Override
+        public void onSuccess(Object tag, int httpCode, String s, Headers headers) {
+            data = s;
+            done.countDown();
+        }
+
+        @Override
+        public void onData(Object tag, int httpCode, String data) {
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Object tag, Exception e) {
+            error = e;
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        release = new CountDownLatch(1);
+        server = new MockWebServer();
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if ("/block".equals(request.getPath())) {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new MockResponse().setBody("block");
+                }
+                dataRequests.incrementAndGet();
+                return new MockResponse().setBody("data");
+            }
+        });
+        server.start();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(1);
+        client = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+        scheduler = new PriorityScheduler(dispatcher);
+        coalescer = new RequestCoalescer();
+        // 占住唯一的并发名额，后续请求都在调度队列中排队
+        scheduler.enqueue(client.newCall(new Request.Builder().url(server.url("/block")).build()), RequestOptions
+                .PRIORITY_NORMAL, NOOP);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        release.countDown();
+        server.shutdown();
+    }
+
+    @Test
+    public void enqueue_sharesOneCall() throws Exception {
+        Result a = new Result();
+        Result b = new Result();
+        enqueue("A", a);
+        enqueue("B", b);
+        release.countDown();
+        a.await();
+        b.await();
+        assertEquals("data", a.data);
+        assertSame(a.data, b.data);
+        assertEquals(1, dataRequests.get());
+    }
+
+    @Test
+    public void cancelByTag_keepsOtherSubscribers() throws Exception {
+        Result a = new Result();
+        Result b = new Result();
+        enqueue("A", a);
+        enqueue("B", b);
+        // 与HttpClientManager.cancelByTag的顺序一致
+        coalescer.cancelByTag("A");
+        scheduler.cancelByTag("A");
+        a.await();
+        assertEquals("Canceled", a.error.getMessage());
+        release.countDown();
+        b.await();
+        assertNull(b.error);
+        assertEquals("data", b.data);
+        assertEquals(1, dataRequests.get());
+    }
+
+    @Test
+    public void cancel_allSubscribersCancelsCall() throws Exception {
+        Result a = new Result();
+        Result b = new Result();
+        CallHandle handleA = enqueue("A", a);
+        CallHandle handleB = enqueue("B", b);
+        handleA.cancel();
+        assertTrue(!handleB.isCanceled());
+        handleB.cancel();
+        assertTrue(handleB.isCanceled());
+        a.await();
+        b.await();
+        release.countDown();
+        // 底层Call已取消，重新发起时不会再加入旧的合并请求
+        Result c = new Result();
+        enqueue("C", c);
+        c.await();
+        assertEquals("data", c.data);
+        assertEquals(1, dataRequests.get());
+    }
+
+    private CallHandle enqueue(String tag, Result result) {
+        Request request = new Request.Builder().url(server.url("/data")).tag(tag).build();
+        return coalescer.enqueue(client, scheduler, RequestOptions.PRIORITY_NORMAL, request, tag, parser, result);
+    }
+}
@@ -0,0 +1,104 @@
+package com.eric.core.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * RequestMetrics：按host、tag分阶段统计耗时与失败次数，以及统计key数量上限
+ */
+public class RequestMetricsTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void eventListener_recordsPhasesPerHostAndTag() throws Exception {
+        RequestMetrics metrics = new RequestMetrics(16);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .eventListenerFactory(MetricsEventListener.factory(metrics, null))
+                .build();
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("hello"));
+            execute(client, "detail");
+        }
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        try {
+            execute(client, "list");
+            fail();
+        } catch (IOException expected) {
+        }
+
+        RequestMetrics.Snapshot all = metrics.snapshot();
+        assertEquals(4, all.getCallCount());
+        assertEquals(1, all.getErrorCount());
+        assertEquals(4, all.getPhase(RequestMetrics.PHASE_TOTAL).getCount());
+        // 连接复用：只有第一次请求建立连接
+        assertEquals(1, all.getPhase(RequestMetrics.PHASE_CONNECT).getCount());
+        assertEquals(0, all.getPhase(RequestMetrics.PHASE_TLS).getCount());
+        assertEquals(3, all.getPhase(RequestMetrics.PHASE_RESPONSE_BODY).getCount());
+
+        RequestMetrics.PhaseSnapshot total = all.getPhase(RequestMetrics.PHASE_TOTAL);
+        assertTrue(total.getP50Nanos() <= total.getP99Nanos());
+        assertTrue(total.getP99Nanos() <= total.getMaxNanos());
+
+        RequestMetrics.Snapshot host = metrics.snapshotHost(server.getHostName());
+        assertNotNull(host);
+        assertEquals(4, host.getCallCount());
+        RequestMetrics.Snapshot detail = metrics.snapshotTag("detail");
+        assertEquals(3, detail.getCallCount());
+        assertEquals(0, detail.getErrorCount());
+        assertEquals(3, detail.getPhase(RequestMetrics.PHASE_TTFB).getCount());
+        assertEquals(1, metrics.snapshotTag("list").getErrorCount());
+    }
+
+    @Test
+    public void record_limitsKeys() {
+        RequestMetrics metrics = new RequestMetrics(2);
+        for (int i = 0; i < 5; i++) {
+            metrics.record("host" + i, null, RequestMetrics.PHASE_TOTAL, 1000000);
+            metrics.recordCall("host" + i, null, false);
+        }
+        assertEquals(2, metrics.getHosts().size());
+        assertNull(metrics.snapshotHost("host4"));
+        assertEquals(5, metrics.snapshot().getCallCount());
+        RequestMetrics.PhaseSnapshot phase = metrics.snapshot().getPhase(RequestMetrics.PHASE_TOTAL);
+        assertEquals(5, phase.getCount());
+        assertEquals(1000000, phase.getMaxNanos());
+        assertEquals(1000000, phase.getP99Nanos());
+    }
+
+    private void execute(OkHttpClient client, String tag) throws IOException {
+        Response response = client.newCall(new Request.Builder().url(server.url("/")).tag(tag).build()).execute();
+        try {
+            response.body().string();
+        } finally {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.eric.core.core;
+
+import com.eric.core.listener.DownLoadListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 断点续传：按日志续传成功，以及Content-Range不符时回调原始IOException并保留已下载部分
+ */
+public class ResumableDownloadTest {
+    private static final String ETAG = "\"v1\"";
+    private static final String BODY = "0123456789abcdefghij";
+
+    private MockWebServer server;
+    private File dest;
+
+    private static class Result implements DownLoadListener {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile File file;
+        volatile Exception error;
+
+        @Override
+        public void onSuccess(Object tag, int httpCode, File file) {
+            this.file = file;
+            done.countDown();
+        }
+
+        @Override
+        public void onData(Object tag, int httpCode, String data) {
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Object tag, Exception e) {
+            error = e;
+            done.countDown();
+        }
+
+        @Override
+        public void onProgress(long bytesWrite, long totalBytes, boolean isDone) {
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        HttpConfig config = new HttpConfig();
+        config.setProgressIntervalMillis(0);
+        HttpClientManager.getInstance().init(null, config);
+        dest = File.createTempFile("resume", ".bin");
+        FileOutputStream out = new FileOutputStream(dest);
+        out.write(BODY.substring(0, 10).getBytes("UTF-8"));
+        out.close();
+        DownloadJournal journal = DownloadJournal.forFile(dest);
+        journal.setUrl(server.url("/file").toString());
+        journal.setEtag(ETAG);
+        journal.setLength(BODY.length());
+        journal.setOffset(10);
+        journal.save();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        DownloadJournal.forFile(dest).delete();
+        dest.delete();
+    }
+
+    @Test
+    public void resume_appendsRemainingBytes() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(206).addHeader("ETag", ETAG).addHeader("Content-Range",
+                "bytes 10-19/20").setBody(BODY.substring(10)));
+        Result result = download();
+        assertNull(result.error);
+        assertEquals("bytes=10-", server.takeRequest().getHeader("Range"));
+        assertEquals(BODY, read(dest));
+    }
+
+    @Test
+    public void resume_unexpectedContentRangeReportsIOException() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(206).addHeader("ETag", ETAG).addHeader("Content-Range",
+                "bytes 0-19/20").setBody(BODY));
+        Result result = download();
+        assertTrue(String.valueOf(result.error), result.error instanceof IOException);
+        assertTrue(result.error.getMessage(), result.error.getMessage().startsWith("unexpected Content-Range"));
+        // 已下载部分和日志保留，可再次续传
+        assertEquals(BODY.substring(0, 10), read(dest));
+        assertTrue(DownloadJournal.forFile(dest).load());
+    }
+
+    private Result download() throws InterruptedException {
+        Result result = new Result();
+        HttpClientManager.getInstance().asyncDownLoad(server.url("/file").toString(), "resume", dest.getAbsolutePath(),
+                null, null, result, true);
+        result.await();
+        return result;
+    }
+
+    private static String read(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            byte[] bytes = new byte[(int) in.length()];
+            in.readFully(bytes);
+            return new String(bytes, "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
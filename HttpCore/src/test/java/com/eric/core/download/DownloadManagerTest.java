@@ -0,0 +1,173 @@
+package com.eric.core.download;
+
+import com.eric.core.core.HttpClientManager;
+import com.eric.core.core.HttpConfig;
+import com.eric.core.listener.DownloadManagerListener;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * DownloadManager：进程重启后从磁盘已有部分续传、去重、并发数限制与取消
+ */
+public class DownloadManagerTest {
+    private static final int SIZE = 512 * 1024;
+    private static final String ETAG = "\"v1\"";
+
+    private MockWebServer server;
+    private byte[] data;
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        data = new byte[SIZE];
+        new Random(1).nextBytes(data);
+        server = new MockWebServer();
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String range = request.getHeader("Range");
+                if (range != null && ETAG.equals(request.getHeader("If-Range"))) {
+                    int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                    return new MockResponse().setResponseCode(206).addHeader("ETag", ETAG).addHeader("Content-Range",
+                            "bytes " + start + "-" + (SIZE - 1) + "/" + SIZE).setBody(new Buffer().write(data, start,
+                            SIZE - start));
+                }
+                // 首次下载限速，便于在中途模拟进程退出
+                return new MockResponse().addHeader("ETag", ETAG).setBody(new Buffer().write(data)).throttleBody(32 *
+                        1024, 50, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        dir = new File(System.getProperty("java.io.tmpdir"), "download-manager-" + System.nanoTime());
+        HttpConfig config = new HttpConfig();
+        config.setProgressIntervalMillis(0);
+        HttpClientManager.getInstance().init(null, config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        delete(dir);
+    }
+
+    @Test
+    public void restart_resumesFromDisk() throws Exception {
+        File dest = new File(dir, "files/a.bin");
+        DownloadManager first = new DownloadManager(new File(dir, "store"), 2);
+        final CountDownLatch halfway = new CountDownLatch(1);
+        first.addListener(new SimpleListener() {
+            @Override
+            public void onProgress(DownloadTask task, long downloadedBytes, long totalBytes) {
+                if (downloadedBytes >= SIZE / 4) {
+                    halfway.countDown();
+                }
+            }
+        });
+        first.start();
+        String id = first.enqueue(server.url("/a").toString(), dest.getPath(), null, "group");
+        assertTrue(halfway.await(10, TimeUnit.SECONDS));
+        // 模拟进程退出：停止传输，任务记录保持下载中
+        first.shutdown();
+        Thread.sleep(300);
+        long partial = dest.length();
+        assertTrue(partial > 0 && partial < SIZE);
+
+        DownloadManager second = new DownloadManager(new File(dir, "store"), 2);
+        DownloadTask restored = second.getTask(id);
+        assertNotNull(restored);
+        assertEquals(DownloadTask.STATE_QUEUED, restored.getState());
+        final CountDownLatch done = new CountDownLatch(1);
+        second.addListener(new SimpleListener() {
+            @Override
+            public void onStateChanged(DownloadTask task) {
+                if (task.getState() == DownloadTask.STATE_COMPLETED) {
+                    done.countDown();
+                }
+            }
+        });
+        second.start();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertArrayEquals(data, readFile(dest));
+        assertEquals(2, server.getRequestCount());
+        server.takeRequest();
+        RecordedRequest resumed = server.takeRequest();
+        assertEquals("bytes=" + partial + "-", resumed.getHeader("Range"));
+        assertEquals(ETAG, resumed.getHeader("If-Range"));
+        assertEquals(DownloadTask.STATE_COMPLETED, new DownloadManager(new File(dir, "store"), 2).getTask(id).getState());
+    }
+
+    @Test
+    public void enqueue_dedupAndBoundedConcurrency() throws Exception {
+        DownloadManager manager = new DownloadManager(new File(dir, "store"), 1);
+        manager.start();
+        String a = manager.enqueue(server.url("/a").toString(), new File(dir, "files/a.bin").getPath(), null, "group");
+        String b = manager.enqueue(server.url("/b").toString(), new File(dir, "files/b.bin").getPath(), null, "group");
+        assertEquals(a, manager.enqueue(server.url("/a").toString(), new File(dir, "files/a.bin").getPath(), null,
+                "group"));
+        assertEquals(2, manager.getTasks().size());
+        assertEquals(DownloadTask.STATE_RUNNING, manager.getTask(a).getState());
+        assertEquals(DownloadTask.STATE_QUEUED, manager.getTask(b).getState());
+
+        manager.pause(a);
+        assertEquals(DownloadTask.STATE_PAUSED, manager.getTask(a).getState());
+        assertEquals(DownloadTask.STATE_RUNNING, manager.getTask(b).getState());
+
+        manager.cancelByTag("group");
+        assertTrue(manager.getTasks().isEmpty());
+        Thread.sleep(300);
+        assertFalse(new File(dir, "files/a.bin").exists());
+        assertFalse(new File(dir, "files/b.bin").exists());
+        assertTrue(new DownloadManager(new File(dir, "store"), 1).getTasks().isEmpty());
+    }
+
+    private static byte[] readFile(File file) throws Exception {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            byte[] bytes = new byte[(int) in.length()];
+            in.readFully(bytes);
+            return bytes;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class SimpleListener implements DownloadManagerListener {
+        @Override
+        public void onStateChanged(DownloadTask task) {
+        }
+
+        @Override
+        public void onProgress(DownloadTask task, long downloadedBytes, long totalBytes) {
+        }
+    }
+}
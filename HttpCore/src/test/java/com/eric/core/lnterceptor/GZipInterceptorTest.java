@@ -0,0 +1,145 @@
+package com.eric.core.lnterceptor;
+
+import com.eric.core.core.CompressionStats;
+import com.eric.core.core.HttpConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSource;
+import okio.Okio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * GZipInterceptor：阈值、类型过滤、Content-Length保留、deflate与流式压缩
+ */
+public class GZipInterceptorTest {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private CompressionStats stats;
+    private String largeJson;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        stats = new CompressionStats();
+        client = new OkHttpClient.Builder().addInterceptor(new GZipInterceptor(1024, 64 * 1024, 6, stats)).build();
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            builder.append("{\"id\":").append(i).append(",\"title\":\"item\"},");
+        }
+        largeJson = builder.append("{}]").toString();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void gzip_bufferedKeepsContentLength() throws Exception {
+        RecordedRequest request = post(RequestBody.create(JSON, largeJson), "gzip");
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        assertEquals(String.valueOf(request.getBodySize()), request.getHeader("Content-Length"));
+        assertTrue(request.getBodySize() < largeJson.length());
+        assertEquals(largeJson, Okio.buffer(new GzipSource(request.getBody())).readUtf8());
+        assertEquals(1, stats.getCompressedCount());
+        assertEquals(largeJson.length(), stats.getRawBytes());
+        assertTrue(stats.getRatio() < 0.5);
+    }
+
+    @Test
+    public void gzip_buffersUnknownLength() throws Exception {
+        RecordedRequest small = post(unknownLength("{\"id\":1}"), "gzip");
+        assertNull(small.getHeader("Content-Encoding"));
+        assertEquals("8", small.getHeader("Content-Length"));
+        assertEquals("{\"id\":1}", small.getBody().readUtf8());
+
+        RecordedRequest large = post(unknownLength(largeJson), "gzip");
+        assertEquals("gzip", large.getHeader("Content-Encoding"));
+        assertNull(large.getHeader("Transfer-Encoding"));
+        assertEquals(String.valueOf(large.getBodySize()), large.getHeader("Content-Length"));
+        assertEquals(largeJson, Okio.buffer(new GzipSource(large.getBody())).readUtf8());
+        assertEquals(1, stats.getSkippedCount());
+        assertEquals(1, stats.getCompressedCount());
+    }
+
+    @Test
+    public void deflate_streamsUnknownLength() throws Exception {
+        // 超过缓冲上限时按chunked流式压缩
+        client = new OkHttpClient.Builder().addInterceptor(new GZipInterceptor(1024, 4 * 1024, 6, stats)).build();
+        RecordedRequest request = post(unknownLength(largeJson), "deflate");
+        assertEquals("deflate", request.getHeader("Content-Encoding"));
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        InflaterInputStream in = new InflaterInputStream(request.getBody().inputStream(), new Inflater());
+        assertEquals(largeJson, Okio.buffer(Okio.source(in)).readUtf8());
+        assertEquals(request.getBodySize(), stats.getCompressedBytes());
+    }
+
+    @Test
+    public void skip_smallOrIncompressible() throws Exception {
+        RecordedRequest small = post(RequestBody.create(JSON, "{\"id\":1}"), "gzip");
+        assertNull(small.getHeader("Content-Encoding"));
+        assertEquals("{\"id\":1}", small.getBody().readUtf8());
+
+        byte[] image = new byte[4096];
+        RecordedRequest jpeg = post(RequestBody.create(MediaType.parse("image/jpeg"), image), "gzip");
+        assertNull(jpeg.getHeader("Content-Encoding"));
+        assertEquals(image.length, jpeg.getBodySize());
+
+        assertEquals(2, stats.getSkippedCount());
+        assertEquals(0, stats.getCompressedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalLevel_rejected() {
+        new GZipInterceptor(1024, 64 * 1024, 10, stats);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalLevel_rejectedByConfig() {
+        new HttpConfig().setCompressLevel(-2);
+    }
+
+    private static RequestBody unknownLength(final String json) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.writeUtf8(json);
+            }
+        };
+    }
+
+    private RecordedRequest post(RequestBody body, String encoding) throws Exception {
+        server.enqueue(new MockResponse());
+        Request request = new Request.Builder().url(server.url("/")).header("Content-Encoding", encoding).post(body)
+                .build();
+        client.newCall(request).execute().close();
+        return server.takeRequest();
+    }
+}
@@ -0,0 +1,243 @@
+package com.eric.core.lnterceptor;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * StructuredLoggerInterceptor：级别过滤、采样、peekBody不消费响应体，以及与LoggerInterceptor的请求线程开销对比
+ */
+public class StructuredLoggerInterceptorTest {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final int WARMUP = 20000;
+    private static final int ROUNDS = 200000;
+
+    private static class CollectingSink implements StructuredLoggerInterceptor.Sink {
+        final List<Integer> levels = new ArrayList<>();
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public synchronized void log(int level, String tag, String message) {
+            levels.add(level);
+            messages.add(message);
+        }
+    }
+
+    private MockWebServer server;
+    private CollectingSink sink;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        sink = new CollectingSink();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void debug_logsHeadersAndCappedBodyWithoutConsumingIt() throws Exception {
+        StructuredLoggerInterceptor logger = new StructuredLoggerInterceptor(Log.DEBUG, 1f, 16, 64, sink);
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(logger).build();
+        String body = "{\"code\":200,\"message\":\"this body is longer than the cap\"}";
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(body));
+        Response response = client.newCall(new Request.Builder().url(server.url("/detail")).post(RequestBody.create
+                (JSON, "{}")).header("X-Trace", "abc").build()).execute();
+        assertEquals(body, response.body().string());
+        logger.flush();
+        logger.shutdown();
+
+        assertEquals(1, sink.messages.size());
+        assertEquals(Log.INFO, (int) sink.levels.get(0));
+        String message = sink.messages.get(0);
+        assertTrue(message, message.matches("(?s)\\d{2}:\\d{2}:\\d{2}\\.\\d{3} <-- 200 POST .*"));
+        assertTrue(message, message.contains(" <-- 200 POST " + server.url("/detail") + " ("));
+        assertTrue(message, message.contains("req 2B, resp " + body.length() + "B)"));
+        assertTrue(message, message.contains("\n  X-Trace: abc"));
+        assertTrue(message, message.endsWith("\nbody: " + body.substring(0, 16)));
+    }
+
+    @Test
+    public void info_samplesSuccessButKeepsErrors() throws Exception {
+        StructuredLoggerInterceptor logger = new StructuredLoggerInterceptor(Log.INFO, 0f, 4096, 64, sink);
+        OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false).addInterceptor(logger).build();
+        server.enqueue(new MockResponse().setBody("ok"));
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("error"));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        execute(client);
+        execute(client);
+        try {
+            execute(client);
+            fail();
+        } catch (IOException expected) {
+        }
+        logger.flush();
+        logger.shutdown();
+
+        assertEquals(2, sink.messages.size());
+        assertEquals(Log.WARN, (int) sink.levels.get(0));
+        assertTrue(sink.messages.get(0), sink.messages.get(0).contains(" <-- 500 GET "));
+        assertTrue(!sink.messages.get(0).contains("body:"));
+        assertEquals(Log.ERROR, (int) sink.levels.get(1));
+        assertTrue(sink.messages.get(1), sink.messages.get(1).contains(" <-- FAILED GET "));
+    }
+
+    @Test
+    public void warn_skipsSuccess() throws Exception {
+        StructuredLoggerInterceptor logger = new StructuredLoggerInterceptor(Log.WARN, 1f, 4096, 64, sink);
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(logger).build();
+        server.enqueue(new MockResponse().setBody("ok"));
+        execute(client);
+        logger.flush();
+        logger.shutdown();
+        assertEquals(0, sink.messages.size());
+    }
+
+    /**
+     * 只统计请求线程上的拦截器开销（测试环境的Log为空实现，不含logcat写入）
+     */
+    @Test
+    public void benchmark_callThreadOverhead() throws Exception {
+        Request request = new Request.Builder().url("https://api.example.com/v1/items?page=1").header("Accept",
+                "application/json").header("User-Agent", "benchmark").post(RequestBody.create(JSON, "{\"id\":1}"))
+                .build();
+        final Response response = new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(200)
+                .message("OK").header("Content-Type", "application/json").body(ResponseBody.create(JSON, "{}"))
+                .build();
+        StructuredLoggerInterceptor.Sink discard = new StructuredLoggerInterceptor.Sink() {
+            @Override
+            public void log(int level, String tag, String message) {
+            }
+        };
+        Interceptor none = new Interceptor() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                return chain.proceed(chain.request());
+            }
+        };
+        Interceptor legacy = new LoggerInterceptor();
+        StructuredLoggerInterceptor structured = new StructuredLoggerInterceptor(Log.INFO, 1f, 4096, 4096, discard);
+        StructuredLoggerInterceptor sampled = new StructuredLoggerInterceptor(Log.INFO, 0.1f, 4096, 4096, discard);
+        Interceptor.Chain chain = new FixedChain(request, response);
+
+        run(none, chain, WARMUP);
+        run(legacy, chain, WARMUP);
+        run(structured, chain, WARMUP);
+        run(sampled, chain, WARMUP);
+        long noneNanos = run(none, chain, ROUNDS);
+        long legacyNanos = run(legacy, chain, ROUNDS);
+        long structuredNanos = run(structured, chain, ROUNDS);
+        long sampledNanos = run(sampled, chain, ROUNDS);
+        structured.shutdown();
+        sampled.shutdown();
+        System.out.println(String.format("logger x%d per call: none %dns, LoggerInterceptor %dns, structured %dns, " +
+                "structured 10%% sampled %dns, dropped %d", ROUNDS, noneNanos / ROUNDS, legacyNanos / ROUNDS,
+                structuredNanos / ROUNDS, sampledNanos / ROUNDS, structured.getDroppedCount()));
+        assertTrue(structuredNanos < legacyNanos);
+    }
+
+    private static long run(Interceptor interceptor, Interceptor.Chain chain, int rounds) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            interceptor.intercept(chain);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void execute(OkHttpClient client) throws IOException {
+        Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute();
+        try {
+            response.body().string();
+        } finally {
+            response.close();
+        }
+    }
+
+    private static class FixedChain implements Interceptor.Chain {
+        private final Request request;
+        private final Response response;
+
+        FixedChain(Request request, Response response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) {
+            return response;
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+}